@@ -0,0 +1,79 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.utils.ArvorePrefixos;
+
+// Sugestões da árvore de prefixos com títulos gerados a partir de sílabas, o prefixo curto tem muitas chaves abaixo dele
+// e o longo quase nenhuma, as duas buscas param no total pedido
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AutocompletarBenchmark {
+	
+	@Param({"1000000"})
+	private int quantidade;
+	
+	private ArvorePrefixos arvore;
+	
+	private String titulo;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		arvore = new ArvorePrefixos();
+		Random random = new Random(42);
+		for(long id = 1; id <= quantidade; id++) {
+			arvore.adicionar(id, getTitulo(random));
+		}
+		titulo = arvore.buscar("ma", 1).get(0).getTexto();
+	}
+	
+	@Benchmark
+	public List<SugestaoDTO> buscarPrefixoCurto() {
+		return arvore.buscar("Ma", 10);
+	}
+	
+	@Benchmark
+	public List<SugestaoDTO> buscarPrefixoLongo() {
+		return arvore.buscar(titulo, 10);
+	}
+	
+	@Benchmark
+	public List<SugestaoDTO> buscarPrefixoInexistente() {
+		return arvore.buscar("Zzz", 10);
+	}
+	
+	private String getTitulo(Random random) {
+		String silabas = "bacadafagalamanapasatavaxabecedefegelemenepesetevexe";
+		StringBuilder titulo = new StringBuilder();
+		int totalSilabas = 4 + random.nextInt(8);
+		for(int i = 0; i < totalSilabas; i++) {
+			if(i > 0 && i % 3 == 0) {
+				titulo.append(' ');
+			}
+			int inicio = random.nextInt(silabas.length() / 2) * 2;
+			titulo.append(silabas, inicio, inicio + 2);
+		}
+		return titulo.toString();
+	}
+
+}
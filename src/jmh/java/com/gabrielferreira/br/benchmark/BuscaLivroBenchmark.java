@@ -0,0 +1,132 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.service.BuscaLivroService;
+
+// Busca textual no índice com livros gerados a partir de um vocabulário fixo, sem o banco, o resultado é em microssegundos por busca 
+// (somente os ids, a consulta dos livros no banco é uma só para qualquer quantidade), o aquecimento é longo pois o índice continua
+// juntando os segmentos em segundo plano depois da indexação e as primeiras iterações medem a busca disputando com essa junção
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 12, time = 4)
+@Measurement(iterations = 5, time = 2)
+public class BuscaLivroBenchmark {
+	
+	private static final int TAMANHO_LOTE = 10000;
+	
+	private static final int TOTAL_PALAVRAS = 20000;
+	
+	@Param({"1000000"})
+	private int quantidade;
+	
+	private BuscaLivroService buscaLivroService;
+	
+	private String[] palavras;
+	
+	@Setup(Level.Trial)
+	public void iniciar() throws IOException {
+		buscaLivroService = new BuscaLivroService(null);
+		
+		Random random = new Random(42);
+		palavras = new String[TOTAL_PALAVRAS];
+		for(int i = 0; i < palavras.length; i++) {
+			palavras[i] = getPalavra(random);
+		}
+		
+		List<Usuario> usuarios = new ArrayList<Usuario>();
+		for(int i = 0; i < 1000; i++) {
+			usuarios.add(Usuario.builder().id((long) i).autor(getTexto(random, 2)).build());
+		}
+		List<Categoria> categorias = new ArrayList<Categoria>();
+		for(int i = 0; i < 50; i++) {
+			categorias.add(Categoria.builder().id((long) i).descricao(getTexto(random, 1)).build());
+		}
+		
+		List<Livro> livros = new ArrayList<Livro>(TAMANHO_LOTE);
+		for(long id = 1; id <= quantidade; id++) {
+			livros.add(Livro.builder().id(id).titulo(getTexto(random, 3)).subtitulo(getTexto(random, 5)).sinopse(getTexto(random, 30))
+					.isbn(String.valueOf(9780000000000L + id)).usuario(usuarios.get(random.nextInt(usuarios.size())))
+					.categoria(categorias.get(random.nextInt(categorias.size()))).build());
+			if(livros.size() == TAMANHO_LOTE) {
+				buscaLivroService.indexarLivros(livros);
+				livros.clear();
+			}
+		}
+		buscaLivroService.indexarLivros(livros);
+	}
+	
+	@TearDown(Level.Trial)
+	public void finalizar() throws IOException {
+		buscaLivroService.destroy();
+	}
+	
+	@Benchmark
+	public List<Long> buscarPalavra() {
+		return buscaLivroService.buscarIds(palavras[100], 10);
+	}
+	
+	@Benchmark
+	public List<Long> buscarDuasPalavras() {
+		return buscaLivroService.buscarIds(palavras[10] + " " + palavras[20], 10);
+	}
+	
+	// A última palavra pela metade, como na digitação da caixa de busca
+	@Benchmark
+	public List<Long> buscarPrefixo() {
+		return buscaLivroService.buscarIds(palavras[30] + " " + palavras[40].substring(0, 3), 10);
+	}
+	
+	@Benchmark
+	public List<Long> buscarIsbn() {
+		return buscaLivroService.buscarIds("9780000500000", 10);
+	}
+	
+	// As palavras do início do vocabulário aparecem mais, como em um texto real
+	private String getTexto(Random random, int totalPalavras) {
+		StringBuilder texto = new StringBuilder();
+		for(int i = 0; i < totalPalavras; i++) {
+			if(i > 0) {
+				texto.append(' ');
+			}
+			double posicao = random.nextDouble();
+			texto.append(palavras[(int) (posicao * posicao * palavras.length)]);
+		}
+		return texto.toString();
+	}
+	
+	private String getPalavra(Random random) {
+		String silabas = "bacadafagalamanapasatavaxabecedefegelemenepesetevexe";
+		StringBuilder palavra = new StringBuilder();
+		int totalSilabas = 2 + random.nextInt(3);
+		for(int i = 0; i < totalSilabas; i++) {
+			int inicio = random.nextInt(silabas.length() / 2) * 2;
+			palavra.append(silabas, inicio, inicio + 2);
+		}
+		return palavra.toString();
+	}
+
+}
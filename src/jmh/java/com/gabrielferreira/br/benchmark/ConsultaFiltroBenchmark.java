@@ -0,0 +1,123 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Cliente;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarUsuarioDTO;
+import com.gabrielferreira.br.modelo.enums.TipoDocumento;
+import com.gabrielferreira.br.repositorio.CategoriaRepositorio;
+import com.gabrielferreira.br.repositorio.ClienteRepositorio;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.service.ClienteService;
+import com.gabrielferreira.br.service.LivroService;
+import com.gabrielferreira.br.service.UsuarioService;
+
+// Métodos de filtro dos services, a montagem da consulta com Criteria, a execução no H2 e a projeção direto no DTO, o resultado é em microssegundos por consulta
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConsultaFiltroBenchmark {
+	
+	@Param({"1000"})
+	private int quantidade;
+	
+	private ConfigurableApplicationContext contexto;
+	
+	private LivroService livroService;
+	
+	private UsuarioService usuarioService;
+	
+	private ClienteService clienteService;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		livroService = contexto.getBean(LivroService.class);
+		usuarioService = contexto.getBean(UsuarioService.class);
+		clienteService = contexto.getBean(ClienteService.class);
+		
+		List<Usuario> usuarios = new ArrayList<Usuario>();
+		for(int i = 0; i < quantidade / 10; i++) {
+			usuarios.add(Usuario.builder().autor("Autor Benchmark " + i).dataNascimento(new Date(i * 86400000L)).build());
+		}
+		usuarios = contexto.getBean(UsuarioRepositorio.class).saveAll(usuarios);
+		Categoria categoria = contexto.getBean(CategoriaRepositorio.class).save(Categoria.builder().descricao("Categoria Benchmark").build());
+		
+		List<Livro> livros = new ArrayList<Livro>();
+		List<Cliente> clientes = new ArrayList<Cliente>();
+		for(int i = 0; i < quantidade; i++) {
+			livros.add(Livro.builder().titulo("Livro Benchmark " + i).isbn(String.valueOf(i)).estoque(10)
+					.usuario(usuarios.get(i % usuarios.size())).categoria(categoria).build());
+			clientes.add(Cliente.builder().nomeCompleto("Cliente Benchmark " + i).documento(String.valueOf(i))
+					.dataNascimento(LocalDate.of(1990, 1, 1)).possuiLivro(i % 2 == 0).tipoDocumento(TipoDocumento.CPF).build());
+		}
+		contexto.getBean(LivroRepositorio.class).saveAll(livros);
+		contexto.getBean(ClienteRepositorio.class).saveAll(clientes);
+	}
+	
+	@TearDown(Level.Trial)
+	public void finalizar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public Page<LivroDTO> buscarLivrosPaginadas() {
+		return livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().titulo("Benchmark 1").build(), PageRequest.of(0, 5));
+	}
+	
+	@Benchmark
+	public Page<LivroDTO> buscarLivrosPaginadasAutorCategoria() {
+		return livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().usuarioNome("Autor Benchmark 1")
+				.descricaoCategoria("Categoria Benchmark").build(), PageRequest.of(0, 5));
+	}
+	
+	@Benchmark
+	public PaginaCursorDTO<LivroDTO> buscarLivrosCursor() {
+		return livroService.buscarLivrosCursor(ProcurarLivroDTO.builder().titulo("Benchmark").build(), null, 5);
+	}
+	
+	@Benchmark
+	public List<UsuarioDTO> filtroUsuarios() {
+		return usuarioService.filtroUsuarios(ProcurarUsuarioDTO.builder().autor("Benchmark 1").build());
+	}
+	
+	@Benchmark
+	public List<ClienteDTO> clientesFiltros() {
+		return clienteService.clientesFiltros(ProcurarClienteDTO.builder().nomeCompleto("Benchmark 1").possuiLivro(true).build());
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gabrielferreira.br.DemoSpringLibraryApiApplication;
+
+// Sobe a aplicação com o H2 em memória para os benchmarks, sem o log do sql e em uma porta livre
+final class ContextoBenchmark {
+	
+	private ContextoBenchmark() {}
+	
+	static ConfigurableApplicationContext iniciar(String... argumentosAdicionais) {
+		List<String> argumentos = new ArrayList<String>(List.of("--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--spring.main.banner-mode=off", "--server.port=0"));
+		argumentos.addAll(List.of(argumentosAdicionais));
+		return new SpringApplicationBuilder(DemoSpringLibraryApiApplication.class).run(argumentos.toArray(new String[0]));
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import com.gabrielferreira.br.controller.exception.ErrosController;
+import com.gabrielferreira.br.exception.Erro;
+import com.gabrielferreira.br.exception.ErroValidacaoException;
+import com.gabrielferreira.br.exception.RegraDeNegocioException;
+import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+
+// Custo de montar as respostas de erro, os métodos "anterior" repetem o tratamento de antes (SimpleDateFormat por resposta e a lista 
+// de campos juntada e separada de novo), executar com -prof gc para comparar também a alocação por resposta
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ErrosControllerBenchmark {
+	
+	private ErrosController errosController;
+	
+	private List<String> campos;
+	
+	private MethodArgumentNotValidException methodArgumentNotValidException;
+	
+	@Setup
+	public void iniciar() {
+		errosController = new ErrosController();
+		campos = Arrays.asList("O campo nome deve ter no mínimo 5 até 150 caracteres", "O campo data de nascimento não pode ser depois da data atual");
+		
+		BindingResult bindingResult = new BeanPropertyBindingResult(new CriarUsuarioDTO(), "criarUsuarioDTO");
+		bindingResult.addError(new FieldError("criarUsuarioDTO", "autor", "Autor não pode ser vazio"));
+		bindingResult.addError(new FieldError("criarUsuarioDTO", "dataNascimento", "Data de nascimento não pode ser vazio"));
+		methodArgumentNotValidException = new MethodArgumentNotValidException(null, bindingResult);
+	}
+	
+	@Benchmark
+	public ResponseEntity<Erro> erroValidacao() {
+		return errosController.erroValidacaoException(new ErroValidacaoException(campos), null);
+	}
+	
+	@Benchmark
+	public ResponseEntity<Erro> erroValidacaoAnterior() {
+		String mensagem = campos.toString();
+		String msgsErros = mensagem.replace("[", "").replace("]", "");
+		List<String> msgsErrosArray = new ArrayList<String>(Arrays.asList(msgsErros.split(",")));
+		
+		List<String> camposErro = new ArrayList<String>();
+		for(String campo : msgsErrosArray) {
+			camposErro.add(campo.trim());
+		}
+		
+		HttpStatus httpStatus = HttpStatus.BAD_REQUEST;
+		Erro erro = new Erro("Campos inválidos.", httpStatus.value(), new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date()), camposErro);
+		return new ResponseEntity<>(erro,httpStatus);
+	}
+	
+	@Benchmark
+	public ResponseEntity<Erro> regraDeNegocio() {
+		return errosController.regraDeNegocioException(new RegraDeNegocioException("Estoque do livro não pode ser menor do que 0."), null);
+	}
+	
+	@Benchmark
+	public ResponseEntity<Erro> regraDeNegocioAnterior() {
+		RuntimeException e = new RuntimeException("Estoque do livro não pode ser menor do que 0.");
+		HttpStatus httpStatus = HttpStatus.BAD_REQUEST;
+		Erro erro = new Erro(e.getMessage(), httpStatus.value(), new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date()), null);
+		return new ResponseEntity<>(erro,httpStatus);
+	}
+	
+	@Benchmark
+	public ResponseEntity<Erro> validacaoAnotacao() {
+		return errosController.handleValidationExceptions(methodArgumentNotValidException);
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
+
+// Custo de formatar um nome, o método "anterior" repete a formatação de antes (split, listas e toString), 
+// executar com -prof gc para comparar também a alocação por nome
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FormatacaoNomeBenchmark {
+	
+	@Param({"Gabriel Ferreira", "  gABRIEL   ferreira da silva  "})
+	private String nome;
+	
+	@Benchmark
+	public String formatacaoNome() {
+		return ValidacaoFormatacao.getFormatacaoNome(nome);
+	}
+	
+	@Benchmark
+	public String formatacaoNomeAnterior() {
+		String valorSemEspaco = nome.trim();
+		List<String> nomes = new ArrayList<>(Arrays.asList(valorSemEspaco.split(" ")));
+		List<String> nomesComFormato = new ArrayList<String>();
+		for(String nomeFormato : nomes) {
+			if(!nomeFormato.isEmpty()) {
+				String primeiraLetra = nomeFormato.substring(0, 1).toUpperCase();
+				String restante = nomeFormato.substring(1).toLowerCase();
+				nomesComFormato.add(primeiraLetra + restante);
+			}
+		}
+		return nomesComFormato.toString().replace(",", "").replace("[", "").replace("]", "");
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
+import com.gabrielferreira.br.repositorio.CategoriaRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.service.ClienteService;
+import com.gabrielferreira.br.service.IndiceTrigramasService;
+import com.gabrielferreira.br.service.LivroService;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
+
+// Filtros por pedaço do nome completo e do isbn com e sem os candidatos do índice de trigramas, com clientes e livros gerados direto 
+// no H2 por JDBC. O filtro "amplo" encontra mais clientes do que o máximo de candidatos e mostra a consulta voltando a ser somente o LIKE
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IndiceTrigramasBenchmark {
+	
+	private static final int TAMANHO_LOTE = 1000;
+	
+	private static final String[] NOMES = {"Ana", "Antonio", "Beatriz", "Bruno", "Camila", "Carlos", "Daniela", "Diego", "Eduarda", "Eduardo",
+			"Fernanda", "Felipe", "Gabriela", "Gabriel", "Helena", "Henrique", "Isabela", "Igor", "Juliana", "João", "Larissa", "Lucas", "Mariana",
+			"Marcos", "Natália", "Nicolas", "Olivia", "Otávio", "Patrícia", "Paulo", "Rafaela", "Rafael", "Sabrina", "Samuel", "Tatiana", "Thiago",
+			"Valéria", "Vinicius", "Yasmin", "Wagner", "Alice", "Arthur", "Bianca", "Caio", "Clara", "Davi", "Elisa", "Fábio", "Giovana", "Heitor"};
+	
+	private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima",
+			"Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias",
+			"Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana",
+			"Teixeira", "Araújo", "Batista", "Barros", "Campos", "Correia", "Castro", "Pinto", "Moura", "Cavalcanti", "Monteiro", "Meireles",
+			"Rezende", "Fonseca", "Queiroz", "Tavares"};
+	
+	@Param({"1000000"})
+	private int quantidade;
+	
+	@Param({"true", "false"})
+	private boolean indice;
+	
+	private ConfigurableApplicationContext contexto;
+	
+	private ClienteService clienteService;
+	
+	private LivroService livroService;
+	
+	@Setup(Level.Trial)
+	public void iniciar() throws SQLException {
+		contexto = ContextoBenchmark.iniciar();
+		clienteService = contexto.getBean(ClienteService.class);
+		livroService = contexto.getBean(LivroService.class);
+		
+		Usuario usuario = contexto.getBean(UsuarioRepositorio.class).save(Usuario.builder().autor("Autor Benchmark").dataNascimento(new java.util.Date(0)).build());
+		Categoria categoria = contexto.getBean(CategoriaRepositorio.class).save(Categoria.builder().descricao("Categoria Benchmark").build());
+		inserirRegistros(contexto.getBean(DataSource.class), usuario.getId(), categoria.getId());
+		
+		// Os registros entraram por fora dos services, com o índice ele é carregado de novo a partir do banco. Sem carregar, o total do
+		// índice é diferente do total das tabelas e os filtros ficam somente com o LIKE
+		if(indice) {
+			contexto.getBean(IndiceTrigramasService.class).afterPropertiesSet();
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void finalizar() {
+		contexto.close();
+	}
+	
+	// Nome e dois sobrenomes seguidos, algumas dezenas de clientes
+	@Benchmark
+	public List<ClienteDTO> clientesFiltrosSeletivo() {
+		return clienteService.clientesFiltros(ProcurarClienteDTO.builder().nomeCompleto("Helena Meireles Tava").build());
+	}
+	
+	// Dois sobrenomes seguidos, algumas centenas de clientes
+	@Benchmark
+	public List<ClienteDTO> clientesFiltrosComum() {
+		return clienteService.clientesFiltros(ProcurarClienteDTO.builder().nomeCompleto("Souza Lima").build());
+	}
+	
+	@Benchmark
+	public List<ClienteDTO> clientesFiltrosAmplo() {
+		return clienteService.clientesFiltros(ProcurarClienteDTO.builder().nomeCompleto("Silva").build());
+	}
+	
+	@Benchmark
+	public Page<LivroDTO> buscarLivrosIsbn() {
+		return livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().isbn("4815162").build(), PageRequest.of(0, 10));
+	}
+	
+	private void inserirRegistros(DataSource dataSource, Long idUsuario, Long idCategoria) throws SQLException {
+		Random random = new Random(42);
+		try(Connection conexao = dataSource.getConnection();
+				PreparedStatement insertCliente = conexao.prepareStatement("INSERT INTO TB_CLIENTE (ID, NOME_COMPLETO, NOME_COMPLETO_NORMALIZADO, DOCUMENTO, "
+						+ "DATA_NASCIMENTO, POSSUI_LIVRO, TIPO_DOCUMENTO) VALUES (?, ?, ?, ?, ?, ?, 'CPF')");
+				PreparedStatement insertLivro = conexao.prepareStatement("INSERT INTO TB_LIVRO (ID, TITULO, ISBN, ESTOQUE, USUARIO_ID, CATEGORIA_ID) "
+						+ "VALUES (?, ?, ?, 1, ?, ?)")){
+			conexao.setAutoCommit(false);
+			Date dataNascimento = Date.valueOf(LocalDate.of(1990, 1, 1));
+			for(long id = 1; id <= quantidade; id++) {
+				String nomeCompleto = NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " 
+						+ SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+				insertCliente.setLong(1, id);
+				insertCliente.setString(2, nomeCompleto);
+				insertCliente.setString(3, ValidacaoFormatacao.getTextoNormalizado(nomeCompleto));
+				insertCliente.setString(4, String.valueOf(id));
+				insertCliente.setDate(5, dataNascimento);
+				insertCliente.setBoolean(6, id % 2 == 0);
+				insertCliente.addBatch();
+				
+				insertLivro.setLong(1, id);
+				insertLivro.setString(2, "Livro Benchmark " + id);
+				// O multiplicador não tem fator 2 nem 5, cada id vira um isbn diferente e espalhado
+				insertLivro.setString(3, String.valueOf(9780000000000L + Math.floorMod(id * 2654435761L, 10000000000L)));
+				insertLivro.setLong(4, idUsuario);
+				insertLivro.setLong(5, idCategoria);
+				insertLivro.addBatch();
+				
+				if(id % TAMANHO_LOTE == 0) {
+					insertCliente.executeBatch();
+					insertLivro.executeBatch();
+					conexao.commit();
+				}
+			}
+			insertCliente.executeBatch();
+			insertLivro.executeBatch();
+			conexao.commit();
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RelatorioLoteDTO;
+import com.gabrielferreira.br.repositorio.CategoriaRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.service.LivroService;
+
+// Compara a inserção do lote de livros com os ids por IDENTITY (antes) e por sequência (depois), o resultado é em livros por segundo
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(InsercaoLivroBenchmark.TAMANHO_LOTE)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class InsercaoLivroBenchmark {
+	
+	static final int TAMANHO_LOTE = 500;
+	
+	@Param({"sequencia", "identidade"})
+	private String geracaoId;
+	
+	private ConfigurableApplicationContext contexto;
+	
+	private LivroService livroService;
+	
+	private Long idUsuario;
+	
+	private Long idCategoria;
+	
+	private long contador;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		// Sobrescrevendo a geração dos ids das entidades para IDENTITY, como era antes das sequências, as colunas IDENTITY
+		// não existem nas migrações, então o esquema volta a ser criado pelo Hibernate
+		if("identidade".equals(geracaoId)) {
+			contexto = ContextoBenchmark.iniciar("--spring.jpa.mapping-resources=META-INF/orm-identidade.xml", 
+					"--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=create-drop");
+		} else {
+			contexto = ContextoBenchmark.iniciar();
+		}
+		livroService = contexto.getBean(LivroService.class);
+		
+		Usuario usuario = contexto.getBean(UsuarioRepositorio.class).save(Usuario.builder().autor("Autor Benchmark").dataNascimento(new Date()).build());
+		Categoria categoria = contexto.getBean(CategoriaRepositorio.class).save(Categoria.builder().descricao("Categoria Benchmark").build());
+		idUsuario = usuario.getId();
+		idCategoria = categoria.getId();
+	}
+	
+	@TearDown(Level.Trial)
+	public void finalizar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public RelatorioLoteDTO inserirLote() {
+		List<CriarLivroDTO> criarLivrosDtos = new ArrayList<CriarLivroDTO>(TAMANHO_LOTE);
+		for(int i = 0; i < TAMANHO_LOTE; i++) {
+			long numero = ++contador;
+			criarLivrosDtos.add(CriarLivroDTO.builder().idUsuario(idUsuario).idCategoria(idCategoria).isbn(String.valueOf(numero))
+					.titulo("Livro Benchmark " + numero).subtitulo("Subtítulo do livro").sinopse("Sinopse do livro").estoque(10).build());
+		}
+		return livroService.inserirLote(criarLivrosDtos);
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Cliente;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
+import com.gabrielferreira.br.modelo.enums.TipoDocumento;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
+import com.gabrielferreira.br.validacao.CriarUsuarioValidacao;
+
+// Validações e conversões das entidades para os DTOs feitas a cada requisição, sem o Spring e sem o banco
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapeamentoBenchmark {
+	
+	private Livro livro;
+	
+	private Cliente cliente;
+	
+	private Usuario usuario;
+	
+	private CriarUsuarioDTO criarUsuarioValido;
+	
+	private CriarUsuarioDTO criarUsuarioInvalido;
+	
+	@Setup
+	public void iniciar() {
+		usuario = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		Categoria categoria = Categoria.builder().id(1L).descricao("Romance").build();
+		livro = Livro.builder().id(1L).titulo("Livro Benchmark").subtitulo("Subtítulo do livro").sinopse("Sinopse do livro")
+				.isbn("9788535914849").estoque(10).usuario(usuario).categoria(categoria).build();
+		cliente = Cliente.builder().id(1L).nomeCompleto("Gabriel Ferreira").documento("17778590000").dataNascimento(LocalDate.of(1997, 12, 26))
+				.possuiLivro(true).tipoDocumento(TipoDocumento.CPF).build();
+		criarUsuarioValido = CriarUsuarioDTO.builder().autor("Gabriel Ferreira").dataNascimento(new Date(0)).build();
+		criarUsuarioInvalido = CriarUsuarioDTO.builder().autor("Gab").build();
+	}
+	
+	@Benchmark
+	public void verificarIsbn() {
+		ValidacaoFormatacao.getVerificarIsbn(livro.getIsbn());
+	}
+	
+	@Benchmark
+	public String formatacaoNome() {
+		return ValidacaoFormatacao.getFormatacaoNome(usuario.getAutor());
+	}
+	
+	@Benchmark
+	public List<String> validacaoCriarUsuario() {
+		return CriarUsuarioValidacao.getVerificacaoErrosCriarUsuario(criarUsuarioValido);
+	}
+	
+	@Benchmark
+	public List<String> validacaoCriarUsuarioInvalido() {
+		return CriarUsuarioValidacao.getVerificacaoErrosCriarUsuario(criarUsuarioInvalido);
+	}
+	
+	@Benchmark
+	public LivroDTO livroDTO() {
+		return new LivroDTO(livro);
+	}
+	
+	@Benchmark
+	public LivroDTO livroDTOConsulta() {
+		return new LivroDTO(livro.getId(), livro.getTitulo(), livro.getSubtitulo(), livro.getSinopse(), livro.getIsbn(), livro.getEstoque(),
+				usuario.getId(), usuario.getAutor(), usuario.getDataNascimento(), 1L, "Romance");
+	}
+	
+	@Benchmark
+	public ClienteDTO clienteDTO() {
+		return new ClienteDTO(cliente);
+	}
+	
+	@Benchmark
+	public void usuarioDTO(Blackhole blackhole) {
+		blackhole.consume(new UsuarioDTO(usuario));
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.gabrielferreira.br.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.repositorio.CategoriaRepositorio;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+
+// Requisições completas na aplicação com o H2 em memória, passando pelo Tomcat, pelos controllers, pelo Jackson e pelo banco, 
+// o resultado é em microssegundos por requisição
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RequisicaoBenchmark {
+	
+	private static final int TOTAL_LIVROS = 500;
+	
+	private ConfigurableApplicationContext contexto;
+	
+	private HttpClient httpClient;
+	
+	private String url;
+	
+	private Long idLivro;
+	
+	private String idsLivros;
+	
+	private long contador;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api";
+		
+		Usuario usuario = contexto.getBean(UsuarioRepositorio.class).save(Usuario.builder().autor("Autor Benchmark").dataNascimento(new Date()).build());
+		Categoria categoria = contexto.getBean(CategoriaRepositorio.class).save(Categoria.builder().descricao("Categoria Benchmark").build());
+		List<Livro> livros = new ArrayList<Livro>();
+		for(int i = 0; i < TOTAL_LIVROS; i++) {
+			livros.add(Livro.builder().titulo("Livro Benchmark " + i).isbn(String.valueOf(i)).estoque(10).usuario(usuario).categoria(categoria).build());
+		}
+		livros = contexto.getBean(LivroRepositorio.class).saveAll(livros);
+		idLivro = livros.get(0).getId();
+		idsLivros = livros.stream().limit(20).map(l -> String.valueOf(l.getId())).collect(Collectors.joining(","));
+	}
+	
+	@TearDown(Level.Trial)
+	public void finalizar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public String obterLivro() throws IOException, InterruptedException {
+		return enviar(HttpRequest.newBuilder(URI.create(url + "/livros/" + idLivro)).GET());
+	}
+	
+	@Benchmark
+	public String obterLivrosPorIds() throws IOException, InterruptedException {
+		return enviar(HttpRequest.newBuilder(URI.create(url + "/livros?ids=" + idsLivros)).GET());
+	}
+	
+	@Benchmark
+	public String buscarLivrosFiltro() throws IOException, InterruptedException {
+		return enviar(HttpRequest.newBuilder(URI.create(url + "/livros/filtro?titulo=Benchmark%201&totalRegistro=10")).GET());
+	}
+	
+	@Benchmark
+	public String criarUsuario() throws IOException, InterruptedException {
+		String corpo = "{\"autor\":\"Autor Requisicao " + (++contador) + "\",\"dataNascimento\":\"26/12/1997\"}";
+		return enviar(HttpRequest.newBuilder(URI.create(url + "/usuarios")).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(corpo)));
+	}
+	
+	private String enviar(HttpRequest.Builder requisicao) throws IOException, InterruptedException {
+		HttpResponse<String> resposta = httpClient.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+		if(resposta.statusCode() >= 400) {
+			throw new IllegalStateException("Status " + resposta.statusCode() + ": " + resposta.body());
+		}
+		return resposta.body();
+	}
+
+}
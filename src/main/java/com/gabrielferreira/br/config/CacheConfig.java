@@ -0,0 +1,40 @@
+package com.gabrielferreira.br.config;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@EnableCaching
+@Configuration // Os caches e o tamanho/tempo de expiração ficam no application.properties (spring.cache.* e livraria.cache.*)
+@EnableConfigurationProperties({CacheProperties.class, CacheEntidadeProperties.class})
+public class CacheConfig {
+
+	public static final String CACHE_CATEGORIA = "categoria";
+	
+	public static final String CACHE_CATEGORIAS = "categorias";
+	
+	// Os caches do spring.cache usam a especificação comum, cada entidade configurada recebe um cache com o seu próprio tamanho e expiração
+	@Bean
+	public CacheManager cacheManager(CacheProperties cacheProperties, CacheEntidadeProperties cacheEntidadeProperties) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		if(StringUtils.isNotEmpty(cacheProperties.getCaffeine().getSpec())) {
+			cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+		}
+		cacheManager.setCacheNames(cacheProperties.getCacheNames());
+		
+		cacheEntidadeProperties.getEntidades().forEach((entidade, especificacao) -> {
+			if(StringUtils.isNotBlank(especificacao)) {
+				cacheManager.registerCustomCache(entidade, Caffeine.from(especificacao).build());
+			}
+		});
+		return cacheManager;
+	}
+	
+}
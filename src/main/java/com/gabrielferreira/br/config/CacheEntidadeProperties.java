@@ -0,0 +1,19 @@
+package com.gabrielferreira.br.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "livraria.cache") // Ex: livraria.cache.entidades.categoria=maximumSize=500,expireAfterWrite=10m,recordStats
+public class CacheEntidadeProperties {
+
+	// Nome da entidade em minúsculo e a especificação do Caffeine, a entidade que não estiver aqui não usa cache no getDetalhe
+	private Map<String, String> entidades = new LinkedHashMap<String, String>();
+	
+}
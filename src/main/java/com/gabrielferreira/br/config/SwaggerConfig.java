@@ -1,7 +1,15 @@
 package com.gabrielferreira.br.config;
 
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
@@ -10,6 +18,7 @@ import springfox.documentation.service.ApiInfo;
 import springfox.documentation.service.Contact;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 @EnableSwagger2
@@ -39,4 +48,33 @@ public class SwaggerConfig {
 				"https://zgabrielz.github.io/git-pages-portfolio/index.html", 
 				"ferreiragabriel2612@gmail.com");
 	}
+	
+	// Os end-points do actuator usam PathPatternParser, o Swagger só entende o ant-path-matcher, então ele documenta somente os controllers
+	@Bean
+	public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+		return new BeanPostProcessor() {
+			
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				if(bean instanceof WebMvcRequestHandlerProvider) {
+					removerMappingsComPatternParser(getHandlerMappings(bean));
+				}
+				return bean;
+			}
+			
+			private void removerMappingsComPatternParser(List<RequestMappingInfoHandlerMapping> mappings) {
+				List<RequestMappingInfoHandlerMapping> mappingsSemPatternParser = mappings.stream()
+						.filter(mapping -> mapping.getPatternParser() == null).collect(Collectors.toList());
+				mappings.clear();
+				mappings.addAll(mappingsSemPatternParser);
+			}
+			
+			@SuppressWarnings("unchecked")
+			private List<RequestMappingInfoHandlerMapping> getHandlerMappings(Object bean) {
+				Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+				ReflectionUtils.makeAccessible(field);
+				return (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+			}
+		};
+	}
 }
@@ -20,9 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Categoria;
-import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.CategoriaDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RegistrosPorIdsDTO;
 import com.gabrielferreira.br.service.CategoriaService;
 import com.gabrielferreira.br.service.LivroService;
 
@@ -83,17 +83,26 @@ public class CategoriaController {
 			@ApiResponse(code = 404,message = "Não foi encontrado a categoria"),
 	})
 	public ResponseEntity<Void> deletarCategoria(@PathVariable Long idCategoria){
-		Categoria categoria = categoriaService.getDetalhe(idCategoria);
-		
-		List<Livro> livros = livroService.livrosPorCategoriaId(categoria.getId());
-		if(!livros.isEmpty()) {
+		if(livroService.existeLivroPorCategoriaId(idCategoria)) {
 			throw new RegraDeNegocioException("Não é possível deletar categoria pois tem livros associados !");
 		}
 		
-		categoriaService.deletar(categoria.getId());
+		categoriaService.deletar(idCategoria);
 		return ResponseEntity.noContent().build();
 	}
 	
+	@GetMapping(params = "ids")
+	@ApiOperation("Obtém informação de várias categorias pelos ids informados, os ids não encontrados são informados na resposta")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar as categorias"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RegistrosPorIdsDTO<CategoriaDTO>> obterInformacaoCategorias(@RequestParam List<Long> ids){
+		RegistrosPorIdsDTO<CategoriaDTO> registrosPorIds = categoriaService.getRegistrosPorIds(ids, Categoria::getId, CategoriaDTO::new);
+		return new ResponseEntity<>(registrosPorIds,HttpStatus.OK);
+	}
+	
 	@GetMapping("/{idCategoria}")
 	@ApiOperation("Obtém informação de uma categoria por ID")
 	@ApiResponses(value = {
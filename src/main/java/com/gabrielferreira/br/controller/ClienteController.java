@@ -1,5 +1,6 @@
 package com.gabrielferreira.br.controller;
 
+import java.io.InputStream;
 import java.util.List;
 
 import javax.validation.Valid;
@@ -20,8 +21,13 @@ import org.springframework.web.bind.annotation.RestController;
 import com.gabrielferreira.br.modelo.Cliente;
 import com.gabrielferreira.br.modelo.dto.criar.CriarClienteDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.ImportacaoClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RegistrosPorIdsDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RemocaoLoteDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
 import com.gabrielferreira.br.service.ClienteService;
+import com.gabrielferreira.br.service.ImportacaoClienteService;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -36,6 +42,9 @@ public class ClienteController {
 	@Autowired
 	private ClienteService clienteService;
 	
+	@Autowired
+	private ImportacaoClienteService importacaoClienteService;
+	
 	@PostMapping
 	@ApiOperation("Inserir um cliente")
 	@ApiResponses(value = {
@@ -51,6 +60,42 @@ public class ClienteController {
 		return new ResponseEntity<>(clienteDTO,HttpStatus.CREATED);
 	}
 	
+	@PostMapping(value = "/importacao", consumes = "text/csv")
+	@ApiOperation("Importar clientes de um arquivo CSV com cabeçalho (nomeCompleto, documento, dataNascimento, possuiLivro, tipoDocumentoCodigo)")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200,message = "Importou o arquivo, verifique as linhas rejeitadas"),
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para inserir os clientes"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<ImportacaoClienteDTO> importarClientes(InputStream inputStream){
+		ImportacaoClienteDTO importacaoClienteDTO = importacaoClienteService.importarClientes(inputStream);
+		return new ResponseEntity<>(importacaoClienteDTO,HttpStatus.OK);
+	}
+	
+	@GetMapping("/importacao")
+	@ApiOperation("Progresso das últimas importações de clientes, inclusive as que ainda estão em andamento")
+	@ApiResponses(value = {
+			@ApiResponse(code = 401,message = "Não autorizado para consultar as importações"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<List<ImportacaoClienteDTO>> mostrarImportacoes(){
+		List<ImportacaoClienteDTO> importacoes = importacaoClienteService.getImportacoes();
+		return new ResponseEntity<>(importacoes,HttpStatus.OK);
+	}
+	
+	@GetMapping("/importacao/{idImportacao}")
+	@ApiOperation("Progresso de uma importação de clientes por ID")
+	@ApiResponses(value = {
+			@ApiResponse(code = 401,message = "Não autorizado para consultar a importação"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+			@ApiResponse(code = 404,message = "Não foi encontrada a importação"),
+	})
+	public ResponseEntity<ImportacaoClienteDTO> obterImportacao(@PathVariable String idImportacao){
+		ImportacaoClienteDTO importacaoClienteDTO = importacaoClienteService.getImportacao(idImportacao);
+		return new ResponseEntity<>(importacaoClienteDTO,HttpStatus.OK);
+	}
+	
 	@PutMapping("/{idCliente}")
 	@ApiOperation("Atualizar um cliente informando o ID")
 	@ApiResponses(value = {
@@ -77,11 +122,53 @@ public class ClienteController {
 			@ApiResponse(code = 404,message = "Não foi encontrado o cliente"),
 	})
 	public ResponseEntity<Void> deletarCliente(@PathVariable Long idCliente){
-		Cliente cliente = clienteService.getDetalhe(idCliente);
-		clienteService.deletar(cliente.getId());
+		clienteService.deletar(idCliente);
 		return ResponseEntity.noContent().build();
 	}
 	
+	@DeleteMapping("/lote")
+	@ApiOperation("Deletar os clientes dos ids informados, os ids não encontrados são ignorados")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200,message = "Clientes deletados, verifique a quantidade removida"),
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para deletar os clientes"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RemocaoLoteDTO> deletarClientesLote(@RequestBody List<Long> idsClientes){
+		int removidos = clienteService.deletarLote(idsClientes);
+		return new ResponseEntity<>(new RemocaoLoteDTO(removidos),HttpStatus.OK);
+	}
+	
+	@DeleteMapping("/filtro")
+	@ApiOperation("Deletar todos os clientes filtrados, é preciso informar ao menos um filtro")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200,message = "Clientes deletados, verifique a quantidade removida"),
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para deletar os clientes"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RemocaoLoteDTO> deletarClientesFiltro(
+			@RequestParam(required = false) String nomeCompleto,
+			@RequestParam(required = false) String documento,
+			@RequestParam(required = false) Boolean possuiLivro,
+			@RequestParam(required = false) Integer tipoDocumentoCodigo){
+		ProcurarClienteDTO procurarClienteDTO = new ProcurarClienteDTO(nomeCompleto, documento, possuiLivro, tipoDocumentoCodigo);
+		int removidos = clienteService.deletarClientesFiltro(procurarClienteDTO);
+		return new ResponseEntity<>(new RemocaoLoteDTO(removidos),HttpStatus.OK);
+	}
+	
+	@GetMapping(params = "ids")
+	@ApiOperation("Obtém informação de vários clientes pelos ids informados, os ids não encontrados são informados na resposta")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os clientes"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RegistrosPorIdsDTO<ClienteDTO>> obterInformacaoClientes(@RequestParam List<Long> ids){
+		RegistrosPorIdsDTO<ClienteDTO> registrosPorIds = clienteService.getRegistrosPorIds(ids, Cliente::getId, ClienteDTO::new);
+		return new ResponseEntity<>(registrosPorIds,HttpStatus.OK);
+	}
+	
 	@GetMapping("/{idCliente}")
 	@ApiOperation("Obtém informação de um cliente por ID")
 	@ApiResponses(value = {
@@ -120,4 +207,25 @@ public class ClienteController {
 		
 		return new ResponseEntity<>(pagedListHolder,HttpStatus.OK);
 	}
+	
+	@GetMapping("/cursor")
+	@ApiOperation("Paginação por cursor da listagem de clientes, informe o cursor retornado no campo próximo para buscar a página seguinte")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os clientes"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+			@ApiResponse(code = 404,message = "Não foi encontrado o cliente"),
+	})
+	public ResponseEntity<PaginaCursorDTO<ClienteDTO>> mostrarClientesCursor(
+			@RequestParam(required = false) String nomeCompleto,
+			@RequestParam(required = false) String documento,
+			@RequestParam(required = false) Boolean possuiLivro,
+			@RequestParam(required = false) Integer tipoDocumentoCodigo,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "5", value = "totalRegistro") int totalRegistro
+			){
+		ProcurarClienteDTO procurarClienteDTO = new ProcurarClienteDTO(nomeCompleto, documento, possuiLivro, tipoDocumentoCodigo);
+		PaginaCursorDTO<ClienteDTO> paginacao = clienteService.clientesFiltrosCursor(procurarClienteDTO, cursor, totalRegistro);
+		return new ResponseEntity<>(paginacao,HttpStatus.OK);
+	}
 }
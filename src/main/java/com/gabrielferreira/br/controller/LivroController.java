@@ -1,12 +1,24 @@
 package com.gabrielferreira.br.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.support.PagedListHolder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +29,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabrielferreira.br.exception.ErroValidacaoException;
+import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RegistrosPorIdsDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RelatorioLoteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RemocaoLoteDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
 import com.gabrielferreira.br.service.LivroService;
 
@@ -33,9 +56,14 @@ import io.swagger.annotations.ApiResponses;
 @Api("Livro API")
 public class LivroController {
 
+	private static final MediaType NDJSON_MEDIATYPE = MediaType.parseMediaType("application/x-ndjson");
+	
 	@Autowired
 	private LivroService livroService;
 	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
 	@PostMapping
 	@ApiOperation("Inserir um livro")
 	@ApiResponses(value = {
@@ -51,6 +79,58 @@ public class LivroController {
 		return new ResponseEntity<>(criarLivroDTO,HttpStatus.CREATED);
 	}
 	
+	@PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+	@ApiOperation("Inserir um lote de livros, o resultado de cada livro é informado no relatório")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200,message = "Processou o lote, verifique o relatório de cada livro"),
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para inserir os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RelatorioLoteDTO> criarLivrosLote(@RequestBody List<CriarLivroDTO> livrosDtos){
+		RelatorioLoteDTO relatorioLoteDTO = livroService.inserirLote(livrosDtos);
+		return new ResponseEntity<>(relatorioLoteDTO,HttpStatus.OK);
+	}
+	
+	@PostMapping(value = "/lote", consumes = "application/x-ndjson")
+	@ApiOperation("Inserir um lote de livros, um livro em JSON por linha")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200,message = "Processou o lote, verifique o relatório de cada livro"),
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para inserir os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RelatorioLoteDTO> criarLivrosLoteNdjson(InputStream inputStream){
+		RelatorioLoteDTO relatorioLoteDTO = livroService.inserirLote(lerLinhas(inputStream));
+		return new ResponseEntity<>(relatorioLoteDTO,HttpStatus.OK);
+	}
+	
+	@GetMapping(params = "ids")
+	@ApiOperation("Obtém informação de vários livros pelos ids informados, os ids não encontrados são informados na resposta")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RegistrosPorIdsDTO<LivroDTO>> obterInformacaoLivros(@RequestParam List<Long> ids){
+		RegistrosPorIdsDTO<LivroDTO> registrosPorIds = livroService.getRegistrosPorIds(ids, Livro::getId, LivroDTO::new);
+		return new ResponseEntity<>(registrosPorIds,HttpStatus.OK);
+	}
+	
+	@GetMapping("/autocompletar")
+	@ApiOperation("Sugestões de títulos de livros que começam com o prefixo informado, sem diferenciar acento e maiúscula")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar as sugestões"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<List<SugestaoDTO>> autocompletarTitulos(
+			@RequestParam String prefixo,
+			@RequestParam(defaultValue = "10", value = "total") int total){
+		List<SugestaoDTO> sugestoes = livroService.autocompletarTitulos(prefixo, total);
+		return new ResponseEntity<>(sugestoes,HttpStatus.OK);
+	}
+	
 	@GetMapping("/{idLivro}")
 	@ApiOperation("Obtém informação de um livro por ID")
 	@ApiResponses(value = {
@@ -74,11 +154,41 @@ public class LivroController {
 			@ApiResponse(code = 404,message = "Não foi encontrado o livro"),
 	})
 	public ResponseEntity<Void> deletarLivro(@PathVariable Long idLivro){
-		Livro livro = livroService.getDetalhe(idLivro);
-		livroService.deletar(livro.getId());
+		livroService.deletar(idLivro);
 		return ResponseEntity.noContent().build();
 	}
 	
+	@DeleteMapping("/lote")
+	@ApiOperation("Deletar os livros dos ids informados, os ids não encontrados são ignorados")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200,message = "Livros deletados, verifique a quantidade removida"),
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para deletar os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RemocaoLoteDTO> deletarLivrosLote(@RequestBody List<Long> idsLivros){
+		int removidos = livroService.deletarLote(idsLivros);
+		return new ResponseEntity<>(new RemocaoLoteDTO(removidos),HttpStatus.OK);
+	}
+	
+	@DeleteMapping("/filtro")
+	@ApiOperation("Deletar todos os livros filtrados, é preciso informar ao menos um filtro")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200,message = "Livros deletados, verifique a quantidade removida"),
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para deletar os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RemocaoLoteDTO> deletarLivrosFiltro(
+			@RequestParam(required = false) String titulo,
+			@RequestParam(required = false) String isbn,
+			@RequestParam(required = false) String autor,
+			@RequestParam(required = false) String descricaoCategoria){
+		ProcurarLivroDTO procurarLivroDTO = new ProcurarLivroDTO(titulo, isbn, autor, descricaoCategoria);
+		int removidos = livroService.deletarLivrosFiltro(procurarLivroDTO);
+		return new ResponseEntity<>(new RemocaoLoteDTO(removidos),HttpStatus.OK);
+	}
+	
 	@PutMapping("/{idLivro}")
 	@ApiOperation("Atualizar um livro informando o ID")
 	@ApiResponses(value = {
@@ -98,11 +208,12 @@ public class LivroController {
 	@GetMapping("/filtro")
 	@ApiOperation("Paginação da listagem de livros")
 	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Página ou total de registros inválido"),
 			@ApiResponse(code = 401,message = "Não autorizado para consultar os livros"),
 			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
 			@ApiResponse(code = 404,message = "Não foi encontrado o livro"),
 	})
-	public ResponseEntity<PagedListHolder<LivroDTO>> buscarLivroPaginada(
+	public ResponseEntity<Page<LivroDTO>> buscarLivroPaginada(
 			@RequestParam(required = false) String titulo,
 			@RequestParam(required = false) String isbn,
 			@RequestParam(required = false) String autor,
@@ -110,12 +221,131 @@ public class LivroController {
 			@RequestParam(defaultValue = "0", value = "pagina") int pagina,
 			@RequestParam(defaultValue = "5", value = "totalRegistro") int totalRegistro){
 		ProcurarLivroDTO procurarLivroDTO = new ProcurarLivroDTO(titulo, isbn, autor, descricaoCategoria);
-		List<LivroDTO> livrosDtos = livroService.buscarLivrosPaginadas(procurarLivroDTO);
-		
-		PagedListHolder<LivroDTO> paginacao = new PagedListHolder<>(livrosDtos);
-		paginacao.setPage(pagina);
-		paginacao.setPageSize(totalRegistro);
-		
+		Page<LivroDTO> paginacao = livroService.buscarLivrosPaginadas(procurarLivroDTO, getPaginacao(pagina, totalRegistro));
 		return new ResponseEntity<>(paginacao,HttpStatus.OK);
 	}
+	
+	@GetMapping("/busca")
+	@ApiOperation("Busca textual de livros pelo título, subtítulo, sinopse, ISBN, autor e categoria, os livros vem do mais relevante para o menos relevante")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<List<LivroDTO>> buscarLivrosTexto(
+			@RequestParam String texto,
+			@RequestParam(defaultValue = "10", value = "totalRegistro") int totalRegistro){
+		List<LivroDTO> livros = livroService.buscarLivrosTexto(texto, totalRegistro);
+		return new ResponseEntity<>(livros,HttpStatus.OK);
+	}
+	
+	@GetMapping("/filtro/cursor")
+	@ApiOperation("Paginação por cursor da listagem de livros, informe o cursor retornado no campo próximo para buscar a página seguinte")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+			@ApiResponse(code = 404,message = "Não foi encontrado o livro"),
+	})
+	public ResponseEntity<PaginaCursorDTO<LivroDTO>> buscarLivroCursor(
+			@RequestParam(required = false) String titulo,
+			@RequestParam(required = false) String isbn,
+			@RequestParam(required = false) String autor,
+			@RequestParam(required = false) String descricaoCategoria,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "5", value = "totalRegistro") int totalRegistro){
+		ProcurarLivroDTO procurarLivroDTO = new ProcurarLivroDTO(titulo, isbn, autor, descricaoCategoria);
+		PaginaCursorDTO<LivroDTO> paginacao = livroService.buscarLivrosCursor(procurarLivroDTO, cursor, totalRegistro);
+		return new ResponseEntity<>(paginacao,HttpStatus.OK);
+	}
+	
+	@GetMapping("/export")
+	@ApiOperation("Exportação de todos os livros filtrados, um livro em JSON por linha")
+	@ApiResponses(value = {
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os livros"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<StreamingResponseBody> exportarLivros(
+			@RequestParam(required = false) String titulo,
+			@RequestParam(required = false) String isbn,
+			@RequestParam(required = false) String autor,
+			@RequestParam(required = false) String descricaoCategoria){
+		ProcurarLivroDTO procurarLivroDTO = new ProcurarLivroDTO(titulo, isbn, autor, descricaoCategoria);
+		StreamingResponseBody exportacao = outputStream -> livroService.exportarLivros(procurarLivroDTO, livroDTO -> escreverLinha(outputStream, livroDTO));
+		return ResponseEntity.ok().contentType(NDJSON_MEDIATYPE).body(exportacao);
+	}
+	
+	// Uma linha é lida e convertida a cada registro pedido pelo service, assim o corpo da requisição nunca fica inteiro na memória
+	private Iterator<CriarLivroDTO> lerLinhas(InputStream inputStream) {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		return new Iterator<CriarLivroDTO>() {
+			
+			private int numeroLinha;
+			
+			private boolean lido;
+			
+			private CriarLivroDTO proximo;
+			
+			@Override
+			public boolean hasNext() {
+				while(!lido) {
+					String linha = lerLinha(reader);
+					if(linha == null) {
+						return false;
+					}
+					numeroLinha++;
+					if(!linha.isBlank()) {
+						try {
+							proximo = objectMapper.readValue(linha, CriarLivroDTO.class);
+						} catch (JsonProcessingException e) {
+							throw new RegraDeNegocioException("Linha " + numeroLinha + " do lote não é um JSON válido.");
+						}
+						lido = true;
+					}
+				}
+				return true;
+			}
+			
+			@Override
+			public CriarLivroDTO next() {
+				if(!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				lido = false;
+				return proximo;
+			}
+		};
+	}
+	
+	private String lerLinha(BufferedReader reader) {
+		try {
+			return reader.readLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void escreverLinha(OutputStream outputStream, LivroDTO livroDTO) {
+		try {
+			outputStream.write(objectMapper.writeValueAsBytes(livroDTO));
+			outputStream.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	// O PageRequest não aceita página negativa nem total de registros menor que 1, os valores inválidos voltam como erro de validação
+	private PageRequest getPaginacao(int pagina, int totalRegistro) {
+		List<String> campos = new ArrayList<>();
+		if(pagina < 0) {
+			campos.add("A página não pode ser negativa.");
+		}
+		if(totalRegistro < 1) {
+			campos.add("O total de registros deve ser maior que zero.");
+		}
+		if(!campos.isEmpty()) {
+			throw new ErroValidacaoException(campos);
+		}
+		return PageRequest.of(pagina, totalRegistro);
+	}
 }
@@ -20,6 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 import com.gabrielferreira.br.exception.ErroValidacaoException;
 import com.gabrielferreira.br.modelo.Usuario;
 import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RegistrosPorIdsDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarUsuarioDTO;
 import com.gabrielferreira.br.service.UsuarioService;
@@ -55,6 +58,32 @@ public class UsuarioController {
 		return new ResponseEntity<>(criarUsuarioDTO,HttpStatus.CREATED);
 	}
 	
+	@GetMapping(params = "ids")
+	@ApiOperation("Obtém informação de vários usuários pelos ids informados, os ids não encontrados são informados na resposta")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os usuários"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<RegistrosPorIdsDTO<UsuarioDTO>> obterInformacaoUsuarios(@RequestParam List<Long> ids){
+		RegistrosPorIdsDTO<UsuarioDTO> registrosPorIds = usuarioService.getRegistrosPorIds(ids, Usuario::getId, UsuarioDTO::new);
+		return new ResponseEntity<>(registrosPorIds,HttpStatus.OK);
+	}
+	
+	@GetMapping("/autocompletar")
+	@ApiOperation("Sugestões de nomes de autores que começam com o prefixo informado, sem diferenciar acento e maiúscula")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar as sugestões"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+	})
+	public ResponseEntity<List<SugestaoDTO>> autocompletarAutores(
+			@RequestParam String prefixo,
+			@RequestParam(defaultValue = "10", value = "total") int total){
+		List<SugestaoDTO> sugestoes = usuarioService.autocompletarAutores(prefixo, total);
+		return new ResponseEntity<>(sugestoes,HttpStatus.OK);
+	}
+	
 	@GetMapping("/{idUsuario}")
 	@ApiOperation("Obtém informação de um usuário por ID")
 	@ApiResponses(value = {
@@ -103,6 +132,25 @@ public class UsuarioController {
 		return new ResponseEntity<>(paginacao,HttpStatus.OK);
 	}
 	
+	@GetMapping("/filtro/cursor")
+	@ApiOperation("Paginação por cursor da listagem de usuários, informe o cursor retornado no campo próximo para buscar a página seguinte")
+	@ApiResponses(value = {
+			@ApiResponse(code = 400,message = "Ocorreu um erro personalizado"),
+			@ApiResponse(code = 401,message = "Não autorizado para consultar os usuários"),
+			@ApiResponse(code = 403,message = "Não tem acesso a esse end-point"),
+			@ApiResponse(code = 404,message = "Não foi encontrado o usuário"),
+	})
+	public ResponseEntity<PaginaCursorDTO<UsuarioDTO>> listaDeUsuariosCursor(
+			@RequestParam(required = false) String autor,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") Date dataNascimentoInicio,
+			@RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") Date dataNascimentoFinal,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "5", value = "totalRegistro") int totalRegistro){
+		ProcurarUsuarioDTO procurarUsuarioDTO = new ProcurarUsuarioDTO(autor, dataNascimentoInicio,dataNascimentoFinal);
+		PaginaCursorDTO<UsuarioDTO> paginacao = usuarioService.filtroUsuariosCursor(procurarUsuarioDTO, cursor, totalRegistro);
+		return new ResponseEntity<>(paginacao,HttpStatus.OK);
+	}
+	
 	@PutMapping("/{idUsuario}")
 	@ApiOperation("Atualizar um usuário informando o ID")
 	@ApiResponses(value = {
@@ -135,14 +183,13 @@ public class UsuarioController {
 			@ApiResponse(code = 404,message = "Não foi encontrado o usuário"),
 	})
 	public ResponseEntity<Void> deletarUsuario(@PathVariable Long idUsuario){
-		Usuario usuario = usuarioService.getDetalhe(idUsuario);
-		usuarioService.deletar(usuario.getId());
+		usuarioService.deletar(idUsuario);
 		return ResponseEntity.noContent().build();
 	}
 	
 	private void verificarCamposUsuario(List<String> verificarCampos) {
 		if(!verificarCampos.isEmpty()) {
-			throw new ErroValidacaoException(verificarCampos.toString());
+			throw new ErroValidacaoException(verificarCampos);
 		}
 	}
 }
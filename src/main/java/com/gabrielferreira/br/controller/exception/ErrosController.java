@@ -1,9 +1,8 @@
 package com.gabrielferreira.br.controller.exception;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -23,6 +22,9 @@ import com.gabrielferreira.br.exception.RegraDeNegocioException;
 
 @ControllerAdvice
 public class ErrosController {
+	
+	// Imutável e thread-safe, uma única instância atende todas as respostas de erro
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
 	// A classe MethodArgumentNotValidException é chamada pois colocou a anotação @Valid
 	// Método para fazer a validação de anotação via hibernate e encaminhar a resposta em bad request para o usuário
@@ -33,48 +35,35 @@ public class ErrosController {
 		BindingResult bindingResult = ex.getBindingResult();
 		
 		// Instanciando uma lista para os campos e obtendo cada erro de validação
-		List<String> campos = new ArrayList<String>();
-		for(ObjectError objectError : bindingResult.getAllErrors()) {
+		List<ObjectError> errosValidacao = bindingResult.getAllErrors();
+		List<String> campos = new ArrayList<String>(errosValidacao.size());
+		for(ObjectError objectError : errosValidacao) {
 			campos.add(objectError.getDefaultMessage());
 		}
 		
-		HttpStatus httpStatus = HttpStatus.BAD_REQUEST;
-		
-		Erro erro = new Erro("Campos inválidos.", httpStatus.value(),new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date()), campos);
-		return new ResponseEntity<>(erro,httpStatus);
+		return getResposta("Campos inválidos.", HttpStatus.BAD_REQUEST, campos);
 	}
 	
 	// Método para fazer a validação via mão e encaminhar a resposta em bad request para o usuário
 	@ExceptionHandler(ErroValidacaoException.class)
 	public ResponseEntity<Erro> erroValidacaoException(ErroValidacaoException e, HttpServletRequest httpServletRequest){
-		
-		HttpStatus httpStatus = HttpStatus.BAD_REQUEST;
-		
-		String msgsErros = e.getMessage().replace("[", "").replace("]", "");
-		List<String> msgsErrosArray = new ArrayList<String>(Arrays.asList(msgsErros.split(",")));
-		
-		List<String> campos = new ArrayList<String>();
-		for(String campo : msgsErrosArray) {
-			campos.add(campo.trim());
-		}
-	
-		Erro erro = new Erro("Campos inválidos.", httpStatus.value(),new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date()), campos);
-		return new ResponseEntity<>(erro,httpStatus);
+		return getResposta(e.getMessage(), HttpStatus.BAD_REQUEST, e.getCampos());
 	}
 	
 	// Método que retornar os erros de regra de negocio e encaminhar a respostas em bad request para o usuário
 	@ExceptionHandler(RegraDeNegocioException.class)
 	public ResponseEntity<Erro> regraDeNegocioException(RegraDeNegocioException e, HttpServletRequest httpServletRequest){
-		HttpStatus httpStatus = HttpStatus.BAD_REQUEST;
-		Erro erro = new Erro(e.getMessage(), httpStatus.value(),new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date()), null);
-		return new ResponseEntity<>(erro,httpStatus);
+		return getResposta(e.getMessage(), HttpStatus.BAD_REQUEST, null);
 	}
 	
 	// Método que retornar os erros da entidade not found e encaminhar a respostas em not found para o usuário
 	@ExceptionHandler(EntidadeNotFoundException.class)
 	public ResponseEntity<Erro> entidadeNotFoundException(EntidadeNotFoundException e, HttpServletRequest httpServletRequest){
-		HttpStatus httpStatus = HttpStatus.NOT_FOUND;
-		Erro erro = new Erro(e.getMessage(), httpStatus.value(),new SimpleDateFormat("dd/MM/yyyy HH:mm:ss").format(new Date()), null);
+		return getResposta(e.getMessage(), HttpStatus.NOT_FOUND, null);
+	}
+	
+	private ResponseEntity<Erro> getResposta(String mensagem, HttpStatus httpStatus, List<String> campos){
+		Erro erro = new Erro(mensagem, httpStatus.value(), FORMATO_DATA.format(LocalDateTime.now()), campos);
 		return new ResponseEntity<>(erro,httpStatus);
 	}
 }
@@ -7,8 +7,12 @@ public class EntidadeNotFoundException extends RuntimeException{
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	// Instância única para o 404 mais comum, lançar não custa uma nova alocação
+	public static final EntidadeNotFoundException REGISTRO_NAO_ENCONTRADO = new EntidadeNotFoundException("Registro não encontrado.");
+	
+	// Sem pilha, a exceção sempre termina no ErrosController como resposta 404, capturar a pilha só deixaria o 404 mais caro
 	public EntidadeNotFoundException(String msg) {
-		super(msg);
+		super(msg, null, false, false);
 	}
 
 }
@@ -1,7 +1,6 @@
 package com.gabrielferreira.br.exception;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 
 import lombok.AllArgsConstructor;
@@ -26,6 +25,6 @@ public class Erro implements Serializable{
 	private Integer status;
 	private String data; 
 	
-	private List<String> campos = new ArrayList<String>();
+	private List<String> campos;
 
 }
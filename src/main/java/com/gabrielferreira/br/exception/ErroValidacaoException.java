@@ -1,5 +1,10 @@
 package com.gabrielferreira.br.exception;
 
+import java.util.List;
+
+import lombok.Getter;
+
+@Getter
 public class ErroValidacaoException extends RuntimeException{
 
 	/**
@@ -7,7 +12,12 @@ public class ErroValidacaoException extends RuntimeException{
 	 */
 	private static final long serialVersionUID = 1L;
 	
-	public ErroValidacaoException(String msg) {
-		super(msg);
+	// Os erros de cada campo seguem como lista até o ErrosController, sem juntar e separar a mensagem de novo
+	private final List<String> campos;
+	
+	// Sem pilha, a exceção sempre termina no ErrosController como resposta 400
+	public ErroValidacaoException(List<String> campos) {
+		super("Campos inválidos.", null, false, false);
+		this.campos = campos;
 	}
 }
@@ -7,7 +7,8 @@ public class RegraDeNegocioException extends RuntimeException{
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	// Sem pilha, a exceção sempre termina no ErrosController ou no relatório do lote, somente a mensagem é usada
 	public RegraDeNegocioException(String msg) {
-		super(msg);
+		super(msg, null, false, false);
 	}
 }
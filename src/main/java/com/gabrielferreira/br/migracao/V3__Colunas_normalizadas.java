@@ -0,0 +1,76 @@
+package com.gabrielferreira.br.migracao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// Colunas normalizadas (sem acento, em minúsculo e com um espaço entre as palavras) do nome completo do cliente e do autor do usuário.
+// Em um banco que já possui dados as colunas são preenchidas a partir do nome completo e do autor antes de ficarem obrigatórias,
+// os registros novos e alterados recebem o valor pelos callbacks das entidades
+public class V3__Colunas_normalizadas extends BaseJavaMigration {
+	
+	private static final int TAMANHO_LOTE = 500;
+	
+	private static final Pattern ACENTOS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+	
+	private static final Pattern ESPACOS = Pattern.compile("\\p{javaWhitespace}+");
+	
+	@Override
+	public void migrate(Context context) throws SQLException {
+		Connection connection = context.getConnection();
+		adicionarColunaNormalizada(connection, "TB_CLIENTE", "NOME_COMPLETO", "NOME_COMPLETO_NORMALIZADO", "IX_CLIENTE_NOME_COMPLETO_NORMALIZADO");
+		adicionarColunaNormalizada(connection, "TB_USUARIO", "AUTOR", "AUTOR_NORMALIZADO", "IX_USUARIO_AUTOR_NORMALIZADO");
+	}
+	
+	private void adicionarColunaNormalizada(Connection connection, String tabela, String coluna, String colunaNormalizada, String indice)
+			throws SQLException {
+		try(Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE " + tabela + " ADD COLUMN IF NOT EXISTS " + colunaNormalizada + " VARCHAR(255)");
+			preencher(connection, tabela, coluna, colunaNormalizada);
+			statement.execute("ALTER TABLE " + tabela + " ALTER COLUMN " + colunaNormalizada + " SET NOT NULL");
+			statement.execute("CREATE INDEX IF NOT EXISTS " + indice + " ON " + tabela + " (" + colunaNormalizada + ")");
+		}
+	}
+	
+	// Grava em lotes somente os registros com o valor normalizado diferente do que está na coluna
+	private void preencher(Connection connection, String tabela, String coluna, String colunaNormalizada) throws SQLException {
+		try(Statement consulta = connection.createStatement();
+				ResultSet registros = consulta.executeQuery("SELECT ID, " + coluna + ", " + colunaNormalizada + " FROM " + tabela);
+				PreparedStatement alteracao = connection.prepareStatement("UPDATE " + tabela + " SET " + colunaNormalizada + " = ? WHERE ID = ?")) {
+			int pendentes = 0;
+			while(registros.next()) {
+				String normalizado = getTextoNormalizado(registros.getString(2));
+				if(!Objects.equals(normalizado, registros.getString(3))) {
+					alteracao.setString(1, normalizado);
+					alteracao.setLong(2, registros.getLong(1));
+					alteracao.addBatch();
+					if(++pendentes % TAMANHO_LOTE == 0) {
+						alteracao.executeBatch();
+					}
+				}
+			}
+			alteracao.executeBatch();
+		}
+	}
+	
+	// Normalização do ValidacaoFormatacao.getTextoNormalizado como era ao criar esta migração, copiada aqui para que uma alteração
+	// futura daquele método não mude o que a migração grava em um banco novo. O texto nulo fica vazio, a coluna é obrigatória
+	static String getTextoNormalizado(String valor) {
+		if(valor == null) {
+			return "";
+		}
+		String semAcento = ACENTOS.matcher(Normalizer.normalize(valor, Normalizer.Form.NFD)).replaceAll("")
+				.replace('Ł', 'L').replace('ł', 'l');
+		return ESPACOS.matcher(semAcento).replaceAll(" ").strip().toLowerCase(Locale.ROOT);
+	}
+
+}
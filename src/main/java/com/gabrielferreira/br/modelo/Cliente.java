@@ -10,9 +10,14 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import com.gabrielferreira.br.modelo.enums.TipoDocumento;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,7 +28,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "TB_CLIENTE")
+@Table(name = "TB_CLIENTE", indexes = @Index(name = "IX_CLIENTE_NOME_COMPLETO_NORMALIZADO", columnList = "nome_completo_normalizado"))
 @Getter
 @Setter
 @Builder
@@ -39,12 +44,17 @@ public class Cliente implements Serializable{
 	private static final long serialVersionUID = 1L;
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clienteSequencia")
+	@SequenceGenerator(name = "clienteSequencia", sequenceName = "SQ_CLIENTE", allocationSize = 50)
 	private Long id;
 	
 	@Column(name = "nome_completo",nullable = false)
 	private String nomeCompleto;
 	
+	// Nome sem acento, em minúsculo e com um espaço entre as palavras, o filtro pelo nome completo usa esta coluna
+	@Column(name = "nome_completo_normalizado",nullable = false)
+	private String nomeCompletoNormalizado;
+	
 	@Column(name = "documento",nullable = false)
 	private String documento;
 	
@@ -56,5 +66,13 @@ public class Cliente implements Serializable{
 	
 	@Enumerated(EnumType.STRING)
 	private TipoDocumento tipoDocumento;
+	
+	// Único cálculo da coluna normalizada, para o cliente montado pelo construtor, pelo builder ou alterado pelo setter. A importação
+	// pela sessão sem estado não passa pelo callback e calcula o mesmo valor antes do insert
+	@PrePersist
+	@PreUpdate
+	private void normalizarNomeCompleto() {
+		nomeCompletoNormalizado = ValidacaoFormatacao.getTextoNormalizado(nomeCompleto);
+	}
 
 }
@@ -9,7 +9,9 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,7 +22,10 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "TB_LIVRO")
+@Table(name = "TB_LIVRO", uniqueConstraints = {
+		@UniqueConstraint(name = Livro.UK_LIVRO_ISBN, columnNames = "isbn"),
+		@UniqueConstraint(name = Livro.UK_LIVRO_TITULO, columnNames = "titulo")
+})
 @Getter
 @Setter
 @Builder
@@ -35,8 +40,17 @@ public class Livro implements Serializable{
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	public static final String UK_LIVRO_ISBN = "UK_LIVRO_ISBN";
+	
+	public static final String UK_LIVRO_TITULO = "UK_LIVRO_TITULO";
+	
+	public static final String FK_LIVRO_USUARIO = "USUARIO_FK";
+	
+	public static final String FK_LIVRO_CATEGORIA = "CATEGORIA_FK";
+	
 	@Id
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livroSequencia")
+    @SequenceGenerator(name = "livroSequencia", sequenceName = "SQ_LIVRO", allocationSize = 50)
 	@EqualsAndHashCode.Include
 	private Long id;
 	private String titulo;
@@ -45,11 +59,11 @@ public class Livro implements Serializable{
 	private String isbn;
 	private Integer estoque;
 	
-	@JoinColumn(name = "USUARIO_ID",foreignKey = @ForeignKey(name="usuario_fk"))
+	@JoinColumn(name = "USUARIO_ID",foreignKey = @ForeignKey(name = Livro.FK_LIVRO_USUARIO))
 	@ManyToOne
 	private Usuario usuario;
 	
-	@JoinColumn(name = "CATEGORIA_ID",foreignKey = @ForeignKey(name="categoria_fk"))
+	@JoinColumn(name = "CATEGORIA_ID",foreignKey = @ForeignKey(name = Livro.FK_LIVRO_CATEGORIA))
 	@ManyToOne
 	private Categoria categoria;
 
@@ -6,13 +6,21 @@ import java.util.Date;
 import java.util.List;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,7 +31,8 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "TB_USUARIO")
+@Table(name = "TB_USUARIO", uniqueConstraints = @UniqueConstraint(name = Usuario.UK_USUARIO_AUTOR, columnNames = "autor"),
+		indexes = @Index(name = "IX_USUARIO_AUTOR_NORMALIZADO", columnList = "autor_normalizado"))
 @Getter
 @Setter
 @Builder
@@ -38,15 +47,30 @@ public class Usuario implements Serializable{
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	public static final String UK_USUARIO_AUTOR = "UK_USUARIO_AUTOR";
+	
 	@Id
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarioSequencia")
+    @SequenceGenerator(name = "usuarioSequencia", sequenceName = "SQ_USUARIO", allocationSize = 50)
 	@EqualsAndHashCode.Include
 	private Long id;
 	private String autor;
+	
+	// Autor sem acento, em minúsculo e com um espaço entre as palavras, os filtros pelo autor usam esta coluna
+	@Column(name = "autor_normalizado",nullable = false)
+	private String autorNormalizado;
+	
 	private Date dataNascimento;
 	
 	@Builder.Default
 	@OneToMany(cascade = CascadeType.REMOVE,fetch = FetchType.LAZY)
 	private List<Livro> livros = new ArrayList<>();
+	
+	// Único cálculo da coluna normalizada, para o usuário montado pelo construtor, pelo builder ou alterado pelo setter
+	@PrePersist
+	@PreUpdate
+	private void normalizarAutor() {
+		autorNormalizado = ValidacaoFormatacao.getTextoNormalizado(autor);
+	}
 
 }
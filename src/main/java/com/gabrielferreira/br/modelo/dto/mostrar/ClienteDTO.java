@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.time.LocalDate;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.gabrielferreira.br.modelo.Cliente;
+import com.gabrielferreira.br.modelo.enums.TipoDocumento;
 
 import io.swagger.annotations.ApiModelProperty;
 import lombok.AllArgsConstructor;
@@ -53,4 +54,14 @@ public class ClienteDTO implements Serializable{
 		possuiLivro = cliente.getPossuiLivro();
 		tipoDocumentoCodigo = cliente.getTipoDocumento().getCodigo();
 	}
+	
+	// Construtor utilizado nas consultas que retornam o DTO direto do banco
+	public ClienteDTO(Long id, String nomeCompleto, String documento, LocalDate dataNascimento, Boolean possuiLivro, TipoDocumento tipoDocumento) {
+		this.id = id;
+		this.nomeCompleto = nomeCompleto;
+		this.documento = documento;
+		this.dataNascimento = dataNascimento;
+		this.possuiLivro = possuiLivro;
+		this.tipoDocumentoCodigo = tipoDocumento != null ? tipoDocumento.getCodigo() : null;
+	}
 }
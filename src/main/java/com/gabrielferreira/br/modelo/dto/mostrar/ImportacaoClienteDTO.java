@@ -0,0 +1,65 @@
+package com.gabrielferreira.br.modelo.dto.mostrar;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.gabrielferreira.br.modelo.enums.SituacaoImportacao;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoClienteDTO implements Serializable{
+	
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	@ApiModelProperty(value = "Código da importação",example = "3f1c2a9e-6b1d-4c3e-9a51-0d8f3b2e7c44")
+	private String id;
+	
+	@ApiModelProperty(value = "Situação da importação",example = "CONCLUIDA")
+	private SituacaoImportacao situacao;
+	
+	@ApiModelProperty(value = "Quantidade de linhas lidas do arquivo",example = "1000")
+	private Long processados;
+	
+	@ApiModelProperty(value = "Quantidade de clientes gravados",example = "998")
+	private Long inseridos;
+	
+	@ApiModelProperty(value = "Quantidade de linhas rejeitadas",example = "2")
+	private Long rejeitados;
+	
+	@ApiModelProperty(value = "Linhas lidas por segundo desde o início da importação",example = "15000.0")
+	private Double linhasPorSegundo;
+	
+	@ApiModelProperty(value = "Data e hora do início da importação",example = "26/12/2022 10:15:00")
+	@JsonFormat(pattern = "dd/MM/yyyy HH:mm:ss")
+	private LocalDateTime inicio;
+	
+	@ApiModelProperty(value = "Data e hora do fim da importação",example = "26/12/2022 10:16:40")
+	@JsonFormat(pattern = "dd/MM/yyyy HH:mm:ss")
+	private LocalDateTime fim;
+	
+	@ApiModelProperty(value = "Mensagem do erro que interrompeu a importação")
+	private String mensagem;
+	
+	@ApiModelProperty(value = "Primeiras linhas rejeitadas e o motivo")
+	@Builder.Default
+	private List<LinhaLoteDTO> rejeicoes = new ArrayList<LinhaLoteDTO>();
+
+}
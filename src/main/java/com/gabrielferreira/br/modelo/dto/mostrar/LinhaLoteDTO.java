@@ -0,0 +1,38 @@
+package com.gabrielferreira.br.modelo.dto.mostrar;
+
+import java.io.Serializable;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class LinhaLoteDTO implements Serializable{
+	
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	@ApiModelProperty(value = "Posição do registro no lote, começando em 1",example = "1")
+	private Integer linha;
+	
+	@ApiModelProperty(value = "Código gerado para o registro inserido",example = "1")
+	private Long id;
+	
+	@ApiModelProperty(value = "Indica se o registro foi inserido",example = "true")
+	private Boolean sucesso;
+	
+	@ApiModelProperty(value = "Motivo do registro não ter sido inserido",example = "Este ISBN já foi cadastrado por outro livro.")
+	private String mensagem;
+
+}
@@ -1,6 +1,7 @@
 package com.gabrielferreira.br.modelo.dto.mostrar;
 
 import java.io.Serializable;
+import java.util.Date;
 
 import com.gabrielferreira.br.modelo.Livro;
 
@@ -44,5 +45,18 @@ public class LivroDTO implements Serializable{
 		usuarioDto = new UsuarioDTO(livro.getUsuario());
 		categoriaDTO = new CategoriaDTO(livro.getCategoria());
 	}
+	
+	// Construtor utilizado nas consultas que retornam o DTO direto do banco, o usuário e a categoria vem do left join
+	public LivroDTO(Long id, String titulo, String subtitulo, String sinopse, String isbn, Integer estoque,
+			Long idUsuario, String autor, Date dataNascimento, Long idCategoria, String descricaoCategoria) {
+		this.id = id;
+		this.titulo = titulo;
+		this.subtitulo = subtitulo;
+		this.sinopse = sinopse;
+		this.isbn = isbn;
+		this.estoque = estoque;
+		this.usuarioDto = idUsuario != null ? new UsuarioDTO(idUsuario, autor, dataNascimento) : null;
+		this.categoriaDTO = idCategoria != null ? new CategoriaDTO(idCategoria, descricaoCategoria) : null;
+	}
 
 }
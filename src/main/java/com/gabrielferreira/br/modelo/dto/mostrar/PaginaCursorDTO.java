@@ -0,0 +1,38 @@
+package com.gabrielferreira.br.modelo.dto.mostrar;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class PaginaCursorDTO<T> implements Serializable{
+	
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	@ApiModelProperty(value = "Registros da página")
+	@Builder.Default
+	private List<T> conteudo = new ArrayList<T>();
+	
+	@ApiModelProperty(value = "Quantidade de registros por página",example = "5")
+	private Integer totalRegistro;
+	
+	@ApiModelProperty(value = "Cursor para buscar a próxima página, nulo quando não existir mais registros")
+	private String proximo;
+
+}
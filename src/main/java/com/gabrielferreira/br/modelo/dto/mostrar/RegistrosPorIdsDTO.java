@@ -0,0 +1,36 @@
+package com.gabrielferreira.br.modelo.dto.mostrar;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class RegistrosPorIdsDTO<T> implements Serializable{
+	
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	@ApiModelProperty(value = "Registros encontrados, na ordem dos ids informados")
+	@Builder.Default
+	private List<T> registros = new ArrayList<T>();
+	
+	@ApiModelProperty(value = "Ids informados que não foram encontrados")
+	@Builder.Default
+	private List<Long> naoEncontrados = new ArrayList<Long>();
+
+}
@@ -0,0 +1,48 @@
+package com.gabrielferreira.br.modelo.dto.mostrar;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class RelatorioLoteDTO implements Serializable{
+	
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	@ApiModelProperty(value = "Quantidade de registros recebidos",example = "100")
+	private Integer total;
+	
+	@ApiModelProperty(value = "Quantidade de registros inseridos",example = "98")
+	private Integer inseridos;
+	
+	@ApiModelProperty(value = "Quantidade de registros com erro",example = "2")
+	private Integer erros;
+	
+	@ApiModelProperty(value = "Resultado de cada registro do lote")
+	@Builder.Default
+	private List<LinhaLoteDTO> linhas = new ArrayList<LinhaLoteDTO>();
+	
+	public RelatorioLoteDTO(List<LinhaLoteDTO> linhas) {
+		this.linhas = linhas;
+		this.total = linhas.size();
+		this.inseridos = (int) linhas.stream().filter(LinhaLoteDTO::getSucesso).count();
+		this.erros = total - inseridos;
+	}
+
+}
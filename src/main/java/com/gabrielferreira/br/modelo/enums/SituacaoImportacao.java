@@ -0,0 +1,20 @@
+package com.gabrielferreira.br.modelo.enums;
+
+import lombok.Getter;
+import lombok.Setter;
+
+public enum SituacaoImportacao {
+
+	EM_ANDAMENTO("Em andamento"),
+	CONCLUIDA("Concluída"),
+	FALHOU("Falhou");
+	
+	@Getter
+	@Setter
+	private String descricao;
+	
+	private SituacaoImportacao(String descricao) {
+		this.descricao = descricao;
+	}
+	
+}
@@ -1,10 +1,17 @@
 package com.gabrielferreira.br.repositorio;
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.dto.mostrar.CategoriaDTO;
+import com.gabrielferreira.br.repositorio.abstrato.AbstractRepositorio;
 
 @Repository
-public interface CategoriaRepositorio extends JpaRepository<Categoria, Long>{
+public interface CategoriaRepositorio extends AbstractRepositorio<Categoria>{
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.CategoriaDTO(c.id, c.descricao) FROM Categoria c")
+	public List<CategoriaDTO> buscarCategoriasDTO();
 	
 }
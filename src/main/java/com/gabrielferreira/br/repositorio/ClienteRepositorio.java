@@ -1,9 +1,20 @@
 package com.gabrielferreira.br.repositorio;
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.gabrielferreira.br.modelo.Cliente;
+import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.repositorio.abstrato.AbstractRepositorio;
 
 @Repository
-public interface ClienteRepositorio extends JpaRepository<Cliente, Long>{
+public interface ClienteRepositorio extends AbstractRepositorio<Cliente>{
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO(c.id, c.nomeCompleto, c.documento, c.dataNascimento, c.possuiLivro, c.tipoDocumento) FROM Cliente c")
+	public List<ClienteDTO> buscarClientesDTO();
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO(c.id, c.nomeCompletoNormalizado) FROM Cliente c")
+	public List<SugestaoDTO> buscarNomesCompletosIndice();
 	
 }
@@ -1,28 +1,70 @@
 package com.gabrielferreira.br.repositorio;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.jpa.repository.JpaRepository;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.repositorio.abstrato.AbstractRepositorio;
 
 @Repository
-public interface LivroRepositorio extends JpaRepository<Livro, Long>{
+public interface LivroRepositorio extends AbstractRepositorio<Livro>{
 
-	@Query("SELECT l FROM Livro l where l.isbn = :isbn")
-	public Livro buscarIsbnLivro(@Param("isbn") String isbn);
+	@Query("SELECT l.isbn FROM Livro l")
+	public List<String> buscarIsbns();
+	
+	@Query("SELECT l.titulo FROM Livro l")
+	public List<String> buscarTitulos();
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO(l.id, l.titulo) FROM Livro l")
+	public List<SugestaoDTO> buscarSugestoesTitulos();
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO(l.id, l.isbn) FROM Livro l")
+	public List<SugestaoDTO> buscarIsbnsIndice();
+	
+	@Query("SELECT l.isbn FROM Livro l where l.isbn in :isbns")
+	public List<String> buscarIsbnsExistentes(@Param("isbns") Collection<String> isbns);
 	
-	@Query("SELECT l FROM Livro l where l.isbn = :isbn and l.id <> :idLivro")
-	public Livro buscarIsbnLivroQuandoForAtualizar(@Param("isbn") String isbn,@Param("idLivro") Long idLivro);
+	@Query("SELECT l.titulo FROM Livro l where l.titulo in :titulos")
+	public List<String> buscarTitulosExistentes(@Param("titulos") Collection<String> titulos);
+	
+	public Boolean existsByIsbn(String isbn);
+	
+	public Boolean existsByIsbnAndIdNot(String isbn, Long idLivro);
 
 	public Boolean existsByTitulo(String titulo);
 	
-	@Query("SELECT l FROM Livro l where l.titulo = :titulo and l.id <> :idLivro")
-	public Optional<Livro> existsByTituloQuandoForAtualizar(@Param("titulo") String titulo,@Param("idLivro") Long idLivro);
+	public Boolean existsByTituloAndIdNot(String titulo, Long idLivro);
+	
+	public Boolean existsByCategoriaId(Long idCategoria);
 	
-	@Query("SELECT l FROM Livro l join l.categoria c where c.id = :idCategoria")
+	@Query("SELECT l FROM Livro l join fetch l.categoria c left join fetch l.usuario where c.id = :idCategoria")
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true")) // Consulta do deletar categoria, fica no cache até alterar algum livro
 	public List<Livro> findLivrosByCategoriaId(@Param("idCategoria") Long idCategoria);
+	
+	// Livros do índice da busca textual em partes ordenadas pelo id, o usuário e a categoria são opcionais
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO(l.id, l.titulo, l.subtitulo, l.sinopse, l.isbn, l.estoque, "
+			+ "u.id, u.autor, u.dataNascimento, c.id, c.descricao) FROM Livro l left join l.usuario u left join l.categoria c "
+			+ "where l.id > :ultimoId and (:idUsuario is null or u.id = :idUsuario) and (:idCategoria is null or c.id = :idCategoria) order by l.id")
+	public List<LivroDTO> buscarLivrosIndice(@Param("ultimoId") Long ultimoId, @Param("idUsuario") Long idUsuario, 
+			@Param("idCategoria") Long idCategoria, Pageable pageable);
+	
+	@Override
+	@EntityGraph(attributePaths = {"usuario", "categoria"})
+	public Optional<Livro> findById(Long id);
+	
+	@Override
+	@EntityGraph(attributePaths = {"usuario", "categoria"})
+	public List<Livro> findAllById(Iterable<Long> ids);
 }
@@ -1,16 +1,30 @@
 package com.gabrielferreira.br.repositorio;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
+import com.gabrielferreira.br.repositorio.abstrato.AbstractRepositorio;
 
 @Repository
-public interface UsuarioRepositorio extends JpaRepository<Usuario, Long>{
+public interface UsuarioRepositorio extends AbstractRepositorio<Usuario>{
 
+	@Query("SELECT u.autor FROM Usuario u")
+	public List<String> buscarAutores();
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO(u.id, u.autor) FROM Usuario u")
+	public List<SugestaoDTO> buscarSugestoesAutores();
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO(u.id, u.autorNormalizado) FROM Usuario u")
+	public List<SugestaoDTO> buscarAutoresIndice();
+	
 	public Boolean existsByAutor(String autor);
 	
-	@Query("SELECT u FROM Usuario u where u.autor = :autor and u.id <> :idUsuario")
-	public Usuario buscarAutorUsuarioQuandoForAtualizar(@Param("autor") String autor,@Param("idUsuario") Long idUsuario);
+	public Boolean existsByAutorAndIdNot(String autor, Long idUsuario);
+	
+	@Query("SELECT new com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO(u.id, u.autor, u.dataNascimento) FROM Usuario u")
+	public List<UsuarioDTO> buscarUsuariosDTO();
 }
@@ -0,0 +1,27 @@
+package com.gabrielferreira.br.repositorio.abstrato;
+
+import java.util.Collection;
+
+import javax.transaction.Transactional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+@NoRepositoryBean
+public interface AbstractRepositorio<T> extends JpaRepository<T, Long>{
+	
+	// Delete direto no banco, sem buscar a entidade antes, retorna a quantidade de registros removidos
+	@Modifying
+	@Query("DELETE FROM #{#entityName} e where e.id = :id")
+	public int deletarPorId(@Param("id") Long id);
+	
+	// Chamado fora de uma transação, cada parte da remoção em lote é confirmada sozinha
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM #{#entityName} e where e.id in :ids")
+	public int deletarPorIds(@Param("ids") Collection<Long> ids);
+
+}
@@ -0,0 +1,73 @@
+package com.gabrielferreira.br.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Service;
+
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.utils.ArvorePrefixos;
+import com.gabrielferreira.br.utils.ExecucaoTransacao;
+
+// Sugestões de títulos e autores enquanto o usuário digita, respondidas pelas árvores de prefixos na memória sem consultar o banco
+@Service
+public class AutocompletarService implements InitializingBean{
+	
+	private final LivroRepositorio livroRepositorio;
+	
+	private final UsuarioRepositorio usuarioRepositorio;
+	
+	private final ArvorePrefixos titulos = new ArvorePrefixos();
+	
+	private final ArvorePrefixos autores = new ArvorePrefixos();
+	
+	public AutocompletarService(LivroRepositorio livroRepositorio, UsuarioRepositorio usuarioRepositorio) {
+		this.livroRepositorio = livroRepositorio;
+		this.usuarioRepositorio = usuarioRepositorio;
+	}
+	
+	// Carrega os títulos e autores já cadastrados antes da aplicação começar a receber requisições
+	@Override
+	public void afterPropertiesSet() {
+		livroRepositorio.buscarSugestoesTitulos().forEach(s -> titulos.adicionar(s.getId(), s.getTexto()));
+		usuarioRepositorio.buscarSugestoesAutores().forEach(s -> autores.adicionar(s.getId(), s.getTexto()));
+	}
+	
+	public List<SugestaoDTO> getTitulos(String prefixo, int total) {
+		return titulos.buscar(prefixo, total);
+	}
+	
+	public List<SugestaoDTO> getAutores(String prefixo, int total) {
+		return autores.buscar(prefixo, total);
+	}
+	
+	// O livro alterado troca o título antigo pelo novo, o id é o mesmo
+	public void adicionarLivros(Collection<Livro> livros) {
+		List<SugestaoDTO> sugestoes = new ArrayList<SugestaoDTO>();
+		livros.forEach(l -> sugestoes.add(new SugestaoDTO(l.getId(), l.getTitulo())));
+		ExecucaoTransacao.depoisDoCommit(() -> sugestoes.forEach(s -> titulos.adicionar(s.getId(), s.getTexto())));
+	}
+	
+	public void removerLivros(Collection<Long> ids) {
+		List<Long> idsLivros = new ArrayList<Long>(ids);
+		ExecucaoTransacao.depoisDoCommit(() -> idsLivros.forEach(titulos::remover));
+	}
+	
+	public void adicionarUsuario(Usuario usuario) {
+		Long id = usuario.getId();
+		String autor = usuario.getAutor();
+		ExecucaoTransacao.depoisDoCommit(() -> autores.adicionar(id, autor));
+	}
+	
+	public void removerUsuarios(Collection<Long> ids) {
+		List<Long> idsUsuarios = new ArrayList<Long>(ids);
+		ExecucaoTransacao.depoisDoCommit(() -> idsUsuarios.forEach(autores::remover));
+	}
+	
+}
@@ -0,0 +1,277 @@
+package com.gabrielferreira.br.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.utils.ExecucaoTransacao;
+
+// Índice invertido da busca textual de livros na memória, o banco continua sendo a origem dos dados e o índice é recriado a cada inicialização
+@Service
+public class BuscaLivroService implements InitializingBean, DisposableBean{
+	
+	private static final int TAMANHO_LOTE_INDEXACAO = 1000;
+	
+	private static final String CAMPO_ID = "id";
+	
+	// Todos os campos juntos, usado para encontrar os livros, os campos separados somente dão o peso na relevância
+	private static final String CAMPO_TEXTO = "texto";
+	
+	// Campos pesquisados e o peso de cada um na relevância, uma palavra no título vale mais do que na sinopse
+	private static final Map<String, Float> CAMPOS_BUSCA = new LinkedHashMap<String, Float>();
+	static {
+		CAMPOS_BUSCA.put("titulo", 4f);
+		CAMPOS_BUSCA.put("autor", 3f);
+		CAMPOS_BUSCA.put("isbn", 3f);
+		CAMPOS_BUSCA.put("subtitulo", 2f);
+		CAMPOS_BUSCA.put("categoria", 1.5f);
+		CAMPOS_BUSCA.put("sinopse", 1f);
+	}
+	
+	private final LivroRepositorio livroRepositorio;
+	
+	private final Directory diretorio;
+	
+	private final Analyzer analisador;
+	
+	private final IndexWriter indexWriter;
+	
+	private final SearcherManager searcherManager;
+	
+	// O índice fica somente na memória, as alterações depois da inicialização não são gravadas com commit e um índice no disco
+	// ficaria apenas com os livros da inicialização
+	public BuscaLivroService(LivroRepositorio livroRepositorio) throws IOException {
+		this.livroRepositorio = livroRepositorio;
+		this.diretorio = new ByteBuffersDirectory();
+		this.analisador = new AnalisadorBusca();
+		this.indexWriter = new IndexWriter(diretorio, new IndexWriterConfig(analisador));
+		this.searcherManager = new SearcherManager(indexWriter, null);
+	}
+	
+	// Indexa os livros já cadastrados antes da aplicação começar a receber requisições
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		List<LivroDTO> livros = livroRepositorio.buscarLivrosIndice(0L, null, null, PageRequest.of(0, TAMANHO_LOTE_INDEXACAO));
+		while(!livros.isEmpty()) {
+			for(LivroDTO livro : livros) {
+				indexWriter.addDocument(getDocumento(livro));
+			}
+			if(livros.size() < TAMANHO_LOTE_INDEXACAO) {
+				break;
+			}
+			livros = livroRepositorio.buscarLivrosIndice(livros.get(livros.size() - 1).getId(), null, null, PageRequest.of(0, TAMANHO_LOTE_INDEXACAO));
+		}
+		indexWriter.commit();
+		searcherManager.maybeRefresh();
+	}
+	
+	@Override
+	public void destroy() throws IOException {
+		searcherManager.close();
+		indexWriter.close();
+		diretorio.close();
+		analisador.close();
+	}
+	
+	public void indexarLivros(Collection<Livro> livros) {
+		List<Document> documentos = new ArrayList<Document>();
+		for(Livro livro : livros) {
+			documentos.add(getDocumento(new LivroDTO(livro)));
+		}
+		atualizarDepoisDoCommit(documentos);
+	}
+	
+	// O autor e a categoria ficam copiados nos documentos, ao alterar um deles os livros são indexados de novo
+	public void reindexarUsuario(Long idUsuario) {
+		atualizarDepoisDoCommit(getDocumentos(idUsuario, null));
+	}
+	
+	public void reindexarCategoria(Long idCategoria) {
+		atualizarDepoisDoCommit(getDocumentos(null, idCategoria));
+	}
+	
+	public void removerLivros(Collection<Long> ids) {
+		List<Term> termos = new ArrayList<Term>();
+		for(Long id : ids) {
+			termos.add(new Term(CAMPO_ID, String.valueOf(id)));
+		}
+		depoisDoCommit(() -> indexWriter.deleteDocuments(termos.toArray(new Term[0])));
+	}
+	
+	// Devolve os ids dos livros encontrados do mais relevante para o menos relevante, todas as palavras precisam aparecer
+	// em algum dos campos e a última também é buscada como prefixo, para a busca acompanhar a digitação
+	public List<Long> buscarIds(String texto, int totalRegistro) {
+		List<String> palavras = getPalavras(texto);
+		List<Long> ids = new ArrayList<Long>();
+		if(palavras.isEmpty()) {
+			return ids;
+		}
+		
+		// Os livros são encontrados pelo campo com todo o texto, uma única lista de documentos por palavra, e a relevância 
+		// vem somente dos campos separados, calculada apenas para os livros que já foram encontrados
+		BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+		for(int i = 0; i < palavras.size(); i++) {
+			String palavra = palavras.get(i);
+			consulta.add(getFiltroPalavra(palavra, i == palavras.size() - 1), BooleanClause.Occur.FILTER);
+			for(Map.Entry<String, Float> campo : CAMPOS_BUSCA.entrySet()) {
+				consulta.add(new BoostQuery(new TermQuery(new Term(campo.getKey(), palavra)), campo.getValue()), BooleanClause.Occur.SHOULD);
+			}
+		}
+		
+		try {
+			IndexSearcher indexSearcher = searcherManager.acquire();
+			try {
+				TopDocs topDocs = indexSearcher.search(consulta.build(), totalRegistro);
+				for(ScoreDoc scoreDoc : topDocs.scoreDocs) {
+					ids.add(Long.valueOf(indexSearcher.doc(scoreDoc.doc, Set.of(CAMPO_ID)).get(CAMPO_ID)));
+				}
+			} finally {
+				searcherManager.release(indexSearcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return ids;
+	}
+	
+	private Query getFiltroPalavra(String palavra, boolean ultimaPalavra) {
+		Term termo = new Term(CAMPO_TEXTO, palavra);
+		if(!ultimaPalavra) {
+			return new TermQuery(termo);
+		}
+		return new BooleanQuery.Builder()
+				.add(new TermQuery(termo), BooleanClause.Occur.SHOULD)
+				.add(new PrefixQuery(termo), BooleanClause.Occur.SHOULD)
+				.build();
+	}
+	
+	private List<String> getPalavras(String texto) {
+		List<String> palavras = new ArrayList<String>();
+		if(StringUtils.isBlank(texto)) {
+			return palavras;
+		}
+		
+		try (TokenStream tokenStream = analisador.tokenStream("", texto)) {
+			CharTermAttribute palavra = tokenStream.addAttribute(CharTermAttribute.class);
+			tokenStream.reset();
+			while(tokenStream.incrementToken()) {
+				palavras.add(palavra.toString());
+			}
+			tokenStream.end();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return palavras;
+	}
+	
+	private List<Document> getDocumentos(Long idUsuario, Long idCategoria) {
+		List<Document> documentos = new ArrayList<Document>();
+		List<LivroDTO> livros = livroRepositorio.buscarLivrosIndice(0L, idUsuario, idCategoria, PageRequest.of(0, TAMANHO_LOTE_INDEXACAO));
+		while(!livros.isEmpty()) {
+			livros.forEach(livro -> documentos.add(getDocumento(livro)));
+			if(livros.size() < TAMANHO_LOTE_INDEXACAO) {
+				break;
+			}
+			livros = livroRepositorio.buscarLivrosIndice(livros.get(livros.size() - 1).getId(), idUsuario, idCategoria, PageRequest.of(0, TAMANHO_LOTE_INDEXACAO));
+		}
+		return documentos;
+	}
+	
+	private Document getDocumento(LivroDTO livro) {
+		Document documento = new Document();
+		documento.add(new StringField(CAMPO_ID, String.valueOf(livro.getId()), Field.Store.YES));
+		adicionarTexto(documento, "titulo", livro.getTitulo());
+		adicionarTexto(documento, "subtitulo", livro.getSubtitulo());
+		adicionarTexto(documento, "sinopse", livro.getSinopse());
+		adicionarTexto(documento, "isbn", livro.getIsbn());
+		adicionarTexto(documento, "autor", livro.getUsuarioDto() != null ? livro.getUsuarioDto().getAutor() : null);
+		adicionarTexto(documento, "categoria", livro.getCategoriaDTO() != null ? livro.getCategoriaDTO().getDescricao() : null);
+		return documento;
+	}
+	
+	private void adicionarTexto(Document documento, String campo, String valor) {
+		if(valor != null) {
+			documento.add(new TextField(campo, valor, Field.Store.NO));
+			documento.add(new TextField(CAMPO_TEXTO, valor, Field.Store.NO));
+		}
+	}
+	
+	// O documento com o mesmo id é substituído, o mesmo método serve para o livro novo e para o alterado
+	private void atualizarDepoisDoCommit(List<Document> documentos) {
+		depoisDoCommit(() -> {
+			for(Document documento : documentos) {
+				indexWriter.updateDocument(new Term(CAMPO_ID, documento.get(CAMPO_ID)), documento);
+			}
+		});
+	}
+	
+	private void depoisDoCommit(AlteracaoIndice alteracaoIndice) {
+		ExecucaoTransacao.depoisDoCommit(() -> alterarIndice(alteracaoIndice));
+	}
+	
+	private void alterarIndice(AlteracaoIndice alteracaoIndice) {
+		try {
+			alteracaoIndice.alterar();
+			searcherManager.maybeRefresh();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@FunctionalInterface
+	private interface AlteracaoIndice {
+		void alterar() throws IOException;
+	}
+	
+	// Separa as palavras, passa para minúsculo e remove os acentos, "Memórias" e "memorias" encontram o mesmo livro
+	private static class AnalisadorBusca extends Analyzer {
+		
+		@Override
+		protected TokenStreamComponents createComponents(String campo) {
+			Tokenizer tokenizer = new StandardTokenizer();
+			TokenStream tokenStream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+			return new TokenStreamComponents(tokenizer, tokenStream);
+		}
+	}
+	
+}
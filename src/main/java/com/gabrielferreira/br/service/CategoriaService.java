@@ -1,14 +1,18 @@
 package com.gabrielferreira.br.service;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import javax.transaction.Transactional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 
-import com.gabrielferreira.br.exception.EntidadeNotFoundException;
+import com.gabrielferreira.br.config.CacheConfig;
 import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.CategoriaDTO;
 import com.gabrielferreira.br.repositorio.CategoriaRepositorio;
@@ -20,24 +24,39 @@ public class CategoriaService extends AbstractService<Categoria>{
 
 	private final CategoriaRepositorio categoriaRepositorio;
 	
-	public CategoriaService(JpaRepository<Categoria, Long> jpaRepository) {
+	private final BuscaLivroService buscaLivroService;
+	
+	public CategoriaService(JpaRepository<Categoria, Long> jpaRepository, BuscaLivroService buscaLivroService) {
 		super(jpaRepository);
 		this.categoriaRepositorio = (CategoriaRepositorio) jpaRepository;
+		this.buscaLivroService = buscaLivroService;
 	}
 	
 	@Transactional
+	@CacheEvict(value = CacheConfig.CACHE_CATEGORIAS, allEntries = true)
 	public Categoria inserirCategoria(CriarCategoriaDTO criarCategoriaDTO) {
 		Categoria categoria = new Categoria(criarCategoriaDTO.getId(), ValidacaoFormatacao.getFormatacaoNome(criarCategoriaDTO.getDescricao()));
-		return categoriaRepositorio.save(categoria);
+		removerCache(categoria.getId());
+		categoria = categoriaRepositorio.save(categoria);
+		if(criarCategoriaDTO.getId() != null) {
+			buscaLivroService.reindexarCategoria(categoria.getId());
+		}
+		return categoria;
+	}
+	
+	@Override
+	@Transactional
+	@CacheEvict(value = CacheConfig.CACHE_CATEGORIAS, allEntries = true)
+	public void deletar(Long id) {
+		// O controller já verifica os livros da categoria, a chave estrangeira cobre um livro inserido entre a verificação e o delete
+		Map<String, String> mensagensRestricao = new HashMap<String, String>();
+		mensagensRestricao.put(Livro.FK_LIVRO_CATEGORIA, "Não é possível deletar categoria pois tem livros associados !");
+		deletar(id, mensagensRestricao);
 	}
 	
+	@Cacheable(CacheConfig.CACHE_CATEGORIAS)
 	public List<CategoriaDTO> mostrarCategorias(){
-		List<Categoria> categorias = getLista();
-		if(categorias.isEmpty()) {
-			throw new EntidadeNotFoundException("Nenhuma categoria encontrada.");
-		}
-		List<CategoriaDTO> categoriaDTOs = categorias.stream().map(c -> new CategoriaDTO(c)).collect(Collectors.toList());
-		return categoriaDTOs;
+		return categoriaRepositorio.buscarCategoriasDTO();
 	}
 
 }
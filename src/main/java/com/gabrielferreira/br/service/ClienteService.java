@@ -1,11 +1,12 @@
 package com.gabrielferreira.br.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CompoundSelection;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
@@ -16,15 +17,17 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 
-import com.gabrielferreira.br.exception.EntidadeNotFoundException;
 import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Cliente;
 import com.gabrielferreira.br.modelo.dto.criar.CriarClienteDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
 import com.gabrielferreira.br.modelo.enums.TipoDocumento;
 import com.gabrielferreira.br.repositorio.ClienteRepositorio;
 import com.gabrielferreira.br.service.abstrato.AbstractService;
+import com.gabrielferreira.br.utils.CursorPaginacao;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
 
 @Service
 public class ClienteService extends AbstractService<Cliente>{
@@ -33,32 +36,121 @@ public class ClienteService extends AbstractService<Cliente>{
 	
 	private final EntityManager entityManager;
 	
-	public ClienteService(JpaRepository<Cliente, Long> jpaRepository, EntityManager entityManager) {
+	private final IndiceTrigramasService indiceTrigramasService;
+	
+	public ClienteService(JpaRepository<Cliente, Long> jpaRepository, EntityManager entityManager, IndiceTrigramasService indiceTrigramasService) {
 		super(jpaRepository);
 		this.clienteRepositorio = (ClienteRepositorio) jpaRepository;
 		this.entityManager = entityManager;
+		this.indiceTrigramasService = indiceTrigramasService;
 	}
 	
 	@Transactional
 	public Cliente inserirCliente(CriarClienteDTO criarClienteDTO) {
-		Cliente cliente = new Cliente(criarClienteDTO.getId(), criarClienteDTO.getNomeCompleto()
-				, criarClienteDTO.getDocumento(), criarClienteDTO.getDataNascimento(), criarClienteDTO.getPossuiLivro(), 
-				getTipoDocumentoEscolhido(criarClienteDTO.getTipoDocumentoCodigo()));
+		Cliente cliente = new Cliente(criarClienteDTO.getId(), criarClienteDTO.getNomeCompleto(), null, criarClienteDTO.getDocumento(), 
+				criarClienteDTO.getDataNascimento(), criarClienteDTO.getPossuiLivro(), getTipoDocumentoEscolhido(criarClienteDTO.getTipoDocumentoCodigo()));
 		verificarTipoDocumento(cliente.getTipoDocumento());
-		return clienteRepositorio.save(cliente);
+		removerCache(cliente.getId());
+		cliente = clienteRepositorio.save(cliente);
+		indiceTrigramasService.adicionarClientes(List.of(cliente));
+		return cliente;
+	}
+	
+	// Os clientes deletados deixam de ser candidatos do filtro pelo nome completo
+	@Override
+	protected void depoisDeDeletar(List<Long> ids) {
+		indiceTrigramasService.removerClientes(ids);
 	}
 	
 	public List<ClienteDTO> clientesFiltros(ProcurarClienteDTO procurarClienteDTO){
 		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
 		
-		CriteriaQuery<Cliente> cq = cb.createQuery(Cliente.class);
+		CriteriaQuery<ClienteDTO> cq = cb.createQuery(ClienteDTO.class);
+		Root<Cliente> root = cq.from(Cliente.class);
+		cq.select(getSelecaoClienteDTO(cb, root));
+		
+		cq.orderBy(cb.desc(root.get("id")));
+		cq.where(getPredicatesFiltro(cb, root, procurarClienteDTO, false));
+		
+		TypedQuery<ClienteDTO> typedQuery = entityManager.createQuery(cq);
+		// Nenhum cliente encontrado é uma resposta comum, a lista vazia é devolvida sem passar por uma exceção
+		return typedQuery.getResultList();
+	}
+	
+	public PaginaCursorDTO<ClienteDTO> clientesFiltrosCursor(ProcurarClienteDTO procurarClienteDTO, String cursor, int totalRegistro){
+		verificarTotalRegistroCursor(totalRegistro);
+		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		
+		CriteriaQuery<ClienteDTO> cq = cb.createQuery(ClienteDTO.class);
 		Root<Cliente> root = cq.from(Cliente.class);
+		cq.select(getSelecaoClienteDTO(cb, root));
 		
+		List<Predicate> predicates = new ArrayList<Predicate>(Arrays.asList(getPredicatesFiltro(cb, root, procurarClienteDTO, false)));
+		
+		// A ordenação é somente pelo id, então o cursor guarda apenas o id do último cliente
+		if(StringUtils.isNotEmpty(cursor)) {
+			CursorPaginacao cursorPaginacao = CursorPaginacao.lerCursor(cursor);
+			predicates.add(getPredicateCursor(cb, null, null, root.<Long>get("id"), cursorPaginacao.getId()));
+		}
+		
+		cq.orderBy(cb.desc(root.get("id")));
+		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
+		
+		// Buscando um registro a mais para saber se existe uma próxima página
+		TypedQuery<ClienteDTO> typedQuery = entityManager.createQuery(cq);
+		typedQuery.setMaxResults(totalRegistro + 1);
+		List<ClienteDTO> clientesDtos = typedQuery.getResultList();
+		
+		return getPaginaCursor(clientesDtos, totalRegistro, c -> CursorPaginacao.gerarCursor((String) null, c.getId()));
+	}
+	
+	// Remove todos os clientes filtrados em partes, somente os ids são consultados e cada parte é removida com um único DELETE
+	public int deletarClientesFiltro(ProcurarClienteDTO procurarClienteDTO) {
+		if(StringUtils.isAllBlank(procurarClienteDTO.getNomeCompleto(), procurarClienteDTO.getDocumento()) 
+				&& procurarClienteDTO.getPossuiLivro() == null && procurarClienteDTO.getTipoDocumentoCodigo() == null) {
+			throw new RegraDeNegocioException("Informe ao menos um filtro para deletar os clientes.");
+		}
+		return deletarLoteConsulta(ultimoId -> getIdsClientes(procurarClienteDTO, ultimoId));
+	}
+	
+	private List<Long> getIdsClientes(ProcurarClienteDTO procurarClienteDTO, Long ultimoId) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Cliente> root = cq.from(Cliente.class);
+		cq.select(root.<Long>get("id"));
+		
+		List<Predicate> predicates = new ArrayList<Predicate>(Arrays.asList(getPredicatesFiltro(cb, root, procurarClienteDTO, true)));
+		if(ultimoId != null) {
+			predicates.add(cb.greaterThan(root.<Long>get("id"), ultimoId));
+		}
+		
+		cq.orderBy(cb.asc(root.get("id")));
+		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
+		
+		return entityManager.createQuery(cq).setMaxResults(TAMANHO_LOTE_REMOCAO).getResultList();
+	}
+	
+	// Selecionando somente as colunas do DTO, sem carregar a entidade no contexto de persistência
+	private CompoundSelection<ClienteDTO> getSelecaoClienteDTO(CriteriaBuilder cb, Root<Cliente> root) {
+		return cb.construct(ClienteDTO.class, root.get("id"), root.get("nomeCompleto"), root.get("documento"),
+				root.get("dataNascimento"), root.get("possuiLivro"), root.get("tipoDocumento"));
+	}
+	
+	// No literal (remoção por filtro) os coringas do LIKE digitados no filtro são procurados como texto
+	private Predicate[] getPredicatesFiltro(CriteriaBuilder cb, Root<Cliente> root, ProcurarClienteDTO procurarClienteDTO, boolean literal) {
 		List<Predicate> predicates = new ArrayList<Predicate>();
 		
+		// Pela coluna normalizada, o nome digitado sem acento ou em minúsculo encontra o nome cadastrado
 		if(procurarClienteDTO.getNomeCompleto() != null || StringUtils.isNotEmpty(procurarClienteDTO.getNomeCompleto())) {
-			Predicate predicateNome = cb.like(root.get("nomeCompleto"), "%" + procurarClienteDTO.getNomeCompleto() + "%");
+			String nomeNormalizado = ValidacaoFormatacao.getTextoNormalizado(procurarClienteDTO.getNomeCompleto());
+			Predicate predicateNome = getPredicateLike(cb, root.get("nomeCompletoNormalizado"), nomeNormalizado, true, literal);
 			predicates.add(predicateNome);
+			// Na remoção o filtro fica somente com o LIKE, um registro fora do índice continua sendo removido
+			if(!literal) {
+				adicionarPredicateCandidatos(cb, root.<Long>get("id"), predicates, indiceTrigramasService.getCandidatosNomeCompleto(nomeNormalizado));
+			}
 		}
 		
 		if(procurarClienteDTO.getDocumento() != null || StringUtils.isNotEmpty(procurarClienteDTO.getDocumento())) {
@@ -76,28 +168,11 @@ public class ClienteService extends AbstractService<Cliente>{
 			predicates.add(predicatePTipoDocumentoCodigo);
 		}
 		
-		cq.orderBy(cb.desc(root.get("id")));
-		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
-		
-		TypedQuery<Cliente> typedQuery = entityManager.createQuery(cq);
-		List<Cliente> clientes = typedQuery.getResultList();
-		
-		if(clientes.isEmpty()) {
-			throw new EntidadeNotFoundException("Nenhum cliente encontrado.");
-		}
-		
-		List<ClienteDTO> clientesDtos = clientes.stream().map(c -> new ClienteDTO(c)).collect(Collectors.toList());
-		return clientesDtos;
-		
+		return (Predicate[])predicates.toArray(new Predicate[0]);
 	}
 	
 	public List<ClienteDTO> mostrarClientes(){
-		List<Cliente> clientes = getLista();
-		if(clientes.isEmpty()) {
-			throw new EntidadeNotFoundException("Nenhum cliente encontrado.");
-		}
-		List<ClienteDTO> clienteDTOs = clientes.stream().map(c -> new ClienteDTO(c)).collect(Collectors.toList());
-		return clienteDTOs;
+		return clienteRepositorio.buscarClientesDTO();
 	}
 	
 	public TipoDocumento getTipoDocumentoEscolhido(Integer codigo) {
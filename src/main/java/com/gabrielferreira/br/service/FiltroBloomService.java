@@ -0,0 +1,85 @@
+package com.gabrielferreira.br.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.utils.FiltroBloom;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Service
+public class FiltroBloomService implements InitializingBean{
+	
+	private final LivroRepositorio livroRepositorio;
+	
+	private final UsuarioRepositorio usuarioRepositorio;
+	
+	private final FiltroBloom filtroIsbn;
+	
+	private final FiltroBloom filtroTitulo;
+	
+	private final FiltroBloom filtroAutor;
+	
+	public FiltroBloomService(LivroRepositorio livroRepositorio, UsuarioRepositorio usuarioRepositorio, MeterRegistry meterRegistry,
+			@Value("${livraria.bloom.capacidade:100000}") int capacidade, @Value("${livraria.bloom.fpp:0.01}") double fpp) {
+		this.livroRepositorio = livroRepositorio;
+		this.usuarioRepositorio = usuarioRepositorio;
+		this.filtroIsbn = new FiltroBloom("isbn", capacidade, fpp);
+		this.filtroTitulo = new FiltroBloom("titulo", capacidade, fpp);
+		this.filtroAutor = new FiltroBloom("autor", capacidade, fpp);
+		
+		registrarFpp(meterRegistry, filtroIsbn);
+		registrarFpp(meterRegistry, filtroTitulo);
+		registrarFpp(meterRegistry, filtroAutor);
+	}
+	
+	// Carrega as chaves já cadastradas antes da aplicação começar a receber requisições
+	@Override
+	public void afterPropertiesSet() {
+		adicionarTodos(filtroIsbn, livroRepositorio.buscarIsbns());
+		adicionarTodos(filtroTitulo, livroRepositorio.buscarTitulos());
+		adicionarTodos(filtroAutor, usuarioRepositorio.buscarAutores());
+	}
+	
+	public boolean podeExistirIsbn(String isbn) {
+		return filtroIsbn.podeConter(isbn);
+	}
+	
+	public boolean podeExistirTitulo(String titulo) {
+		return filtroTitulo.podeConter(titulo);
+	}
+	
+	public boolean podeExistirAutor(String autor) {
+		return filtroAutor.podeConter(autor);
+	}
+	
+	public void adicionarLivro(Livro livro) {
+		filtroIsbn.adicionar(livro.getIsbn());
+		filtroTitulo.adicionar(livro.getTitulo());
+	}
+	
+	public void adicionarUsuario(Usuario usuario) {
+		filtroAutor.adicionar(usuario.getAutor());
+	}
+	
+	private void adicionarTodos(FiltroBloom filtroBloom, List<String> chaves) {
+		chaves.forEach(filtroBloom::adicionar);
+	}
+	
+	// Os registros deletados continuam no filtro, com o tempo a probabilidade de falso positivo sobe e a métrica mostra quando reiniciar
+	private void registrarFpp(MeterRegistry meterRegistry, FiltroBloom filtroBloom) {
+		Gauge.builder("livraria.bloom.fpp", filtroBloom, FiltroBloom::getFpp)
+			.tag("filtro", filtroBloom.getNome())
+			.description("Probabilidade estimada de falso positivo do filtro de bloom")
+			.register(meterRegistry);
+	}
+	
+}
@@ -0,0 +1,294 @@
+package com.gabrielferreira.br.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.gabrielferreira.br.exception.EntidadeNotFoundException;
+import com.gabrielferreira.br.exception.RegraDeNegocioException;
+import com.gabrielferreira.br.modelo.Cliente;
+import com.gabrielferreira.br.modelo.dto.criar.CriarClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.ImportacaoClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.LinhaLoteDTO;
+import com.gabrielferreira.br.modelo.enums.SituacaoImportacao;
+import com.gabrielferreira.br.modelo.enums.TipoDocumento;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
+
+// Importação de clientes por CSV, o arquivo é lido linha a linha e gravado em lotes sem passar pelo contexto de persistência
+@Service
+public class ImportacaoClienteService {
+	
+	private static final int TOTAL_IMPORTACOES_GUARDADAS = 20;
+	
+	private static final int TOTAL_REJEICOES_GUARDADAS = 100;
+	
+	private static final List<String> COLUNAS_OBRIGATORIAS = Arrays.asList("nomeCompleto", "documento", "dataNascimento", "tipoDocumentoCodigo");
+	
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
+	private static final CSVFormat FORMATO_CSV = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true)
+			.setIgnoreEmptyLines(true).setTrim(true).build();
+	
+	private final ClienteService clienteService;
+	
+	private final SessionFactory sessionFactory;
+	
+	private final int tamanhoLote;
+	
+	private final Validator validator;
+	
+	private final IndiceTrigramasService indiceTrigramasService;
+	
+	// Somente as últimas importações ficam disponíveis para consulta
+	private final Map<String, Importacao> importacoes = Collections.synchronizedMap(new LinkedHashMap<String, Importacao>() {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Importacao> maisAntiga) {
+			return size() > TOTAL_IMPORTACOES_GUARDADAS;
+		}
+	});
+	
+	public ImportacaoClienteService(ClienteService clienteService, EntityManagerFactory entityManagerFactory, Validator validator,
+			IndiceTrigramasService indiceTrigramasService, @Value("${livraria.importacao.tamanho-lote:500}") int tamanhoLote) {
+		this.clienteService = clienteService;
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		this.validator = validator;
+		this.indiceTrigramasService = indiceTrigramasService;
+		this.tamanhoLote = tamanhoLote;
+	}
+	
+	public ImportacaoClienteDTO importarClientes(InputStream inputStream) {
+		Importacao importacao = new Importacao();
+		importacoes.put(importacao.id, importacao);
+		
+		// A memória fica limitada ao lote atual, os clientes gravados não ficam retidos em nenhum contexto
+		List<Cliente> lote = new ArrayList<Cliente>(tamanhoLote);
+		List<Long> linhasLote = new ArrayList<Long>(tamanhoLote);
+		
+		try(Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+				CSVParser parser = FORMATO_CSV.parse(reader);
+				StatelessSession session = sessionFactory.openStatelessSession()){
+			session.setJdbcBatchSize(tamanhoLote);
+			verificarCabecalho(parser.getHeaderNames());
+			
+			for(CSVRecord registro : parser) {
+				long linha = registro.getRecordNumber();
+				importacao.processados.incrementAndGet();
+				try {
+					lote.add(getCliente(registro));
+					linhasLote.add(linha);
+				} catch (RegraDeNegocioException e) {
+					importacao.rejeitar(linha, e.getMessage());
+				}
+				
+				if(lote.size() == tamanhoLote) {
+					gravarLote(session, lote, linhasLote, importacao);
+				}
+			}
+			gravarLote(session, lote, linhasLote, importacao);
+			importacao.finalizar(SituacaoImportacao.CONCLUIDA, null);
+		} catch (IOException | UncheckedIOException | IllegalArgumentException | IllegalStateException e) {
+			importacao.finalizar(SituacaoImportacao.FALHOU, "Não foi possível ler o arquivo CSV: " + e.getMessage());
+			throw new RegraDeNegocioException(importacao.mensagem);
+		} catch (RegraDeNegocioException e) {
+			importacao.finalizar(SituacaoImportacao.FALHOU, e.getMessage());
+			throw e;
+		}
+		
+		return importacao.getImportacaoClienteDTO();
+	}
+	
+	public ImportacaoClienteDTO getImportacao(String id) {
+		Importacao importacao = importacoes.get(id);
+		if(importacao == null) {
+			throw new EntidadeNotFoundException("Importação não encontrada.");
+		}
+		return importacao.getImportacaoClienteDTO();
+	}
+	
+	public List<ImportacaoClienteDTO> getImportacoes(){
+		synchronized (importacoes) {
+			return importacoes.values().stream().map(Importacao::getImportacaoClienteDTO).collect(Collectors.toList());
+		}
+	}
+	
+	// Cada lote é gravado na sua própria transação, um erro no banco descarta somente o lote atual
+	private void gravarLote(StatelessSession session, List<Cliente> lote, List<Long> linhasLote, Importacao importacao) {
+		if(lote.isEmpty()) {
+			return;
+		}
+		
+		Transaction transacao = session.beginTransaction();
+		try {
+			for(Cliente cliente : lote) {
+				session.insert(cliente);
+			}
+			transacao.commit();
+			importacao.inseridos.addAndGet(lote.size());
+			indiceTrigramasService.adicionarClientes(lote);
+		} catch (RuntimeException e) {
+			transacao.rollback();
+			for(Long linha : linhasLote) {
+				importacao.rejeitar(linha, "Lote não gravado no banco: " + e.getMessage());
+			}
+		} finally {
+			lote.clear();
+			linhasLote.clear();
+		}
+	}
+	
+	private void verificarCabecalho(List<String> colunas) {
+		List<String> colunasFaltando = COLUNAS_OBRIGATORIAS.stream().filter(c -> !colunas.contains(c)).collect(Collectors.toList());
+		if(!colunasFaltando.isEmpty()) {
+			throw new RegraDeNegocioException("Colunas obrigatórias não encontradas no cabeçalho: " + String.join(", ", colunasFaltando) + ".");
+		}
+	}
+	
+	private Cliente getCliente(CSVRecord registro) {
+		if(!registro.isConsistent()) {
+			throw new RegraDeNegocioException("A quantidade de colunas da linha é diferente do cabeçalho.");
+		}
+		
+		CriarClienteDTO criarClienteDTO = CriarClienteDTO.builder().nomeCompleto(getValor(registro, "nomeCompleto"))
+				.documento(getValor(registro, "documento")).dataNascimento(getData(getValor(registro, "dataNascimento")))
+				.possuiLivro(getBooleano(getValor(registro, "possuiLivro"))).tipoDocumentoCodigo(getInteiro(getValor(registro, "tipoDocumentoCodigo")))
+				.build();
+		verificarRestricoes(criarClienteDTO);
+		
+		TipoDocumento tipoDocumento = clienteService.getTipoDocumentoEscolhido(criarClienteDTO.getTipoDocumentoCodigo());
+		if(tipoDocumento == null) {
+			throw new RegraDeNegocioException("Insira o tipo de documento corretamente.");
+		}
+		
+		// A sessão sem estado não chama o @PrePersist, o nome normalizado já vai calculado no cliente
+		return new Cliente(null, criarClienteDTO.getNomeCompleto(), ValidacaoFormatacao.getTextoNormalizado(criarClienteDTO.getNomeCompleto()),
+				criarClienteDTO.getDocumento(), criarClienteDTO.getDataNascimento(), criarClienteDTO.getPossuiLivro(), tipoDocumento);
+	}
+	
+	private void verificarRestricoes(CriarClienteDTO criarClienteDTO) {
+		Set<ConstraintViolation<CriarClienteDTO>> violacoes = validator.validate(criarClienteDTO);
+		if(!violacoes.isEmpty()) {
+			String mensagem = violacoes.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage())
+					.sorted().collect(Collectors.joining("; "));
+			throw new RegraDeNegocioException(mensagem);
+		}
+	}
+	
+	private String getValor(CSVRecord registro, String coluna) {
+		return registro.isMapped(coluna) ? StringUtils.trimToNull(registro.get(coluna)) : null;
+	}
+	
+	private LocalDate getData(String valor) {
+		try {
+			return valor == null ? null : LocalDate.parse(valor, FORMATO_DATA);
+		} catch (DateTimeParseException e) {
+			throw new RegraDeNegocioException("Data de nascimento deve estar no formato dd/MM/yyyy.");
+		}
+	}
+	
+	private Integer getInteiro(String valor) {
+		try {
+			return valor == null ? null : Integer.valueOf(valor);
+		} catch (NumberFormatException e) {
+			throw new RegraDeNegocioException("Tipo documento deve ser numérico.");
+		}
+	}
+	
+	private Boolean getBooleano(String valor) {
+		if(valor == null) {
+			return null;
+		}
+		if(!"true".equalsIgnoreCase(valor) && !"false".equalsIgnoreCase(valor)) {
+			throw new RegraDeNegocioException("Possui livro deve ser true ou false.");
+		}
+		return Boolean.valueOf(valor);
+	}
+	
+	// Progresso de uma importação, atualizado pela requisição que lê o arquivo e consultado por outras requisições
+	private static class Importacao {
+		
+		private final String id = UUID.randomUUID().toString();
+		
+		private final LocalDateTime inicio = LocalDateTime.now();
+		
+		private final long inicioNanos = System.nanoTime();
+		
+		private final AtomicLong processados = new AtomicLong();
+		
+		private final AtomicLong inseridos = new AtomicLong();
+		
+		private final AtomicLong rejeitados = new AtomicLong();
+		
+		private final List<LinhaLoteDTO> rejeicoes = Collections.synchronizedList(new ArrayList<LinhaLoteDTO>());
+		
+		private volatile SituacaoImportacao situacao = SituacaoImportacao.EM_ANDAMENTO;
+		
+		private volatile LocalDateTime fim;
+		
+		private volatile long fimNanos;
+		
+		private volatile String mensagem;
+		
+		private void rejeitar(long linha, String motivo) {
+			rejeitados.incrementAndGet();
+			if(rejeicoes.size() < TOTAL_REJEICOES_GUARDADAS) {
+				rejeicoes.add(LinhaLoteDTO.builder().linha((int) linha).sucesso(false).mensagem(motivo).build());
+			}
+		}
+		
+		private void finalizar(SituacaoImportacao situacao, String mensagem) {
+			this.mensagem = mensagem;
+			this.fimNanos = System.nanoTime();
+			this.fim = LocalDateTime.now();
+			this.situacao = situacao;
+		}
+		
+		private ImportacaoClienteDTO getImportacaoClienteDTO() {
+			long duracaoNanos = (fim == null ? System.nanoTime() : fimNanos) - inicioNanos;
+			double segundos = Math.max(duracaoNanos, 1L) / (double) Duration.ofSeconds(1).toNanos();
+			
+			List<LinhaLoteDTO> linhasRejeitadas;
+			synchronized (rejeicoes) {
+				linhasRejeitadas = new ArrayList<LinhaLoteDTO>(rejeicoes);
+			}
+			
+			return ImportacaoClienteDTO.builder().id(id).situacao(situacao).processados(processados.get()).inseridos(inseridos.get())
+					.rejeitados(rejeitados.get()).linhasPorSegundo(processados.get() / segundos).inicio(inicio).fim(fim)
+					.mensagem(mensagem).rejeicoes(linhasRejeitadas).build();
+		}
+	}
+
+}
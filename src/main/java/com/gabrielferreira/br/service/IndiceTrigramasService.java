@@ -0,0 +1,138 @@
+package com.gabrielferreira.br.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.gabrielferreira.br.modelo.Cliente;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.repositorio.ClienteRepositorio;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.utils.ExecucaoTransacao;
+import com.gabrielferreira.br.utils.IndiceTrigramas;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
+
+// Candidatos dos filtros por pedaço do nome completo, do autor e do isbn, a consulta recebe os ids candidatos no IN 
+// e o LIKE passa a conferir somente esses registros em vez da tabela inteira. O nome completo e o autor ficam no índice
+// normalizados, como nas colunas que os filtros consultam, e o filtro chega já normalizado.
+// O IN deixa de fora os registros que o índice não conhece, então os candidatos só são usados quando o índice está completo: a aplicação
+// roda em uma instância só (as alterações de outra instância não chegam a este índice), a carga inicial terminou e nenhuma atualização
+// depois do commit falhou. Os registros são gravados somente pelos serviços, que atualizam o índice. Fora disso a consulta fica somente com o LIKE
+@Service
+public class IndiceTrigramasService implements InitializingBean{
+	
+	private final ClienteRepositorio clienteRepositorio;
+	
+	private final UsuarioRepositorio usuarioRepositorio;
+	
+	private final LivroRepositorio livroRepositorio;
+	
+	private final int maximoCandidatos;
+	
+	private final boolean instanciaUnica;
+	
+	private final IndiceTrigramas nomesCompletos = new IndiceTrigramas();
+	
+	private final IndiceTrigramas autores = new IndiceTrigramas();
+	
+	private final IndiceTrigramas isbns = new IndiceTrigramas();
+	
+	private volatile boolean completo;
+	
+	public IndiceTrigramasService(ClienteRepositorio clienteRepositorio, UsuarioRepositorio usuarioRepositorio, LivroRepositorio livroRepositorio,
+			@Value("${livraria.trigramas.maximo-candidatos:1000}") int maximoCandidatos, @Value("${livraria.trigramas.instancia-unica:true}") boolean instanciaUnica) {
+		this.clienteRepositorio = clienteRepositorio;
+		this.usuarioRepositorio = usuarioRepositorio;
+		this.livroRepositorio = livroRepositorio;
+		this.maximoCandidatos = maximoCandidatos;
+		this.instanciaUnica = instanciaUnica;
+	}
+	
+	// Carrega os textos já cadastrados antes da aplicação começar a receber requisições
+	@Override
+	public void afterPropertiesSet() {
+		adicionarTodos(nomesCompletos, clienteRepositorio.buscarNomesCompletosIndice());
+		adicionarTodos(autores, usuarioRepositorio.buscarAutoresIndice());
+		adicionarTodos(isbns, livroRepositorio.buscarIsbnsIndice());
+		completo = true;
+	}
+	
+	// Nulo quando o índice não está completo ou não consegue diminuir os candidatos, nesse caso o filtro fica somente com o LIKE
+	public List<Long> getCandidatosNomeCompleto(String nomeCompleto) {
+		return isCompleto() ? nomesCompletos.buscarCandidatos(nomeCompleto, maximoCandidatos) : null;
+	}
+	
+	public List<Long> getCandidatosAutor(String autor) {
+		return isCompleto() ? autores.buscarCandidatos(autor, maximoCandidatos) : null;
+	}
+	
+	public List<Long> getCandidatosIsbn(String isbn) {
+		return isCompleto() ? isbns.buscarCandidatos(isbn, maximoCandidatos) : null;
+	}
+	
+	// O registro alterado troca os trigramas antigos pelos novos, o id é o mesmo
+	public void adicionarClientes(Collection<Cliente> clientes) {
+		List<SugestaoDTO> textos = new ArrayList<SugestaoDTO>();
+		clientes.forEach(c -> textos.add(new SugestaoDTO(c.getId(), ValidacaoFormatacao.getTextoNormalizado(c.getNomeCompleto()))));
+		atualizar(() -> adicionarTodos(nomesCompletos, textos));
+	}
+	
+	public void removerClientes(Collection<Long> ids) {
+		remover(nomesCompletos, ids);
+	}
+	
+	public void adicionarUsuario(Usuario usuario) {
+		Long id = usuario.getId();
+		String autor = ValidacaoFormatacao.getTextoNormalizado(usuario.getAutor());
+		atualizar(() -> autores.adicionar(id, autor));
+	}
+	
+	public void removerUsuarios(Collection<Long> ids) {
+		remover(autores, ids);
+	}
+	
+	public void adicionarLivros(Collection<Livro> livros) {
+		List<SugestaoDTO> textos = new ArrayList<SugestaoDTO>();
+		livros.forEach(l -> textos.add(new SugestaoDTO(l.getId(), l.getIsbn())));
+		atualizar(() -> adicionarTodos(isbns, textos));
+	}
+	
+	public void removerLivros(Collection<Long> ids) {
+		remover(isbns, ids);
+	}
+	
+	private boolean isCompleto() {
+		return instanciaUnica && completo;
+	}
+	
+	// As alterações chegam ao índice depois do commit, uma alteração que falhou deixa o índice sem o registro e os filtros
+	// voltam a ficar somente com o LIKE
+	private void atualizar(Runnable atualizacao) {
+		ExecucaoTransacao.depoisDoCommit(() -> {
+			try {
+				atualizacao.run();
+			} catch (RuntimeException e) {
+				completo = false;
+				throw e;
+			}
+		});
+	}
+	
+	private void adicionarTodos(IndiceTrigramas indice, List<SugestaoDTO> textos) {
+		textos.forEach(t -> indice.adicionar(t.getId(), t.getTexto()));
+	}
+	
+	// O id removido antes do commit deixaria de ser candidato enquanto o registro ainda existe para as outras transações
+	private void remover(IndiceTrigramas indice, Collection<Long> ids) {
+		List<Long> idsRemovidos = new ArrayList<Long>(ids);
+		atualizar(() -> idsRemovidos.forEach(indice::remover));
+	}
+	
+}
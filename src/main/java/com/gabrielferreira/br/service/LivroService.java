@@ -1,21 +1,38 @@
 package com.gabrielferreira.br.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CompoundSelection;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
 import com.gabrielferreira.br.exception.EntidadeNotFoundException;
@@ -24,15 +41,24 @@ import com.gabrielferreira.br.modelo.Categoria;
 import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.Usuario;
 import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.LinhaLoteDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RelatorioLoteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
 import com.gabrielferreira.br.repositorio.LivroRepositorio;
 import com.gabrielferreira.br.service.abstrato.AbstractService;
+import com.gabrielferreira.br.utils.CursorPaginacao;
 import com.gabrielferreira.br.utils.ValidacaoFormatacao;
 
 @Service
 public class LivroService extends AbstractService<Livro>{
 	
+	private static final int TAMANHO_LOTE_EXPORTACAO = 500;
+	
+	private static final int TAMANHO_LOTE_INSERCAO = 50;
+	
 	private final LivroRepositorio livroRepositorio;
 	
 	private final UsuarioService usuarioService;
@@ -41,12 +67,29 @@ public class LivroService extends AbstractService<Livro>{
 	
 	private final EntityManager entityManager;
 	
-	public LivroService(JpaRepository<Livro, Long> jpaRepository, UsuarioService usuarioService,CategoriaService categoriaService,EntityManager entityManager) {
+	private final FiltroBloomService filtroBloomService;
+	
+	private final BuscaLivroService buscaLivroService;
+	
+	private final AutocompletarService autocompletarService;
+	
+	private final IndiceTrigramasService indiceTrigramasService;
+	
+	private final Validator validator;
+	
+	public LivroService(JpaRepository<Livro, Long> jpaRepository, UsuarioService usuarioService,CategoriaService categoriaService,EntityManager entityManager,
+			FiltroBloomService filtroBloomService, BuscaLivroService buscaLivroService, AutocompletarService autocompletarService,
+			IndiceTrigramasService indiceTrigramasService, Validator validator) {
 		super(jpaRepository);
 		this.livroRepositorio = (LivroRepositorio) jpaRepository;
 		this.usuarioService = usuarioService;
 		this.categoriaService = categoriaService;
 		this.entityManager = entityManager;
+		this.filtroBloomService = filtroBloomService;
+		this.buscaLivroService = buscaLivroService;
+		this.autocompletarService = autocompletarService;
+		this.indiceTrigramasService = indiceTrigramasService;
+		this.validator = validator;
 	}
 	
 	@Transactional
@@ -62,55 +105,325 @@ public class LivroService extends AbstractService<Livro>{
 		ValidacaoFormatacao.getVerificarIsbn(livro.getIsbn());
 		verificarEstoqueLivro(livro);
 		
-		return livroRepositorio.save(livro);
+		// Os índices únicos de título e ISBN garantem a regra quando duas requisições passam juntas pelas verificações
+		Map<String, String> mensagensRestricao = new HashMap<String, String>();
+		mensagensRestricao.put(Livro.UK_LIVRO_TITULO, livro.getId() == null ? "Este Título já foi cadastrado por outro livro." : "Título já existente ao atualizar.");
+		mensagensRestricao.put(Livro.UK_LIVRO_ISBN, livro.getId() == null ? "Este ISBN já foi cadastrado por outro livro." : "ISBN já existente ao atualizar.");
+		removerCache(livro.getId());
+		livro = salvar(livro, mensagensRestricao);
+		filtroBloomService.adicionarLivro(livro);
+		buscaLivroService.indexarLivros(List.of(livro));
+		autocompletarService.adicionarLivros(List.of(livro));
+		indiceTrigramasService.adicionarLivros(List.of(livro));
+		return livro;
+	}
+	
+	// Insere os livros do lote em uma única transação, cada registro com problema é informado no relatório sem interromper os demais
+	@Transactional
+	public RelatorioLoteDTO inserirLote(List<CriarLivroDTO> criarLivrosDtos) {
+		return inserirLote(criarLivrosDtos.iterator());
+	}
+	
+	// Os registros são lidos conforme o lote é gravado, somente a parte atual fica na memória. Os inserts de cada parte vão juntos
+	// no flush e o contexto de persistência é limpo em seguida
+	@Transactional
+	public RelatorioLoteDTO inserirLote(Iterator<CriarLivroDTO> criarLivrosDtos) {
+		List<LinhaLoteDTO> linhas = new ArrayList<LinhaLoteDTO>();
+		List<CriarLivroDTO> parte = new ArrayList<CriarLivroDTO>(TAMANHO_LOTE_INSERCAO);
+		while(criarLivrosDtos.hasNext()) {
+			parte.add(criarLivrosDtos.next());
+			if(parte.size() == TAMANHO_LOTE_INSERCAO || !criarLivrosDtos.hasNext()) {
+				inserirParteLote(parte, linhas);
+				parte.clear();
+			}
+		}
+		return new RelatorioLoteDTO(linhas);
+	}
+	
+	private void inserirParteLote(List<CriarLivroDTO> parte, List<LinhaLoteDTO> linhas) {
+		// Buscando os usuários, as categorias e os títulos/ISBNs já cadastrados de uma vez, no lugar de uma consulta por registro.
+		// As partes anteriores já foram enviadas no flush, os títulos e ISBNs delas também voltam como cadastrados
+		Map<Long, Usuario> usuarios = usuarioService.getListaPorIds(getIds(parte, CriarLivroDTO::getIdUsuario))
+				.stream().collect(Collectors.toMap(Usuario::getId, Function.identity()));
+		Map<Long, Categoria> categorias = categoriaService.getListaPorIds(getIds(parte, CriarLivroDTO::getIdCategoria))
+				.stream().collect(Collectors.toMap(Categoria::getId, Function.identity()));
+		
+		Set<String> titulos = new HashSet<String>();
+		Set<String> isbns = new HashSet<String>();
+		for(CriarLivroDTO criarLivroDTO : parte) {
+			if(criarLivroDTO != null && StringUtils.isNotBlank(criarLivroDTO.getTitulo())) {
+				titulos.add(ValidacaoFormatacao.getFormatacaoNome(criarLivroDTO.getTitulo()));
+			}
+			if(criarLivroDTO != null && criarLivroDTO.getIsbn() != null) {
+				isbns.add(criarLivroDTO.getIsbn());
+			}
+		}
+		Set<String> titulosExistentes = titulos.isEmpty() ? new HashSet<String>() : new HashSet<String>(livroRepositorio.buscarTitulosExistentes(titulos));
+		Set<String> isbnsExistentes = isbns.isEmpty() ? new HashSet<String>() : new HashSet<String>(livroRepositorio.buscarIsbnsExistentes(isbns));
+		
+		List<Livro> livrosInseridos = new ArrayList<Livro>();
+		for(CriarLivroDTO criarLivroDTO : parte) {
+			int numeroLinha = linhas.size() + 1;
+			try {
+				verificarRegistroLote(criarLivroDTO);
+				
+				Usuario usuario = usuarios.get(criarLivroDTO.getIdUsuario());
+				if(usuario == null) {
+					throw new EntidadeNotFoundException("Usuário não encontrado.");
+				}
+				Categoria categoria = categorias.get(criarLivroDTO.getIdCategoria());
+				if(categoria == null) {
+					throw new EntidadeNotFoundException("Categoria não encontrada.");
+				}
+				
+				Livro livro = new Livro(null, ValidacaoFormatacao.getFormatacaoNome(criarLivroDTO.getTitulo()), 
+						criarLivroDTO.getSubtitulo(), criarLivroDTO.getSinopse(), criarLivroDTO.getIsbn(),criarLivroDTO.getEstoque(),usuario,categoria);
+				
+				// Os títulos e ISBNs dos registros anteriores da parte também contam como cadastrados
+				if(titulosExistentes.contains(livro.getTitulo())) {
+					throw new RegraDeNegocioException("Este Título já foi cadastrado por outro livro.");
+				}
+				if(isbnsExistentes.contains(livro.getIsbn())) {
+					throw new RegraDeNegocioException("Este ISBN já foi cadastrado por outro livro.");
+				}
+				ValidacaoFormatacao.getVerificarIsbn(livro.getIsbn());
+				verificarEstoqueLivro(livro);
+				
+				// A sequência entrega o id no persist, antes do insert, e a linha do relatório já sai com ele
+				entityManager.persist(livro);
+				titulosExistentes.add(livro.getTitulo());
+				isbnsExistentes.add(livro.getIsbn());
+				livrosInseridos.add(livro);
+				filtroBloomService.adicionarLivro(livro);
+				linhas.add(LinhaLoteDTO.builder().linha(numeroLinha).id(livro.getId()).sucesso(true).build());
+			} catch (RegraDeNegocioException | EntidadeNotFoundException e) {
+				linhas.add(LinhaLoteDTO.builder().linha(numeroLinha).sucesso(false).mensagem(e.getMessage()).build());
+			}
+		}
+		
+		// Enviando os inserts da parte e limpando o contexto de persistência para não acumular todos os livros na memória
+		entityManager.flush();
+		entityManager.clear();
+		
+		buscaLivroService.indexarLivros(livrosInseridos);
+		autocompletarService.adicionarLivros(livrosInseridos);
+		indiceTrigramasService.adicionarLivros(livrosInseridos);
 	}
 	
-	public List<LivroDTO> buscarLivrosPaginadas(ProcurarLivroDTO procurarLivroDTO){
+	private void verificarRegistroLote(CriarLivroDTO criarLivroDTO) {
+		if(criarLivroDTO == null) {
+			throw new RegraDeNegocioException("Registro do lote não informado.");
+		}
+		if(criarLivroDTO.getId() != null) {
+			throw new RegraDeNegocioException("O lote não aceita livros com id, somente novos livros.");
+		}
+		Set<ConstraintViolation<CriarLivroDTO>> violacoes = validator.validate(criarLivroDTO);
+		if(!violacoes.isEmpty()) {
+			String mensagem = violacoes.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage())
+					.sorted().collect(Collectors.joining("; "));
+			throw new RegraDeNegocioException(mensagem);
+		}
+	}
+	
+	private Set<Long> getIds(List<CriarLivroDTO> criarLivrosDtos, Function<CriarLivroDTO, Long> id){
+		return criarLivrosDtos.stream().filter(Objects::nonNull).map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+	}
+	
+	// Sugestões de títulos que começam com o prefixo, sem consultar o banco
+	public List<SugestaoDTO> autocompletarTitulos(String prefixo, int total){
+		verificarTotalRegistroCursor(total);
+		return autocompletarService.getTitulos(prefixo, Math.min(total, TAMANHO_MAXIMO_IDS));
+	}
+	
+	// Busca textual no índice, os ids vem ordenados pela relevância e os livros são buscados em uma única consulta
+	public List<LivroDTO> buscarLivrosTexto(String texto, int totalRegistro){
+		verificarTotalRegistroCursor(totalRegistro);
+		if(StringUtils.isBlank(texto)) {
+			return new ArrayList<LivroDTO>();
+		}
+		
+		List<Long> ids = buscaLivroService.buscarIds(texto, Math.min(totalRegistro, TAMANHO_MAXIMO_IDS));
+		Map<Long, Livro> livros = getListaPorIds(ids).stream().collect(Collectors.toMap(Livro::getId, Function.identity()));
+		
+		// Um livro deletado entre a busca no índice e a consulta no banco fica de fora
+		return ids.stream().map(livros::get).filter(Objects::nonNull).map(LivroDTO::new).collect(Collectors.toList());
+	}
+	
+	public Page<LivroDTO> buscarLivrosPaginadas(ProcurarLivroDTO procurarLivroDTO, Pageable pageable){
 		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
 		
-		CriteriaQuery<Livro> cq = cb.createQuery(Livro.class);
+		CriteriaQuery<LivroDTO> cq = cb.createQuery(LivroDTO.class);
 		Root<Livro> root = cq.from(Livro.class);
+		cq.select(getSelecaoLivroDTO(cb, root));
+		
+		cq.orderBy(cb.desc(root.get("titulo")));
+		cq.where(getPredicatesFiltro(cb, root, procurarLivroDTO, false));
+		
+		// Aplicando o offset/limit no banco, assim somente os registros da página são carregados
+		TypedQuery<LivroDTO> typedQuery = entityManager.createQuery(cq);
+		typedQuery.setFirstResult((int) pageable.getOffset());
+		typedQuery.setMaxResults(pageable.getPageSize());
+		List<LivroDTO> livrosDtos = typedQuery.getResultList();
+		
+		// A consulta de total só é executada quando não é possível deduzir o total pela própria página, 
+		// nenhum livro encontrado devolve a página vazia sem passar por uma exceção
+		return PageableExecutionUtils.getPage(livrosDtos, pageable, () -> getTotalLivros(cb, procurarLivroDTO));
+	}
+	
+	public PaginaCursorDTO<LivroDTO> buscarLivrosCursor(ProcurarLivroDTO procurarLivroDTO, String cursor, int totalRegistro){
+		verificarTotalRegistroCursor(totalRegistro);
 		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		
+		CriteriaQuery<LivroDTO> cq = cb.createQuery(LivroDTO.class);
+		Root<Livro> root = cq.from(Livro.class);
+		cq.select(getSelecaoLivroDTO(cb, root));
+		
+		List<Predicate> predicates = new ArrayList<Predicate>(Arrays.asList(getPredicatesFiltro(cb, root, procurarLivroDTO, false)));
+		
+		// Continuando a partir do último livro da página anterior, sem precisar percorrer o offset
+		if(StringUtils.isNotEmpty(cursor)) {
+			CursorPaginacao cursorPaginacao = CursorPaginacao.lerCursor(cursor);
+			predicates.add(getPredicateCursor(cb, root.<String>get("titulo"), cursorPaginacao.getChave(), root.<Long>get("id"), cursorPaginacao.getId()));
+		}
+		
+		cq.orderBy(cb.desc(root.get("titulo")), cb.desc(root.get("id")));
+		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
+		
+		// Buscando um registro a mais para saber se existe uma próxima página
+		TypedQuery<LivroDTO> typedQuery = entityManager.createQuery(cq);
+		typedQuery.setMaxResults(totalRegistro + 1);
+		List<LivroDTO> livrosDtos = typedQuery.getResultList();
+		
+		return getPaginaCursor(livrosDtos, totalRegistro, l -> CursorPaginacao.gerarCursor(l.getTitulo(), l.getId()));
+	}
+	
+	// Percorre os livros filtrados registro a registro, o cursor do banco é lido aos poucos e nenhum livro fica retido na memória
+	@Transactional
+	public void exportarLivros(ProcurarLivroDTO procurarLivroDTO, Consumer<LivroDTO> consumidor) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		
+		CriteriaQuery<LivroDTO> cq = cb.createQuery(LivroDTO.class);
+		Root<Livro> root = cq.from(Livro.class);
+		cq.select(getSelecaoLivroDTO(cb, root));
+		
+		cq.orderBy(cb.asc(root.get("id")));
+		cq.where(getPredicatesFiltro(cb, root, procurarLivroDTO, false));
+		
+		TypedQuery<LivroDTO> typedQuery = entityManager.createQuery(cq);
+		typedQuery.setHint(QueryHints.FETCH_SIZE, TAMANHO_LOTE_EXPORTACAO);
+		
+		try(Stream<LivroDTO> livrosDtos = typedQuery.getResultStream()){
+			livrosDtos.forEach(consumidor);
+		}
+	}
+	
+	// Remove todos os livros filtrados em partes, somente os ids são consultados e cada parte é removida com um único DELETE
+	public int deletarLivrosFiltro(ProcurarLivroDTO procurarLivroDTO) {
+		if(StringUtils.isAllBlank(procurarLivroDTO.getTitulo(), procurarLivroDTO.getIsbn(), procurarLivroDTO.getUsuarioNome(), 
+				procurarLivroDTO.getDescricaoCategoria())) {
+			throw new RegraDeNegocioException("Informe ao menos um filtro para deletar os livros.");
+		}
+		return deletarLoteConsulta(ultimoId -> getIdsLivros(procurarLivroDTO, ultimoId));
+	}
+	
+	private List<Long> getIdsLivros(ProcurarLivroDTO procurarLivroDTO, Long ultimoId) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Livro> root = cq.from(Livro.class);
+		cq.select(root.<Long>get("id"));
+		
+		List<Predicate> predicates = new ArrayList<Predicate>(Arrays.asList(getPredicatesFiltro(cb, root, procurarLivroDTO, true)));
+		if(ultimoId != null) {
+			predicates.add(cb.greaterThan(root.<Long>get("id"), ultimoId));
+		}
+		
+		cq.orderBy(cb.asc(root.get("id")));
+		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
+		
+		return entityManager.createQuery(cq).setMaxResults(TAMANHO_LOTE_REMOCAO).getResultList();
+	}
+	
+	private Long getTotalLivros(CriteriaBuilder cb, ProcurarLivroDTO procurarLivroDTO) {
+		CriteriaQuery<Long> cqTotal = cb.createQuery(Long.class);
+		Root<Livro> rootTotal = cqTotal.from(Livro.class);
+		
+		cqTotal.select(cb.count(rootTotal));
+		cqTotal.where(getPredicatesFiltro(cb, rootTotal, procurarLivroDTO, false));
+		
+		return entityManager.createQuery(cqTotal).getSingleResult();
+	}
+	
+	// No literal (remoção por filtro) os coringas do LIKE digitados no filtro são procurados como texto
+	private Predicate[] getPredicatesFiltro(CriteriaBuilder cb, Root<Livro> root, ProcurarLivroDTO procurarLivroDTO, boolean literal) {
 		List<Predicate> predicates = new ArrayList<Predicate>();
 		
 		if(procurarLivroDTO.getTitulo() != null || StringUtils.isNotEmpty(procurarLivroDTO.getTitulo())) {
-			Predicate predicateTitulo = cb.like(root.get("titulo"), "%" + procurarLivroDTO.getTitulo() + "%");
+			Predicate predicateTitulo = getPredicateLike(cb, root.get("titulo"), procurarLivroDTO.getTitulo(), true, literal);
 			predicates.add(predicateTitulo);
 		}
 		
 		if(procurarLivroDTO.getIsbn() != null || StringUtils.isNotEmpty(procurarLivroDTO.getIsbn())) {
-			Predicate predicateIsbn = cb.like(root.get("isbn"), "%" + procurarLivroDTO.getIsbn() + "%");
+			Predicate predicateIsbn = getPredicateLike(cb, root.get("isbn"), procurarLivroDTO.getIsbn(), true, literal);
 			predicates.add(predicateIsbn);
+			// Na remoção o filtro fica somente com o LIKE, um registro fora do índice continua sendo removido
+			if(!literal) {
+				adicionarPredicateCandidatos(cb, root.<Long>get("id"), predicates, indiceTrigramasService.getCandidatosIsbn(procurarLivroDTO.getIsbn()));
+			}
 		}
 		
 		if(procurarLivroDTO.getUsuarioNome() != null || StringUtils.isNotEmpty(procurarLivroDTO.getUsuarioNome())) {
-			Join<Livro, Usuario> usuarioJoin = root.join("usuario");
+			Join<Livro, Usuario> usuarioJoin = getJoin(root, "usuario");
 			usuarioJoin.alias("u");
 			
-			Predicate predicateNomeUsuario = cb.like(usuarioJoin.get("autor"), procurarLivroDTO.getUsuarioNome());
+			// Sem o % no início o LIKE na coluna normalizada usa o índice do autor
+			Predicate predicateNomeUsuario = getPredicateLike(cb, usuarioJoin.get("autorNormalizado"), ValidacaoFormatacao.getTextoNormalizado(procurarLivroDTO.getUsuarioNome()), false, literal);
 			predicates.add(predicateNomeUsuario);
 		}
 		
 		if(procurarLivroDTO.getDescricaoCategoria() != null || StringUtils.isNotEmpty(procurarLivroDTO.getDescricaoCategoria())) {
-			Join<Livro, Categoria> categoriaJoin = root.join("categoria");
+			Join<Livro, Categoria> categoriaJoin = getJoin(root, "categoria");
 			categoriaJoin.alias("c");
 			
-			Predicate predicateDescricaoCategoria = cb.like(categoriaJoin.get("descricao"), procurarLivroDTO.getDescricaoCategoria());
+			Predicate predicateDescricaoCategoria = getPredicateLike(cb, categoriaJoin.get("descricao"), procurarLivroDTO.getDescricaoCategoria(), false, literal);
 			predicates.add(predicateDescricaoCategoria);
 		}
 		
-		cq.orderBy(cb.desc(root.get("titulo")));
-		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
-		
-		TypedQuery<Livro> typedQuery = entityManager.createQuery(cq);
-		List<Livro> livros = typedQuery.getResultList();
+		return (Predicate[])predicates.toArray(new Predicate[0]);
+	}
+	
+	// Selecionando somente as colunas do DTO, o usuário e a categoria vem na mesma consulta sem carregar as entidades no contexto de persistência
+	private CompoundSelection<LivroDTO> getSelecaoLivroDTO(CriteriaBuilder cb, Root<Livro> root) {
+		Join<Livro, Usuario> usuarioJoin = root.join("usuario", JoinType.LEFT);
+		Join<Livro, Categoria> categoriaJoin = root.join("categoria", JoinType.LEFT);
 		
-		if(livros.isEmpty()) {
-			throw new EntidadeNotFoundException("Nenhum livro encontrado.");
+		return cb.construct(LivroDTO.class, root.get("id"), root.get("titulo"), root.get("subtitulo"), root.get("sinopse"),
+				root.get("isbn"), root.get("estoque"), usuarioJoin.get("id"), usuarioJoin.get("autor"), usuarioJoin.get("dataNascimento"),
+				categoriaJoin.get("id"), categoriaJoin.get("descricao"));
+	}
+	
+	// Quando a consulta já tem o join da associação, o filtro reaproveita o mesmo join
+	@SuppressWarnings("unchecked")
+	private <Y> Join<Livro, Y> getJoin(Root<Livro> root, String atributo) {
+		for(Join<Livro, ?> join : root.getJoins()) {
+			if(join.getAttribute().getName().equals(atributo)) {
+				return (Join<Livro, Y>) join;
+			}
 		}
-		
-		List<LivroDTO> livrosDtos = livros.stream().map(l -> new LivroDTO(l)).collect(Collectors.toList());
-		return livrosDtos;
+		return root.join(atributo);
+	}
+	
+	// Os livros deletados saem do índice da busca textual, das sugestões de títulos e dos candidatos do filtro pelo isbn
+	@Override
+	protected void depoisDeDeletar(List<Long> ids) {
+		buscaLivroService.removerLivros(ids);
+		autocompletarService.removerLivros(ids);
+		indiceTrigramasService.removerLivros(ids);
+	}
+	
+	public boolean existeLivroPorCategoriaId(Long idCategoria) {
+		return livroRepositorio.existsByCategoriaId(idCategoria);
 	}
 	
 	public List<Livro> livrosPorCategoriaId(Long idCategoria){
@@ -119,6 +432,11 @@ public class LivroService extends AbstractService<Livro>{
 	}
 	
 	public void verificarTituloExistente(Livro livro) {
+		// Nenhum livro tem esse título, não precisa consultar o banco
+		if(!filtroBloomService.podeExistirTitulo(livro.getTitulo())) {
+			return;
+		}
+		
 		if(livro.getId() == null) {
 			
 			Boolean existeLivro = livroRepositorio.existsByTitulo(livro.getTitulo());
@@ -127,8 +445,8 @@ public class LivroService extends AbstractService<Livro>{
 			}
 		
 		} else if(livro.getId() != null) {
-			Optional<Livro> existeLivroAtualizar = livroRepositorio.existsByTituloQuandoForAtualizar(livro.getTitulo(),livro.getId());
-			if(existeLivroAtualizar.isPresent()) {
+			Boolean existeLivroAtualizar = livroRepositorio.existsByTituloAndIdNot(livro.getTitulo(),livro.getId());
+			if(existeLivroAtualizar) {
 				throw new RegraDeNegocioException("Título já existente ao atualizar.");
 			}
 		}
@@ -136,19 +454,24 @@ public class LivroService extends AbstractService<Livro>{
 	}
 	
 	public void verificarIsbnExistente(Livro livro) {
+		// Nenhum livro tem esse ISBN, não precisa consultar o banco
+		if(!filtroBloomService.podeExistirIsbn(livro.getIsbn())) {
+			return;
+		}
+		
 		if(livro.getId() == null) {
 			
-			Livro livroExistente = livroRepositorio.buscarIsbnLivro(livro.getIsbn());
+			Boolean existeIsbn = livroRepositorio.existsByIsbn(livro.getIsbn());
 			
-			if(livroExistente != null) {
+			if(existeIsbn) {
 				throw new RegraDeNegocioException("Este ISBN já foi cadastrado por outro livro.");
 			}
 			
 		} else if(livro.getId() != null) {
 			
-			Livro livroExistenteAtualizar = livroRepositorio.buscarIsbnLivroQuandoForAtualizar(livro.getIsbn(),livro.getId());
+			Boolean existeIsbnAtualizar = livroRepositorio.existsByIsbnAndIdNot(livro.getIsbn(),livro.getId());
 			
-			if(livroExistenteAtualizar != null) {
+			if(existeIsbnAtualizar) {
 				throw new RegraDeNegocioException("ISBN já existente ao atualizar.");
 			}
 		}
@@ -2,11 +2,15 @@ package com.gabrielferreira.br.service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CompoundSelection;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
@@ -16,14 +20,17 @@ import javax.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 
-import com.gabrielferreira.br.exception.EntidadeNotFoundException;
 import com.gabrielferreira.br.exception.RegraDeNegocioException;
+import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.Usuario;
 import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarUsuarioDTO;
 import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
 import com.gabrielferreira.br.service.abstrato.AbstractService;
+import com.gabrielferreira.br.utils.CursorPaginacao;
 import com.gabrielferreira.br.utils.ValidacaoFormatacao;
 
 import org.apache.commons.lang3.StringUtils;
@@ -35,30 +42,124 @@ public class UsuarioService extends AbstractService<Usuario>{
 	
 	private final EntityManager entityManager;
 	
-	public UsuarioService(JpaRepository<Usuario, Long> jpaRepository, EntityManager entityManager) {
+	private final FiltroBloomService filtroBloomService;
+	
+	private final BuscaLivroService buscaLivroService;
+	
+	private final AutocompletarService autocompletarService;
+	
+	private final IndiceTrigramasService indiceTrigramasService;
+	
+	public UsuarioService(JpaRepository<Usuario, Long> jpaRepository, EntityManager entityManager, FiltroBloomService filtroBloomService,
+			BuscaLivroService buscaLivroService, AutocompletarService autocompletarService, IndiceTrigramasService indiceTrigramasService) {
 		super(jpaRepository);
 		this.usuarioRepositorio = (UsuarioRepositorio) jpaRepository;
 		this.entityManager = entityManager;	
+		this.filtroBloomService = filtroBloomService;
+		this.buscaLivroService = buscaLivroService;
+		this.autocompletarService = autocompletarService;
+		this.indiceTrigramasService = indiceTrigramasService;
 	}
 	
 	@Transactional
 	public Usuario inserir(CriarUsuarioDTO criarUsuarioDTO) {
-		Usuario usuario = new Usuario(criarUsuarioDTO.getId(), ValidacaoFormatacao.getFormatacaoNome(criarUsuarioDTO.getAutor()), criarUsuarioDTO.getDataNascimento(), null);
+		String autor = ValidacaoFormatacao.getFormatacaoNome(criarUsuarioDTO.getAutor());
+		Usuario usuario = new Usuario(criarUsuarioDTO.getId(), autor, null, criarUsuarioDTO.getDataNascimento(), null);
 		verificarAutorExistente(usuario);
-		return usuarioRepositorio.save(usuario);
+		
+		// O índice único do autor garante a regra quando duas requisições passam juntas pela verificação
+		Map<String, String> mensagensRestricao = new HashMap<String, String>();
+		mensagensRestricao.put(Usuario.UK_USUARIO_AUTOR, usuario.getId() == null ? "Este autor já foi cadastrado." : "Autor já existente ao atualizar.");
+		removerCache(usuario.getId());
+		usuario = salvar(usuario, mensagensRestricao);
+		filtroBloomService.adicionarUsuario(usuario);
+		if(criarUsuarioDTO.getId() != null) {
+			buscaLivroService.reindexarUsuario(usuario.getId());
+		}
+		autocompletarService.adicionarUsuario(usuario);
+		indiceTrigramasService.adicionarUsuario(usuario);
+		return usuario;
+	}
+	
+	@Override
+	@Transactional
+	public void deletar(Long id) {
+		// Os livros apontam para o autor pela chave estrangeira, o autor com livros não pode ser deletado
+		Map<String, String> mensagensRestricao = new HashMap<String, String>();
+		mensagensRestricao.put(Livro.FK_LIVRO_USUARIO, "Não é possível deletar usuário pois tem livros associados !");
+		deletar(id, mensagensRestricao);
+	}
+	
+	// Os usuários deletados saem das sugestões de autores e dos candidatos do filtro pelo autor
+	@Override
+	protected void depoisDeDeletar(List<Long> ids) {
+		autocompletarService.removerUsuarios(ids);
+		indiceTrigramasService.removerUsuarios(ids);
+	}
+	
+	// Sugestões de autores que começam com o prefixo, sem consultar o banco
+	public List<SugestaoDTO> autocompletarAutores(String prefixo, int total){
+		verificarTotalRegistroCursor(total);
+		return autocompletarService.getAutores(prefixo, Math.min(total, TAMANHO_MAXIMO_IDS));
 	}
 	
 	public List<UsuarioDTO> filtroUsuarios(ProcurarUsuarioDTO procurarUsuarioDTO){
 		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
 		
-		CriteriaQuery<Usuario> cq = cb.createQuery(Usuario.class);
+		CriteriaQuery<UsuarioDTO> cq = cb.createQuery(UsuarioDTO.class);
 		Root<Usuario> root = cq.from(Usuario.class);
+		cq.select(getSelecaoUsuarioDTO(cb, root));
+		
+		cq.orderBy(cb.desc(root.get("dataNascimento")));
+		cq.where(getPredicatesFiltro(cb, root, procurarUsuarioDTO));
+		
+		TypedQuery<UsuarioDTO> typedQuery = entityManager.createQuery(cq);
+		// Nenhum usuário encontrado é uma resposta comum, a lista vazia é devolvida sem passar por uma exceção
+		return typedQuery.getResultList();
+	}
+	
+	public PaginaCursorDTO<UsuarioDTO> filtroUsuariosCursor(ProcurarUsuarioDTO procurarUsuarioDTO, String cursor, int totalRegistro){
+		verificarTotalRegistroCursor(totalRegistro);
 		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		
+		CriteriaQuery<UsuarioDTO> cq = cb.createQuery(UsuarioDTO.class);
+		Root<Usuario> root = cq.from(Usuario.class);
+		cq.select(getSelecaoUsuarioDTO(cb, root));
+		
+		List<Predicate> predicates = new ArrayList<Predicate>(Arrays.asList(getPredicatesFiltro(cb, root, procurarUsuarioDTO)));
+		
+		// Continuando a partir do último usuário da página anterior, sem precisar percorrer o offset
+		if(StringUtils.isNotEmpty(cursor)) {
+			CursorPaginacao cursorPaginacao = CursorPaginacao.lerCursor(cursor);
+			predicates.add(getPredicateCursor(cb, root.<Date>get("dataNascimento"), cursorPaginacao.getChaveData(), root.<Long>get("id"), cursorPaginacao.getId()));
+		}
+		
+		cq.orderBy(cb.desc(root.get("dataNascimento")), cb.desc(root.get("id")));
+		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
+		
+		// Buscando um registro a mais para saber se existe uma próxima página
+		TypedQuery<UsuarioDTO> typedQuery = entityManager.createQuery(cq);
+		typedQuery.setMaxResults(totalRegistro + 1);
+		List<UsuarioDTO> usuarioDTOs = typedQuery.getResultList();
+		
+		return getPaginaCursor(usuarioDTOs, totalRegistro, u -> CursorPaginacao.gerarCursor(u.getDataNascimento(), u.getId()));
+	}
+	
+	// Selecionando somente as colunas do DTO, sem carregar a entidade no contexto de persistência
+	private CompoundSelection<UsuarioDTO> getSelecaoUsuarioDTO(CriteriaBuilder cb, Root<Usuario> root) {
+		return cb.construct(UsuarioDTO.class, root.get("id"), root.get("autor"), root.get("dataNascimento"));
+	}
+	
+	private Predicate[] getPredicatesFiltro(CriteriaBuilder cb, Root<Usuario> root, ProcurarUsuarioDTO procurarUsuarioDTO) {
 		List<Predicate> predicates = new ArrayList<Predicate>();
 		
+		// Pela coluna normalizada, o autor digitado sem acento ou em minúsculo encontra o autor cadastrado
 		if(procurarUsuarioDTO.getAutor() != null || StringUtils.isNotEmpty(procurarUsuarioDTO.getAutor())) {
-			Predicate predicateNome = cb.like(root.get("autor"), "%" + procurarUsuarioDTO.getAutor() + "%");
+			String autorNormalizado = ValidacaoFormatacao.getTextoNormalizado(procurarUsuarioDTO.getAutor());
+			Predicate predicateNome = cb.like(root.get("autorNormalizado"), "%" + autorNormalizado + "%");
 			predicates.add(predicateNome);
+			adicionarPredicateCandidatos(cb, root.<Long>get("id"), predicates, indiceTrigramasService.getCandidatosAutor(autorNormalizado));
 		}
 		
 		if(procurarUsuarioDTO.getDataNascimentoInicio() == null && procurarUsuarioDTO.getDataNascimentoFinal() != null) {
@@ -85,30 +186,19 @@ public class UsuarioService extends AbstractService<Usuario>{
 			predicates.add(predicateDataNascimento);
 		}
 		
-		cq.orderBy(cb.desc(root.get("dataNascimento")));
-		cq.where((Predicate[])predicates.toArray(new Predicate[0]));
-		
-		TypedQuery<Usuario> typedQuery = entityManager.createQuery(cq);
-		List<Usuario> usuarios = typedQuery.getResultList();
-		
-		if(usuarios.isEmpty()) {
-			throw new EntidadeNotFoundException("Nenhum usuário encontrado.");
-		}
-		
-		List<UsuarioDTO> usuarioDTOs = usuarios.stream().map(u -> new UsuarioDTO(u)).collect(Collectors.toList());
-		return usuarioDTOs;
+		return (Predicate[])predicates.toArray(new Predicate[0]);
 	}
 	
 	public List<UsuarioDTO> mostrarUsuarios(){
-		List<Usuario> usuarios = getLista();
-		if(usuarios.isEmpty()) {
-			throw new EntidadeNotFoundException("Nenhum usuário encontrado.");
-		}
-		List<UsuarioDTO> usuarioDTOs = usuarios.stream().map(u -> new UsuarioDTO(u)).collect(Collectors.toList());
-		return usuarioDTOs;
+		return usuarioRepositorio.buscarUsuariosDTO();
 	}
 	
 	public void verificarAutorExistente(Usuario usuario) {
+		// Nenhum usuário tem esse autor, não precisa consultar o banco
+		if(!filtroBloomService.podeExistirAutor(usuario.getAutor())) {
+			return;
+		}
+		
 		if(usuario.getId() == null) {
 			
 			Boolean existeAutor = usuarioRepositorio.existsByAutor(usuario.getAutor());
@@ -118,8 +208,8 @@ public class UsuarioService extends AbstractService<Usuario>{
 		
 		} else if(usuario.getId() != null) {
 			
-			Usuario usuarioPesquisado = usuarioRepositorio.buscarAutorUsuarioQuandoForAtualizar(usuario.getAutor(), usuario.getId());
-			if(usuarioPesquisado != null) {
+			Boolean existeAutorAtualizar = usuarioRepositorio.existsByAutorAndIdNot(usuario.getAutor(), usuario.getId());
+			if(existeAutorAtualizar) {
 				throw new RegraDeNegocioException("Autor já existente ao atualizar.");
 			}
 			
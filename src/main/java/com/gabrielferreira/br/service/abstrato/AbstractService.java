@@ -1,39 +1,358 @@
 package com.gabrielferreira.br.service.abstrato;
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
 import javax.transaction.Transactional;
 
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
 
 import com.gabrielferreira.br.exception.EntidadeNotFoundException;
+import com.gabrielferreira.br.exception.RegraDeNegocioException;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RegistrosPorIdsDTO;
+import com.gabrielferreira.br.repositorio.abstrato.AbstractRepositorio;
 
-import lombok.RequiredArgsConstructor;
-
-@RequiredArgsConstructor
 public class AbstractService<T> {
 	
-	private final JpaRepository<T, Long> jpaRepository;
+	protected static final int TAMANHO_LOTE_REMOCAO = 500;
+	
+	protected static final int TAMANHO_MAXIMO_IDS = 1000;
+	
+	private static final char ESCAPE_LIKE = '\\';
+	
+	private final AbstractRepositorio<T> jpaRepository;
+	
+	private final Class<?> classeEntidade;
+	
+	private Cache cacheEntidade;
+	
+	private List<PropertyDescriptor> propriedadesCopia;
+	
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
+	
+	// O cache é opcional, somente as entidades configuradas em livraria.cache.entidades recebem um cache com o nome da entidade
+	@Autowired(required = false)
+	public void setCacheManager(CacheManager cacheManager) {
+		this.cacheEntidade = classeEntidade != null ? cacheManager.getCache(StringUtils.uncapitalize(classeEntidade.getSimpleName())) : null;
+		if(cacheEntidade != null) {
+			// A cópia leva as propriedades com getter e setter, as coleções (lazy, ligadas ao EntityManager que carregou) ficam de fora
+			this.propriedadesCopia = new ArrayList<PropertyDescriptor>();
+			for(PropertyDescriptor propriedade : BeanUtils.getPropertyDescriptors(classeEntidade)) {
+				if(propriedade.getReadMethod() != null && propriedade.getWriteMethod() != null 
+						&& !Collection.class.isAssignableFrom(propriedade.getPropertyType())) {
+					propriedadesCopia.add(propriedade);
+				}
+			}
+		}
+	}
+	
+	public AbstractService(JpaRepository<T, Long> jpaRepository) {
+		this.jpaRepository = (AbstractRepositorio<T>) jpaRepository;
+		this.classeEntidade = GenericTypeResolver.resolveTypeArgument(getClass(), AbstractService.class);
+	}
 	
 	@Transactional
 	public void deletar(Long id) {
+		deletar(id, new HashMap<String, String>());
+	}
+	
+	// Um único DELETE condicional, sem buscar o registro antes, nenhum registro removido significa que o id não existe
+	protected void deletar(Long id, Map<String, String> mensagensRestricao) {
 		if (id == null) {
 			throw new IllegalArgumentException("Para deletar o registro é preciso informar o id.");
 		}
-		jpaRepository.deleteById(id);
+		
+		int totalRemovidos;
+		try {
+			totalRemovidos = jpaRepository.deletarPorId(id);
+		} catch (DataIntegrityViolationException e) {
+			String mensagem = getMensagemRestricao(e, mensagensRestricao);
+			if(mensagem == null) {
+				throw e;
+			}
+			throw new RegraDeNegocioException(mensagem);
+		}
+		
+		if(totalRemovidos == 0) {
+			throw EntidadeNotFoundException.REGISTRO_NAO_ENCONTRADO;
+		}
+		removerCache(id);
+		removerCacheSegundoNivel(List.of(id));
+		depoisDeDeletar(List.of(id));
 	}
 	
+	// Remove os ids em partes, cada parte é um único DELETE com IN confirmado em sua própria transação,
+	// assim os bloqueios são liberados a cada parte e a remoção não segura as outras requisições até o final
+	public int deletarLote(Collection<Long> ids) {
+		if(ids == null || ids.isEmpty()) {
+			throw new RegraDeNegocioException("Informe os ids dos registros que serão deletados.");
+		}
+		
+		List<Long> lista = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		int totalRemovidos = 0;
+		for(int i = 0; i < lista.size(); i += TAMANHO_LOTE_REMOCAO) {
+			totalRemovidos += deletarParte(lista.subList(i, Math.min(i + TAMANHO_LOTE_REMOCAO, lista.size())));
+		}
+		return totalRemovidos;
+	}
+	
+	// A consulta recebe o último id da parte anterior (nulo na primeira) e devolve os próximos ids em ordem crescente, 
+	// no máximo TAMANHO_LOTE_REMOCAO, assim cada parte continua de onde a anterior parou sem percorrer de novo os registros
+	protected int deletarLoteConsulta(Function<Long, List<Long>> proximosIds) {
+		int totalRemovidos = 0;
+		List<Long> ids = proximosIds.apply(null);
+		while(!ids.isEmpty()) {
+			totalRemovidos += deletarParte(ids);
+			if(ids.size() < TAMANHO_LOTE_REMOCAO) {
+				break;
+			}
+			ids = proximosIds.apply(ids.get(ids.size() - 1));
+		}
+		return totalRemovidos;
+	}
+	
+	private int deletarParte(List<Long> ids) {
+		int removidos = jpaRepository.deletarPorIds(ids);
+		ids.forEach(this::removerCache);
+		removerCacheSegundoNivel(ids);
+		depoisDeDeletar(ids);
+		return removidos;
+	}
+	
+	// O DELETE não passa pelas entidades, os ids removidos saem do cache de segundo nível depois do commit. Fora de uma transação
+	// (as partes do lote) o DELETE já foi confirmado e a remoção é imediata
+	private void removerCacheSegundoNivel(List<Long> ids) {
+		if(entityManagerFactory == null || classeEntidade == null) {
+			return;
+		}
+		
+		javax.persistence.Cache cacheSegundoNivel = entityManagerFactory.getCache();
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			ids.forEach(id -> cacheSegundoNivel.evict(classeEntidade, id));
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				ids.forEach(id -> cacheSegundoNivel.evict(classeEntidade, id));
+			}
+		});
+	}
+	
+	// Chamado depois de cada DELETE por id ou por parte do lote, para os services que mantêm outras estruturas além do cache
+	protected void depoisDeDeletar(List<Long> ids) {
+	}
+	
+	@SuppressWarnings("unchecked")
 	public T getDetalhe(Long id) {
+		if(cacheEntidade != null) {
+			Cache.ValueWrapper entidadeCache = cacheEntidade.get(id);
+			if(entidadeCache != null) {
+				return getCopia((T) entidadeCache.get());
+			}
+		}
+		
 		Optional<T> optionalEntidade = jpaRepository.findById(id);
 		if(!optionalEntidade.isPresent()) {
-			throw new EntidadeNotFoundException("Registro não encontrado.");
+			throw EntidadeNotFoundException.REGISTRO_NAO_ENCONTRADO;
+		}
+		
+		if(cacheEntidade != null) {
+			cacheEntidade.put(id, getCopia(optionalEntidade.get()));
 		}
 		return optionalEntidade.get();
 	}
 	
+	// O cache guarda uma cópia fora do EntityManager e cada leitura do cache recebe outra cópia, assim o merge de uma atualização
+	// na entidade gerenciada (antes do commit ou desfeito no rollback) não aparece para as outras requisições
+	@SuppressWarnings("unchecked")
+	private T getCopia(T entidade) {
+		T copia = (T) BeanUtils.instantiateClass(classeEntidade);
+		for(PropertyDescriptor propriedade : propriedadesCopia) {
+			Object valor = ReflectionUtils.invokeMethod(propriedade.getReadMethod(), entidade);
+			ReflectionUtils.invokeMethod(propriedade.getWriteMethod(), copia, valor instanceof Date ? ((Date) valor).clone() : valor);
+		}
+		return copia;
+	}
+	
+	// Salva com flush para que a violação de um índice único aconteça aqui e vire a RegraDeNegocioException da restrição violada
+	protected T salvar(T entidade, Map<String, String> mensagensRestricao) {
+		try {
+			return jpaRepository.saveAndFlush(entidade);
+		} catch (DataIntegrityViolationException e) {
+			String mensagem = getMensagemRestricao(e, mensagensRestricao);
+			if(mensagem == null) {
+				throw e;
+			}
+			throw new RegraDeNegocioException(mensagem);
+		}
+	}
+	
+	private String getMensagemRestricao(DataIntegrityViolationException e, Map<String, String> mensagensRestricao) {
+		if(!(e.getCause() instanceof ConstraintViolationException)) {
+			return null;
+		}
+		
+		// O nome que o banco devolve pode vir com o schema e o nome do índice, por isso a comparação por contains
+		String restricao = StringUtils.upperCase(((ConstraintViolationException) e.getCause()).getConstraintName());
+		for(Map.Entry<String, String> mensagemRestricao : mensagensRestricao.entrySet()) {
+			if(StringUtils.contains(restricao, mensagemRestricao.getKey())) {
+				return mensagemRestricao.getValue();
+			}
+		}
+		return null;
+	}
+	
+	// Chamado pelos inserts antes de salvar e pelas remoções, para que o próximo getDetalhe busque o registro atualizado. Dentro da
+	// transação a remoção acontece no final, depois do commit ou do rollback, assim uma leitura concorrente não guarda o registro antigo
+	// e uma gravação que falhou também não deixa o registro no cache
+	protected void removerCache(Long id) {
+		if(cacheEntidade == null || id == null) {
+			return;
+		}
+		
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			cacheEntidade.evict(id);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				cacheEntidade.evict(id);
+			}
+		});
+	}
+	
 	public List<T> getLista(){
 		return jpaRepository.findAll();
 	}
 	
+	// Busca todos os registros dos ids informados em uma única consulta, os ids não encontrados ficam de fora
+	public List<T> getListaPorIds(Collection<Long> ids){
+		if(ids.isEmpty()) {
+			return new ArrayList<T>();
+		}
+		return jpaRepository.findAllById(ids);
+	}
+	
+	// Consulta de vários registros de uma vez, os que estão no cache não vão para o banco e os demais vem em um único IN,
+	// um id não encontrado é informado na resposta sem impedir o retorno dos outros
+	@SuppressWarnings("unchecked")
+	public <D> RegistrosPorIdsDTO<D> getRegistrosPorIds(List<Long> ids, Function<T, Long> id, Function<T, D> conversao){
+		if(ids == null || ids.isEmpty()) {
+			throw new RegraDeNegocioException("Informe os ids dos registros que serão consultados.");
+		}
+		
+		List<Long> idsDistintos = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		if(idsDistintos.size() > TAMANHO_MAXIMO_IDS) {
+			throw new RegraDeNegocioException("Informe no máximo " + TAMANHO_MAXIMO_IDS + " ids por consulta.");
+		}
+		
+		Map<Long, T> encontrados = new HashMap<Long, T>();
+		List<Long> idsConsulta = new ArrayList<Long>();
+		for(Long idRegistro : idsDistintos) {
+			Cache.ValueWrapper entidadeCache = cacheEntidade != null ? cacheEntidade.get(idRegistro) : null;
+			if(entidadeCache != null) {
+				encontrados.put(idRegistro, getCopia((T) entidadeCache.get()));
+			} else {
+				idsConsulta.add(idRegistro);
+			}
+		}
+		
+		for(T entidade : getListaPorIds(idsConsulta)) {
+			encontrados.put(id.apply(entidade), entidade);
+			if(cacheEntidade != null) {
+				cacheEntidade.put(id.apply(entidade), getCopia(entidade));
+			}
+		}
+		
+		RegistrosPorIdsDTO<D> registrosPorIds = new RegistrosPorIdsDTO<D>();
+		for(Long idRegistro : idsDistintos) {
+			T entidade = encontrados.get(idRegistro);
+			if(entidade != null) {
+				registrosPorIds.getRegistros().add(conversao.apply(entidade));
+			} else {
+				registrosPorIds.getNaoEncontrados().add(idRegistro);
+			}
+		}
+		return registrosPorIds;
+	}
+	
+	protected void verificarTotalRegistroCursor(int totalRegistro) {
+		if(totalRegistro < 1) {
+			throw new RegraDeNegocioException("O total de registros por página deve ser maior do que 0.");
+		}
+	}
+	
+	// Predicate da paginação por cursor com ordenação decrescente (chave, id), os registros com a chave nula ficam por último
+	protected <C extends Comparable<? super C>> Predicate getPredicateCursor(CriteriaBuilder cb, Expression<C> chave, C valorChave,
+			Expression<Long> id, Long valorId) {
+		Predicate predicateId = cb.lessThan(id, valorId);
+		if(chave == null) {
+			return predicateId;
+		}
+		
+		if(valorChave == null) {
+			return cb.and(cb.isNull(chave), predicateId);
+		}
+		
+		Predicate predicateChaveMenor = cb.lessThan(chave, valorChave);
+		Predicate predicateChaveIgual = cb.and(cb.equal(chave, valorChave), predicateId);
+		return cb.or(predicateChaveMenor, predicateChaveIgual, cb.isNull(chave));
+	}
+	
+	// LIKE dos filtros por texto, com contem o texto fica entre os %. No literal (filtros da remoção) os coringas % e _ digitados são
+	// procurados como texto, assim um filtro "%" não remove todos os registros da tabela
+	protected Predicate getPredicateLike(CriteriaBuilder cb, Expression<String> expressao, String texto, boolean contem, boolean literal) {
+		String padrao = literal ? texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") : texto;
+		if(contem) {
+			padrao = "%" + padrao + "%";
+		}
+		return literal ? cb.like(expressao, padrao, ESCAPE_LIKE) : cb.like(expressao, padrao);
+	}
+	
+	// Restringe o filtro aos ids candidatos de um índice, a lista nula não restringe e a lista vazia significa que nenhum registro satisfaz o filtro
+	protected void adicionarPredicateCandidatos(CriteriaBuilder cb, Expression<Long> id, List<Predicate> predicates, List<Long> candidatos) {
+		if(candidatos != null) {
+			predicates.add(candidatos.isEmpty() ? cb.disjunction() : id.in(candidatos));
+		}
+	}
+	
+	// Monta a página a partir da consulta que buscou um registro a mais do que o total por página
+	protected <D> PaginaCursorDTO<D> getPaginaCursor(List<D> registros, int totalRegistro, Function<D, String> cursor) {
+		boolean existeProximaPagina = registros.size() > totalRegistro;
+		List<D> conteudo = existeProximaPagina ? new ArrayList<D>(registros.subList(0, totalRegistro)) : registros;
+		
+		String proximo = existeProximaPagina ? cursor.apply(conteudo.get(totalRegistro - 1)) : null;
+		return new PaginaCursorDTO<D>(conteudo, totalRegistro, proximo);
+	}
+	
 
 }
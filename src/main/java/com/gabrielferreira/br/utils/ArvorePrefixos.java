@@ -0,0 +1,265 @@
+package com.gabrielferreira.br.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+
+// Árvore de prefixos compactada (radix tree), cada aresta guarda um pedaço da chave e só existe nó onde as chaves se separam,
+// assim a quantidade de nós fica no máximo em duas vezes a quantidade de chaves. As chaves são normalizadas, sem acento e em minúsculo,
+// e a sugestão devolve o texto original do registro
+public class ArvorePrefixos {
+
+	private static final No[] SEM_FILHOS = new No[0];
+
+	private final No raiz = new No("");
+
+	// Chave normalizada de cada id, para remover e atualizar o registro somente pelo id
+	private final Map<Long, String> chaves = new HashMap<Long, String>();
+
+	// As buscas acontecem juntas, as alterações esperam as buscas terminarem
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Um id já existente é atualizado com o novo texto
+	public void adicionar(Long id, String texto) {
+		String chave = ValidacaoFormatacao.getTextoNormalizado(texto);
+		lock.writeLock().lock();
+		try {
+			removerChave(id);
+			if(StringUtils.isNotEmpty(chave)) {
+				inserir(chave, id, texto);
+				chaves.put(id, chave);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remover(Long id) {
+		lock.writeLock().lock();
+		try {
+			removerChave(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Sugestões que começam com o prefixo em ordem alfabética das chaves, a busca para assim que encontra o total
+	public List<SugestaoDTO> buscar(String prefixo, int total) {
+		List<SugestaoDTO> sugestoes = new ArrayList<SugestaoDTO>();
+		String chave = ValidacaoFormatacao.getTextoNormalizado(prefixo);
+		if(StringUtils.isEmpty(chave) || total < 1) {
+			return sugestoes;
+		}
+
+		lock.readLock().lock();
+		try {
+			No no = getNoPrefixo(chave);
+			if(no != null) {
+				adicionarSugestoes(no, sugestoes, total);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return sugestoes;
+	}
+
+	public int getTotal() {
+		lock.readLock().lock();
+		try {
+			return chaves.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void inserir(String chave, Long id, String texto) {
+		No no = raiz;
+		int posicao = 0;
+		while(posicao < chave.length()) {
+			int indice = no.getIndiceFilho(chave.charAt(posicao));
+			if(indice < 0) {
+				No folha = new No(chave.substring(posicao));
+				folha.adicionarRegistro(id, texto);
+				no.adicionarFilho(-(indice + 1), folha);
+				return;
+			}
+
+			No filho = no.filhos[indice];
+			int comum = getTamanhoComum(filho.rotulo, chave, posicao);
+
+			// A chave se separa no meio da aresta, um nó novo fica no ponto da separação
+			if(comum < filho.rotulo.length()) {
+				No separacao = new No(filho.rotulo.substring(0, comum));
+				filho.rotulo = filho.rotulo.substring(comum);
+				separacao.filhos = new No[] {filho};
+				no.filhos[indice] = separacao;
+				filho = separacao;
+			}
+			no = filho;
+			posicao += comum;
+		}
+		no.adicionarRegistro(id, texto);
+	}
+
+	private void removerChave(Long id) {
+		String chave = chaves.remove(id);
+		if(chave == null) {
+			return;
+		}
+
+		// Guardando o caminho até o nó da chave para juntar de volta as arestas que ficarem sem separação
+		Deque<No> caminho = new ArrayDeque<No>();
+		No no = raiz;
+		int posicao = 0;
+		while(posicao < chave.length()) {
+			caminho.push(no);
+			no = no.filhos[no.getIndiceFilho(chave.charAt(posicao))];
+			posicao += no.rotulo.length();
+		}
+		no.removerRegistro(id);
+
+		// O nó sem registros e sem filhos sai da árvore, e o pai que ficou com um único filho e sem registros junta com ele
+		while(!caminho.isEmpty() && no.registros == null) {
+			No pai = caminho.pop();
+			if(no.filhos.length == 0) {
+				pai.removerFilho(pai.getIndiceFilho(no.rotulo.charAt(0)));
+				no = pai;
+			} else {
+				if(no.filhos.length == 1) {
+					no.juntarFilho();
+				}
+				break;
+			}
+		}
+	}
+
+	private No getNoPrefixo(String prefixo) {
+		No no = raiz;
+		int posicao = 0;
+		while(posicao < prefixo.length()) {
+			int indice = no.getIndiceFilho(prefixo.charAt(posicao));
+			if(indice < 0) {
+				return null;
+			}
+
+			No filho = no.filhos[indice];
+			int comum = getTamanhoComum(filho.rotulo, prefixo, posicao);
+
+			// O prefixo pode terminar no meio da aresta, todas as chaves abaixo do filho continuam valendo
+			if(comum < filho.rotulo.length() && posicao + comum < prefixo.length()) {
+				return null;
+			}
+			no = filho;
+			posicao += comum;
+		}
+		return no;
+	}
+
+	private void adicionarSugestoes(No no, List<SugestaoDTO> sugestoes, int total) {
+		if(no.registros != null) {
+			for(Map.Entry<Long, String> registro : no.registros.entrySet()) {
+				if(sugestoes.size() == total) {
+					return;
+				}
+				sugestoes.add(new SugestaoDTO(registro.getKey(), registro.getValue()));
+			}
+		}
+		for(No filho : no.filhos) {
+			if(sugestoes.size() == total) {
+				return;
+			}
+			adicionarSugestoes(filho, sugestoes, total);
+		}
+	}
+
+	private int getTamanhoComum(String rotulo, String chave, int posicao) {
+		int limite = Math.min(rotulo.length(), chave.length() - posicao);
+		int comum = 0;
+		while(comum < limite && rotulo.charAt(comum) == chave.charAt(posicao + comum)) {
+			comum++;
+		}
+		return comum;
+	}
+
+	private static class No {
+
+		// Pedaço da chave na aresta que chega neste nó
+		private String rotulo;
+
+		// Ordenados pelo primeiro caractere do rótulo, a busca do filho é binária
+		private No[] filhos = SEM_FILHOS;
+
+		// Registros que terminam neste nó, nulo quando nenhuma chave termina aqui
+		private Map<Long, String> registros;
+
+		private No(String rotulo) {
+			this.rotulo = rotulo;
+		}
+
+		// Posição do filho que começa com o caractere, negativo com a posição de inserção quando não existe (como no Arrays.binarySearch)
+		private int getIndiceFilho(char caractere) {
+			int inicio = 0;
+			int fim = filhos.length - 1;
+			while(inicio <= fim) {
+				int meio = (inicio + fim) >>> 1;
+				char caractereMeio = filhos[meio].rotulo.charAt(0);
+				if(caractereMeio < caractere) {
+					inicio = meio + 1;
+				} else if(caractereMeio > caractere) {
+					fim = meio - 1;
+				} else {
+					return meio;
+				}
+			}
+			return -(inicio + 1);
+		}
+
+		private void adicionarFilho(int posicao, No filho) {
+			No[] novosFilhos = new No[filhos.length + 1];
+			System.arraycopy(filhos, 0, novosFilhos, 0, posicao);
+			novosFilhos[posicao] = filho;
+			System.arraycopy(filhos, posicao, novosFilhos, posicao + 1, filhos.length - posicao);
+			filhos = novosFilhos;
+		}
+
+		private void removerFilho(int posicao) {
+			No[] novosFilhos = filhos.length == 1 ? SEM_FILHOS : new No[filhos.length - 1];
+			System.arraycopy(filhos, 0, novosFilhos, 0, posicao);
+			System.arraycopy(filhos, posicao + 1, novosFilhos, posicao, filhos.length - posicao - 1);
+			filhos = novosFilhos;
+		}
+
+		// O nó sem registros e com um único filho deixa de ser uma separação, o filho passa a fazer parte da mesma aresta
+		private void juntarFilho() {
+			No filho = filhos[0];
+			rotulo = rotulo + filho.rotulo;
+			filhos = filho.filhos;
+			registros = filho.registros;
+		}
+
+		private void adicionarRegistro(Long id, String texto) {
+			if(registros == null) {
+				registros = new LinkedHashMap<Long, String>(2);
+			}
+			registros.put(id, texto);
+		}
+
+		private void removerRegistro(Long id) {
+			registros.remove(id);
+			if(registros.isEmpty()) {
+				registros = null;
+			}
+		}
+	}
+
+}
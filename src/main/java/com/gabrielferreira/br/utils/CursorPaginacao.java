@@ -0,0 +1,66 @@
+package com.gabrielferreira.br.utils;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import com.gabrielferreira.br.exception.RegraDeNegocioException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Cursor da paginação por chave (keyset), guarda o último valor da ordenação e o id do último registro retornado
+@Getter
+@ToString
+@AllArgsConstructor
+public class CursorPaginacao implements Serializable{
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	private static final char SEPARADOR = ':';
+	
+	private String chave;
+	private Long id;
+	
+	// Para as ordenações por data, a chave é guardada em milissegundos
+	public Date getChaveData() {
+		if(chave == null) {
+			return null;
+		}
+		try {
+			return new Date(Long.parseLong(chave));
+		} catch (NumberFormatException e) {
+			throw new RegraDeNegocioException("Cursor de paginação inválido.");
+		}
+	}
+	
+	public static String gerarCursor(Date chave, Long id) {
+		return gerarCursor(chave == null ? null : String.valueOf(chave.getTime()), id);
+	}
+	
+	// Gerando o token opaco que vai ser devolvido para o cliente no campo "proximo"
+	public static String gerarCursor(String chave, Long id) {
+		String valor = chave == null ? String.valueOf(id) : id + String.valueOf(SEPARADOR) + chave;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	// Lendo o token informado pelo cliente, o id vem antes do separador pois a chave pode conter qualquer caractere
+	public static CursorPaginacao lerCursor(String cursor) {
+		try {
+			String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int indiceSeparador = valor.indexOf(SEPARADOR);
+			if(indiceSeparador < 0) {
+				return new CursorPaginacao(null, Long.valueOf(valor));
+			}
+			return new CursorPaginacao(valor.substring(indiceSeparador + 1), Long.valueOf(valor.substring(0, indiceSeparador)));
+		} catch (IllegalArgumentException e) {
+			throw new RegraDeNegocioException("Cursor de paginação inválido.");
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.gabrielferreira.br.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ExecucaoTransacao {
+	
+	private ExecucaoTransacao() {}
+	
+	// Com uma transação ativa a ação só executa depois do commit, assim um rollback não deixa nas estruturas em memória 
+	// um registro que não existe no banco, sem transação a ação executa na hora
+	public static void depoisDoCommit(Runnable acao) {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					acao.run();
+				}
+			});
+		} else {
+			acao.run();
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.gabrielferreira.br.utils;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import lombok.Getter;
+
+// Filtro probabilístico de chaves, quando responde que não contém a chave é certeza, quando responde que pode conter é preciso confirmar no banco
+public class FiltroBloom {
+	
+	@Getter
+	private final String nome;
+	
+	private final BloomFilter<CharSequence> bloomFilter;
+	
+	public FiltroBloom(String nome, int capacidade, double fpp) {
+		this.nome = nome;
+		this.bloomFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacidade, fpp);
+	}
+	
+	// A escrita é sincronizada, uma leitura concorrente no máximo não enxerga a chave nova e o índice único do banco segura a duplicidade
+	public synchronized void adicionar(String chave) {
+		if(chave != null) {
+			bloomFilter.put(chave);
+		}
+	}
+	
+	public boolean podeConter(String chave) {
+		return chave == null || bloomFilter.mightContain(chave);
+	}
+	
+	// Probabilidade atual de falso positivo, calculada pelos bits já preenchidos
+	public double getFpp() {
+		return bloomFilter.expectedFpp();
+	}
+	
+}
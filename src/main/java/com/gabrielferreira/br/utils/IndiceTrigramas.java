@@ -0,0 +1,207 @@
+package com.gabrielferreira.br.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice de trigramas (cada sequência de três caracteres aponta para os ids dos textos que a contêm) para diminuir os candidatos
+// do filtro LIKE '%texto%', que não usa o índice do banco. Os candidatos nunca deixam de fora um registro que o LIKE encontraria,
+// o LIKE continua na consulta e confirma o resultado. O texto é indexado em minúsculo, caractere a caractere, para o mesmo índice
+// servir ao LIKE que diferencia e ao que não diferencia letra maiúscula
+public class IndiceTrigramas {
+
+	private static final long[] SEM_IDS = new long[0];
+
+	// Lista de ids em ordem crescente de cada trigrama, os três caracteres ficam juntos em um long
+	private final Map<Long, Postagens> postagens = new HashMap<Long, Postagens>();
+
+	// Texto em minúsculo de cada id, para remover pelo id e para confirmar os candidatos sem consultar o banco. O id com o texto nulo
+	// também fica aqui, sem trigramas, para o total ser o mesmo da tabela
+	private final Map<Long, String> textos = new HashMap<Long, String>();
+
+	// As buscas acontecem juntas, as alterações esperam as buscas terminarem
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Um id já existente é atualizado com o novo texto
+	public void adicionar(Long id, String texto) {
+		lock.writeLock().lock();
+		try {
+			removerTexto(id);
+			String chave = texto != null ? getMinusculo(texto) : null;
+			textos.put(id, chave);
+			if(chave != null) {
+				for(long trigrama : getTrigramas(chave)) {
+					postagens.computeIfAbsent(trigrama, t -> new Postagens()).adicionar(id);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remover(Long id) {
+		lock.writeLock().lock();
+		try {
+			removerTexto(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Ids em ordem crescente que podem satisfazer o LIKE '%filtro%', o filtro pode ter os coringas % e _ do LIKE. Nulo quando o índice
+	// não consegue diminuir os candidatos (nenhum pedaço do filtro com três caracteres, ou caractere de escape) ou quando passam do máximo,
+	// nesses casos a consulta fica somente com o LIKE
+	public List<Long> buscarCandidatos(String filtro, int maximo) {
+		if(filtro == null || filtro.indexOf('\\') >= 0) {
+			return null;
+		}
+
+		// Os pedaços entre os coringas aparecem inteiros no texto, cada um na sua posição
+		List<String> pedacos = new ArrayList<String>();
+		Set<Long> trigramas = new HashSet<Long>();
+		for(String pedaco : getMinusculo(filtro).split("[%_]")) {
+			if(!pedaco.isEmpty()) {
+				pedacos.add(pedaco);
+				trigramas.addAll(getTrigramas(pedaco));
+			}
+		}
+		if(trigramas.isEmpty()) {
+			return null;
+		}
+
+		lock.readLock().lock();
+		try {
+			List<Postagens> listas = new ArrayList<Postagens>(trigramas.size());
+			for(Long trigrama : trigramas) {
+				Postagens lista = postagens.get(trigrama);
+				if(lista == null) {
+					return new ArrayList<Long>();
+				}
+				listas.add(lista);
+			}
+
+			// Percorrendo a menor lista e procurando os ids nas outras, a confirmação pelo texto tira os trigramas fora de ordem
+			listas.sort(Comparator.comparingInt(l -> l.tamanho));
+			Postagens menor = listas.get(0);
+			List<Long> candidatos = new ArrayList<Long>();
+			for(int i = 0; i < menor.tamanho; i++) {
+				long id = menor.ids[i];
+				if(contemEmTodas(listas, id) && contemPedacos(textos.get(id), pedacos)) {
+					if(candidatos.size() == maximo) {
+						return null;
+					}
+					candidatos.add(id);
+				}
+			}
+			return candidatos;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Total de ids no índice, com ou sem texto
+	public int getTotal() {
+		lock.readLock().lock();
+		try {
+			return textos.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void removerTexto(Long id) {
+		String chave = textos.remove(id);
+		if(chave == null) {
+			return;
+		}
+		for(long trigrama : getTrigramas(chave)) {
+			Postagens lista = postagens.get(trigrama);
+			lista.remover(id);
+			if(lista.tamanho == 0) {
+				postagens.remove(trigrama);
+			}
+		}
+	}
+
+	private boolean contemEmTodas(List<Postagens> listas, long id) {
+		for(int i = 1; i < listas.size(); i++) {
+			if(listas.get(i).getPosicao(id) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Os pedaços precisam aparecer na mesma ordem do filtro, sem se sobrepor
+	private boolean contemPedacos(String texto, List<String> pedacos) {
+		int posicao = 0;
+		for(String pedaco : pedacos) {
+			posicao = texto.indexOf(pedaco, posicao);
+			if(posicao < 0) {
+				return false;
+			}
+			posicao += pedaco.length();
+		}
+		return true;
+	}
+
+	private Set<Long> getTrigramas(String texto) {
+		Set<Long> trigramas = new HashSet<Long>();
+		for(int i = 0; i + 3 <= texto.length(); i++) {
+			trigramas.add(((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2));
+		}
+		return trigramas;
+	}
+
+	// Caractere a caractere, assim o texto em minúsculo continua com o mesmo tamanho e um pedaço do texto continua sendo um pedaço
+	private String getMinusculo(String texto) {
+		char[] caracteres = texto.toCharArray();
+		for(int i = 0; i < caracteres.length; i++) {
+			caracteres[i] = Character.toLowerCase(caracteres[i]);
+		}
+		return new String(caracteres);
+	}
+
+	// Lista crescente de ids sem repetição, os ids novos costumam ser maiores do que todos e entram no final sem deslocar os outros
+	private static class Postagens {
+
+		private long[] ids = SEM_IDS;
+
+		private int tamanho;
+
+		private void adicionar(long id) {
+			int posicao = tamanho == 0 || ids[tamanho - 1] < id ? -(tamanho + 1) : getPosicao(id);
+			if(posicao >= 0) {
+				return;
+			}
+			posicao = -(posicao + 1);
+			if(tamanho == ids.length) {
+				ids = Arrays.copyOf(ids, Math.max(4, tamanho + (tamanho >> 1)));
+			}
+			System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+			ids[posicao] = id;
+			tamanho++;
+		}
+
+		private void remover(long id) {
+			int posicao = getPosicao(id);
+			if(posicao < 0) {
+				return;
+			}
+			System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+			tamanho--;
+		}
+
+		private int getPosicao(long id) {
+			return Arrays.binarySearch(ids, 0, tamanho, id);
+		}
+	}
+
+}
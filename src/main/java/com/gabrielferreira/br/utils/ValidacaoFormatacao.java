@@ -1,9 +1,9 @@
 package com.gabrielferreira.br.utils;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -15,6 +15,12 @@ public class ValidacaoFormatacao implements Serializable{
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
+	
+	// A partir do İ (U+0130) aparecem os caracteres em que a maiúscula ou minúscula do String muda o tamanho ou depende da palavra
+	// (İ, ŉ, sigma final, ligaduras...), assim como o ß do Latin-1, e os idiomas que têm regras próprias para o i
+	private static final char LIMITE_CASO_SIMPLES = '\u0130';
+	private static final char ESZETT = '\u00DF';
+	private static final Set<String> IDIOMAS_CASO_ESPECIAL = Set.of("tr", "az", "lt");
 
 	// Método que vai verificar se o ISBN informado é somente númerico
 	public static void getVerificarIsbn(String isbn) {
@@ -26,30 +32,79 @@ public class ValidacaoFormatacao implements Serializable{
 	}
 	
 	// Definindo um padrão para o nome, sempre colocando a primeira letra do nome como maiúsculo e o restante como minusculo
+	// Os nomes são separados por um único espaço, os espaços do início e do fim são removidos como no trim()
+	// A saída é a mesma do String.toUpperCase/toLowerCase, os casos especiais acima seguem por eles
 	public static String getFormatacaoNome(String valor) {
 		
 		// Removendo os espaços
-		String valorSemEspaco = valor.trim();
-
-		// Separando cada nome informado em uma lista
-		List<String> nomes = new ArrayList<>(Arrays.asList(valorSemEspaco.split(" ")));
-
-		// Criar uma lista que vai inserir o nome corretamente
-		List<String> nomesComFormato = new ArrayList<String>();
-
-		// Realizando a formatação
-		for (String nomeFormato : nomes) {
-			if (!nomeFormato.isEmpty()) {
-				String primeiraLetra = nomeFormato.substring(0, 1).toUpperCase();
-				String restante = nomeFormato.substring(1).toLowerCase();
-				nomesComFormato.add(primeiraLetra + restante);
+		int inicio = 0;
+		int fim = valor.length();
+		while(inicio < fim && valor.charAt(inicio) <= ' ') {
+			inicio++;
+		}
+		while(fim > inicio && valor.charAt(fim - 1) <= ' ') {
+			fim--;
+		}
+		
+		if(IDIOMAS_CASO_ESPECIAL.contains(Locale.getDefault().getLanguage())) {
+			return getFormatacaoNomeCasoEspecial(valor, inicio, fim);
+		}
+		
+		// Percorrendo uma única vez, o StringBuilder só é criado no primeiro caractere que muda, um nome já formatado não aloca nada
+		StringBuilder nomeFormatado = null;
+		boolean inicioNome = true;
+		for(int i = inicio; i < fim; i++) {
+			char caractere = valor.charAt(i);
+			
+			if(caractere == ' ') {
+				// O primeiro espaço depois de um nome é mantido, os espaços repetidos são descartados
+				if(!inicioNome) {
+					inicioNome = true;
+					if(nomeFormatado != null) {
+						nomeFormatado.append(caractere);
+					}
+				} else if(nomeFormatado == null) {
+					nomeFormatado = new StringBuilder(fim - inicio).append(valor, inicio, i);
+				}
+				continue;
+			}
+			if(caractere >= LIMITE_CASO_SIMPLES || caractere == ESZETT) {
+				return getFormatacaoNomeCasoEspecial(valor, inicio, fim);
+			}
+			
+			char caractereFormatado = inicioNome ? Character.toUpperCase(caractere) : Character.toLowerCase(caractere);
+			inicioNome = false;
+			if(nomeFormatado == null && caractereFormatado != caractere) {
+				nomeFormatado = new StringBuilder(fim - inicio).append(valor, inicio, i);
+			}
+			if(nomeFormatado != null) {
+				nomeFormatado.append(caractereFormatado);
 			}
 		}
-
-		// Ajustando a formatação
-		String nomeFormatado = nomesComFormato.toString().replace(",", "").replace("[", "").replace("]", "");
-		return nomeFormatado;
+		
+		if(nomeFormatado != null) {
+			return nomeFormatado.toString();
+		}
+		return inicio == 0 && fim == valor.length() ? valor : valor.substring(inicio, fim);
+	}
 	
+	// Formatação palavra a palavra com o String.toUpperCase/toLowerCase, para os caracteres e idiomas em que o Character não basta
+	private static String getFormatacaoNomeCasoEspecial(String valor, int inicio, int fim) {
+		StringJoiner nomesComFormato = new StringJoiner(" ");
+		for(String nome : valor.substring(inicio, fim).split(" ")) {
+			if(!nome.isEmpty()) {
+				nomesComFormato.add(nome.substring(0, 1).toUpperCase() + nome.substring(1).toLowerCase());
+			}
+		}
+		return nomesComFormato.toString();
+	}
+	
+	// Texto sem acentos, em minúsculo e com um único espaço entre as palavras, usado nas comparações que não diferenciam acento e maiúscula
+	public static String getTextoNormalizado(String valor) {
+		if(valor == null) {
+			return null;
+		}
+		return StringUtils.normalizeSpace(StringUtils.stripAccents(valor)).toLowerCase(Locale.ROOT);
 	}
 
 }
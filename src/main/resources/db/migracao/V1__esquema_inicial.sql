@@ -0,0 +1,20 @@
+-- Esquema inicial das tabelas, como era criado pelo Hibernate antes das migrações, sem as sequências e sem as colunas normalizadas.
+-- Um banco que já existia com esse esquema não executa esta versão, ele é marcado como versão 1 pelo baseline do Flyway.
+
+CREATE TABLE TB_CATEGORIA (ID BIGINT NOT NULL, DESCRICAO VARCHAR(255), PRIMARY KEY (ID));
+CREATE TABLE TB_CLIENTE (ID BIGINT NOT NULL, DATA_NASCIMENTO DATE NOT NULL, DOCUMENTO VARCHAR(255) NOT NULL, NOME_COMPLETO VARCHAR(255) NOT NULL, 
+	POSSUI_LIVRO BOOLEAN, TIPO_DOCUMENTO VARCHAR(255), PRIMARY KEY (ID));
+CREATE TABLE TB_LIVRO (ID BIGINT NOT NULL, ESTOQUE INTEGER, ISBN VARCHAR(255), SINOPSE VARCHAR(255), SUBTITULO VARCHAR(255), TITULO VARCHAR(255), 
+	CATEGORIA_ID BIGINT, USUARIO_ID BIGINT, PRIMARY KEY (ID));
+CREATE TABLE TB_USUARIO (ID BIGINT NOT NULL, AUTOR VARCHAR(255), DATA_NASCIMENTO TIMESTAMP, PRIMARY KEY (ID));
+CREATE TABLE TB_USUARIO_LIVROS (USUARIO_ID BIGINT NOT NULL, LIVROS_ID BIGINT NOT NULL);
+
+ALTER TABLE TB_LIVRO ADD CONSTRAINT UK_LIVRO_ISBN UNIQUE (ISBN);
+ALTER TABLE TB_LIVRO ADD CONSTRAINT UK_LIVRO_TITULO UNIQUE (TITULO);
+ALTER TABLE TB_USUARIO ADD CONSTRAINT UK_USUARIO_AUTOR UNIQUE (AUTOR);
+ALTER TABLE TB_USUARIO_LIVROS ADD CONSTRAINT UK_USUARIO_LIVROS_LIVRO UNIQUE (LIVROS_ID);
+
+ALTER TABLE TB_LIVRO ADD CONSTRAINT CATEGORIA_FK FOREIGN KEY (CATEGORIA_ID) REFERENCES TB_CATEGORIA;
+ALTER TABLE TB_LIVRO ADD CONSTRAINT USUARIO_FK FOREIGN KEY (USUARIO_ID) REFERENCES TB_USUARIO;
+ALTER TABLE TB_USUARIO_LIVROS ADD CONSTRAINT FK_USUARIO_LIVROS_LIVRO FOREIGN KEY (LIVROS_ID) REFERENCES TB_LIVRO;
+ALTER TABLE TB_USUARIO_LIVROS ADD CONSTRAINT FK_USUARIO_LIVROS_USUARIO FOREIGN KEY (USUARIO_ID) REFERENCES TB_USUARIO;
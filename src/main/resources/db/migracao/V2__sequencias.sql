@@ -0,0 +1,16 @@
+-- Migração dos ids gerados por IDENTITY para as sequências usadas pelas entidades.
+-- Aplicada pelo Flyway logo depois do esquema inicial.
+-- Cada sequência continua a partir do maior id da tabela, com incremento igual ao allocationSize das entidades (50).
+-- Nos bancos antigos as colunas de id continuam com o IDENTITY, o Hibernate passa a informar o id no insert.
+
+CREATE SEQUENCE IF NOT EXISTS SQ_CATEGORIA START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE SQ_CATEGORIA RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 1 FROM TB_CATEGORIA);
+
+CREATE SEQUENCE IF NOT EXISTS SQ_USUARIO START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE SQ_USUARIO RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 1 FROM TB_USUARIO);
+
+CREATE SEQUENCE IF NOT EXISTS SQ_LIVRO START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE SQ_LIVRO RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 1 FROM TB_LIVRO);
+
+CREATE SEQUENCE IF NOT EXISTS SQ_CLIENTE START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE SQ_CLIENTE RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 1 FROM TB_CLIENTE);
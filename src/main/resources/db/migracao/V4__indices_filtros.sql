@@ -0,0 +1,22 @@
+-- Índices das colunas usadas nos filtros e nas junções. Os índices compostos seguem o ORDER BY de cada filtro, o banco percorre
+-- o índice já na ordem da página e para ao completar o limite, sem ordenar todos os registros filtrados.
+-- O ISBN, o título e o autor já possuem os índices das restrições de unicidade, e o H2 cria sozinho um índice de uma coluna
+-- para cada chave estrangeira, os índices abaixo completam com a coluna da ordenação.
+
+-- Paginação e cursor dos livros pelo título e pelo id, os dois decrescentes
+CREATE INDEX IF NOT EXISTS IX_LIVRO_TITULO_ID ON TB_LIVRO (TITULO DESC, ID DESC);
+
+-- Livros do usuário e da categoria pela chave estrangeira em ordem de id (índice da busca textual e remoção da categoria)
+CREATE INDEX IF NOT EXISTS IX_LIVRO_USUARIO_ID ON TB_LIVRO (USUARIO_ID, ID);
+CREATE INDEX IF NOT EXISTS IX_LIVRO_CATEGORIA_ID ON TB_LIVRO (CATEGORIA_ID, ID);
+
+-- Filtro das categorias dos livros pela descrição sem o % no início
+CREATE INDEX IF NOT EXISTS IX_CATEGORIA_DESCRICAO ON TB_CATEGORIA (DESCRICAO);
+
+-- Filtro e cursor dos usuários pelo período da data de nascimento, ordenados pela data de nascimento e pelo id decrescentes
+CREATE INDEX IF NOT EXISTS IX_USUARIO_DATA_NASCIMENTO_ID ON TB_USUARIO (DATA_NASCIMENTO DESC, ID DESC);
+
+-- Filtros dos clientes por igualdade, ordenados pelo id decrescente
+CREATE INDEX IF NOT EXISTS IX_CLIENTE_DOCUMENTO_ID ON TB_CLIENTE (DOCUMENTO, ID DESC);
+CREATE INDEX IF NOT EXISTS IX_CLIENTE_TIPO_DOCUMENTO_ID ON TB_CLIENTE (TIPO_DOCUMENTO, POSSUI_LIVRO, ID DESC);
+CREATE INDEX IF NOT EXISTS IX_CLIENTE_POSSUI_LIVRO_ID ON TB_CLIENTE (POSSUI_LIVRO, ID DESC);
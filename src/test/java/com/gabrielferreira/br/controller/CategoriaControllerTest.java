@@ -3,6 +3,7 @@ package com.gabrielferreira.br.controller;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -25,9 +26,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gabrielferreira.br.exception.EntidadeNotFoundException;
-import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Categoria;
-import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.CategoriaDTO;
 import com.gabrielferreira.br.service.CategoriaService;
@@ -162,11 +161,8 @@ public class CategoriaControllerTest {
 		// Cenário 
 		Categoria categoria = Categoria.builder().id(2l).descricao("Terror").build();
 				
-		// Executando o detalhe da categoria
-		when(categoriaService.getDetalhe(categoria.getId())).thenReturn(categoria);
-		
-		// Executando a lista vazia de livros associados ao categoria
-		when(livroService.livrosPorCategoriaId(anyLong())).thenReturn(new ArrayList<>());
+		// Não existe livro associado a categoria
+		when(livroService.existeLivroPorCategoriaId(anyLong())).thenReturn(false);
 				
 		// Criar uma requisição do tipo delete
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_CATEGORIAS + "/{idCategoria}",categoria.getId())
@@ -184,8 +180,8 @@ public class CategoriaControllerTest {
 		// Cenário 
 		Long idCategoria = 150L;
 				
-		// Executando o detalhe da categoria
-		when(categoriaService.getDetalhe(idCategoria)).thenThrow(new EntidadeNotFoundException("Categoria não encontrado."));
+		// O delete não encontrou a categoria
+		doThrow(new EntidadeNotFoundException("Categoria não encontrado.")).when(categoriaService).deletar(idCategoria);
 				
 		// Criar uma requisição do tipo delete
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_CATEGORIAS + "/{idCategoria}",idCategoria)
@@ -204,15 +200,8 @@ public class CategoriaControllerTest {
 		// Cenário 
 		Categoria categoria = Categoria.builder().id(2l).descricao("Terror").build();
 						
-		// Executando o detalhe da categoria
-		when(categoriaService.getDetalhe(categoria.getId())).thenReturn(categoria);
-				
-		// Executando a lista de livros associados ao categoria
-		List<Livro> livros = new ArrayList<Livro>();
-		livros.add(Livro.builder().id(1L).titulo("Teste").subtitulo("Subtitulo").sinopse("Sinopse").isbn("123321")
-				.usuario(null).categoria(categoria).build());
-		when(livroService.livrosPorCategoriaId(categoria.getId())).thenThrow(new 
-				RegraDeNegocioException("Não é possível deletar categoria pois tem livros associados !"));
+		// Existe livro associado a categoria
+		when(livroService.existeLivroPorCategoriaId(categoria.getId())).thenReturn(true);
 						
 		// Criar uma requisição do tipo delete
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_CATEGORIAS + "/{idCategoria}",categoria.getId())
@@ -295,12 +284,12 @@ public class CategoriaControllerTest {
 	}
 	
 	@Test
-	@DisplayName("Não deve obter lista de categorias (Paginação), pois não encontrou nenhum registro.")
+	@DisplayName("Deve obter a página vazia de categorias (Paginação) quando não encontrar nenhum registro.")
 	public void naoDeveMostrarListaDeCategorias() throws Exception{
 		// Cenário
 				
 		// Executando o buscar das categorias
-		when(categoriaService.mostrarCategorias()).thenThrow(new EntidadeNotFoundException("Nenhuma categoria encontrada."));
+		when(categoriaService.mostrarCategorias()).thenReturn(new ArrayList<CategoriaDTO>());
 
 		// Criar uma requisição do tipo get
 		String queryPaginacao = API_CATEGORIAS + "?pagina="+0+"&totalRegistro="+2;
@@ -311,7 +300,7 @@ public class CategoriaControllerTest {
 		// Fazendo o teste e verificando
 		mockMvc.perform(request)
 					.andDo(print())
-					.andExpect(status().isNotFound())
-					.andExpect(jsonPath("mensagem", equalTo("Nenhuma categoria encontrada.")));
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("pageList", Matchers.hasSize(0)));
 	}
 }
@@ -3,6 +3,8 @@ package com.gabrielferreira.br.controller;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -32,9 +34,12 @@ import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Cliente;
 import com.gabrielferreira.br.modelo.dto.criar.CriarClienteDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.ImportacaoClienteDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
+import com.gabrielferreira.br.modelo.enums.SituacaoImportacao;
 import com.gabrielferreira.br.modelo.enums.TipoDocumento;
 import com.gabrielferreira.br.service.ClienteService;
+import com.gabrielferreira.br.service.ImportacaoClienteService;
 
 @SpringBootTest
 @ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
@@ -50,6 +55,9 @@ public class ClienteControllerTest {
 	@MockBean // Quando o contexto subir, não pode injetar o objeto real, so com os objetos falsos
 	private ClienteService clienteService;
 	
+	@MockBean
+	private ImportacaoClienteService importacaoClienteService;
+	
 	@Test
 	@DisplayName("Deve inserir cliente com a requisição POST com todas as informações preenchidas.")
 	public void deveInserirCliente() throws Exception{
@@ -283,7 +291,7 @@ public class ClienteControllerTest {
 		Long id = 50L;
 		
 		// Mock para retornar uma exception
-		when(clienteService.getDetalhe(id)).thenThrow(new EntidadeNotFoundException("Registro não encontrado."));
+		doThrow(new EntidadeNotFoundException("Registro não encontrado.")).when(clienteService).deletar(id);
 		
 		// Criar uma requisição do tipo delete
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_CLIENTES + "/{idCliente}",id).accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE);
@@ -295,6 +303,40 @@ public class ClienteControllerTest {
 					.andExpect(jsonPath("mensagem", equalTo("Registro não encontrado.")));
 	}
 	
+	
+	@Test
+	@DisplayName("Deve deletar os clientes filtrados e retornar a quantidade removida.")
+	public void deveDeletarClientesFiltro() throws Exception{
+		// Cenário
+		when(clienteService.deletarClientesFiltro(argThat(f -> Boolean.FALSE.equals(f.getPossuiLivro()) && f.getTipoDocumentoCodigo() == 2))).thenReturn(7);
+		
+		// Criar uma requisição do tipo delete com os filtros
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_CLIENTES + "/filtro").accept(JSON_MEDIATYPE)
+				.param("possuiLivro", "false").param("tipoDocumentoCodigo", "2");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+					.andDo(print())
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("removidos", equalTo(7)));
+	}
+	
+	@Test
+	@DisplayName("Não deve deletar os clientes em lote sem informar os ids.")
+	public void naoDeveDeletarClientesLote() throws Exception{
+		// Cenário
+		when(clienteService.deletarLote(any())).thenThrow(new RegraDeNegocioException("Informe os ids dos registros que serão deletados."));
+		
+		// Criar uma requisição do tipo delete com a lista vazia
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_CLIENTES + "/lote").accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE)
+				.content("[]");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+					.andDo(print())
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("mensagem", equalTo("Informe os ids dos registros que serão deletados.")));
+	}
 	@Test
 	@DisplayName("Deve obter informações do cliente pelo ID.")
 	public void deveObterInformacao() throws Exception{
@@ -387,14 +429,14 @@ public class ClienteControllerTest {
 	}
 	
 	@Test
-	@DisplayName("Não deve mostrar clientes pois não foi encontrado nenhum.")
+	@DisplayName("Deve mostrar a página vazia de clientes quando não encontrar nenhum.")
 	public void naoDeveMostrarClientesPaginados() throws Exception{
 		// Cenário 
 		ProcurarClienteDTO procurarClienteDTO = ProcurarClienteDTO.builder().nomeCompleto("Gab")
 				.documento("76965519061").possuiLivro(true).tipoDocumentoCodigo(1).build();
 				
 		// Executando o buscar do usuários filtro
-		when(clienteService.clientesFiltros(any())).thenThrow(new EntidadeNotFoundException("Nenhum cliente encontrado."));
+		when(clienteService.clientesFiltros(any())).thenReturn(new ArrayList<ClienteDTO>());
 				
 		// Montar a query paginação
 		String queryPaginacao = API_CLIENTES + "?nomeCompleto=" + procurarClienteDTO.getNomeCompleto()
@@ -411,7 +453,45 @@ public class ClienteControllerTest {
 		// Fazendo o teste e verificando
 		mockMvc.perform(request)
 					.andDo(print())
-					.andExpect(status().isNotFound())
-					.andExpect(jsonPath("mensagem", equalTo("Nenhum cliente encontrado.")));
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("pageList", Matchers.hasSize(0)));
+	}
+	
+	@Test
+	@DisplayName("Deve importar os clientes enviando o arquivo CSV no corpo da requisição.")
+	public void deveImportarClientesCsv() throws Exception{
+		// Cenário
+		String csv = "nomeCompleto,documento,dataNascimento,possuiLivro,tipoDocumentoCodigo\nGabriel Ferreira,56853510038,26/12/1997,true,1\n";
+		ImportacaoClienteDTO importacaoClienteDTO = ImportacaoClienteDTO.builder().id("1").situacao(SituacaoImportacao.CONCLUIDA)
+				.processados(1L).inseridos(1L).rejeitados(0L).build();
+		
+		when(importacaoClienteService.importarClientes(any())).thenReturn(importacaoClienteDTO);
+		
+		// Criar requisição do tipo post
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API_CLIENTES + "/importacao").accept(JSON_MEDIATYPE)
+				.contentType("text/csv").content(csv);
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("situacao").value("CONCLUIDA"))
+				.andExpect(jsonPath("inseridos").value(1));
+	}
+	
+	@Test
+	@DisplayName("Não deve buscar o progresso de uma importação inexistente.")
+	public void naoDeveBuscarImportacao() throws Exception{
+		// Cenário
+		when(importacaoClienteService.getImportacao("inexistente")).thenThrow(new EntidadeNotFoundException("Importação não encontrada."));
+		
+		// Criar requisição do tipo get
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API_CLIENTES + "/importacao/inexistente").accept(JSON_MEDIATYPE);
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("mensagem", equalTo("Importação não encontrada.")));
 	}
 }
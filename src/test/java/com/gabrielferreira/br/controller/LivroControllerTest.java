@@ -2,15 +2,27 @@ package com.gabrielferreira.br.controller;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,9 +32,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
@@ -33,7 +49,12 @@ import com.gabrielferreira.br.modelo.Categoria;
 import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.Usuario;
 import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.LinhaLoteDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RegistrosPorIdsDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RelatorioLoteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
 import com.gabrielferreira.br.service.LivroService;
@@ -370,7 +391,7 @@ public class LivroControllerTest {
 		Long idLivro = 150L;
 		
 		// Executando o deletar do livro
-		when(livroService.getDetalhe(idLivro)).thenThrow(new EntidadeNotFoundException("Livro não encontrado."));
+		doThrow(new EntidadeNotFoundException("Livro não encontrado.")).when(livroService).deletar(idLivro);
 		
 		// Criar uma requisição do tipo delete
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_LIVROS + "/{idLivro}",idLivro).accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE);
@@ -383,6 +404,101 @@ public class LivroControllerTest {
 						
 	}
 	
+	
+	@Test
+	@DisplayName("Deve deletar os livros dos ids informados e retornar a quantidade removida.")
+	public void deveDeletarLivrosLote() throws Exception {
+		// Cenário, um dos ids não existe
+		List<Long> idsLivros = Arrays.asList(1L, 2L, 3L);
+		when(livroService.deletarLote(idsLivros)).thenReturn(2);
+		
+		// Criar uma requisição do tipo delete com os ids no corpo
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_LIVROS + "/lote").accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE)
+				.content(new ObjectMapper().writeValueAsString(idsLivros));
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("removidos", equalTo(2)));
+	}
+	
+	@Test
+	@DisplayName("Deve deletar os livros filtrados e retornar a quantidade removida.")
+	public void deveDeletarLivrosFiltro() throws Exception {
+		// Cenário
+		when(livroService.deletarLivrosFiltro(argThat(f -> "Teste".equals(f.getTitulo()) && "Gabriel".equals(f.getUsuarioNome())))).thenReturn(3);
+		
+		// Criar uma requisição do tipo delete com os filtros
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_LIVROS + "/filtro").accept(JSON_MEDIATYPE)
+				.param("titulo", "Teste").param("autor", "Gabriel");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("removidos", equalTo(3)));
+	}
+	
+	@Test
+	@DisplayName("Deve obter os livros dos ids informados e os ids não encontrados.")
+	public void deveObterInformacaoLivrosPorIds() throws Exception {
+		// Cenário
+		LivroDTO livroDTO = LivroDTO.builder().id(1L).titulo("Teste Livro Gabriel").isbn("001").build();
+		RegistrosPorIdsDTO<LivroDTO> registrosPorIds = new RegistrosPorIdsDTO<LivroDTO>(Arrays.asList(livroDTO), Arrays.asList(7L));
+		when(livroService.<LivroDTO>getRegistrosPorIds(eq(Arrays.asList(1L, 7L)), any(), any())).thenReturn(registrosPorIds);
+		
+		// Criar uma requisição do tipo get com os ids
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API_LIVROS).accept(JSON_MEDIATYPE).param("ids", "1,7");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("registros[0].titulo", equalTo("Teste Livro Gabriel")))
+				.andExpect(jsonPath("naoEncontrados[0]", equalTo(7)));
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros pelo texto na ordem de relevância.")
+	public void deveBuscarLivrosTexto() throws Exception {
+		// Cenário
+		LivroDTO primeiro = LivroDTO.builder().id(2L).titulo("Dom Casmurro").isbn("002").build();
+		LivroDTO segundo = LivroDTO.builder().id(1L).titulo("Memórias Póstumas").isbn("001").build();
+		when(livroService.buscarLivrosTexto("casmurro", 5)).thenReturn(Arrays.asList(primeiro, segundo));
+		
+		// Criar uma requisição do tipo get com o texto da busca
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API_LIVROS.concat("/busca")).accept(JSON_MEDIATYPE)
+				.param("texto", "casmurro").param("totalRegistro", "5");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", Matchers.hasSize(2)))
+				.andExpect(jsonPath("[0].titulo", equalTo("Dom Casmurro")))
+				.andExpect(jsonPath("[1].id", equalTo(1)));
+	}
+	
+	@Test
+	@DisplayName("Deve sugerir os títulos que começam com o prefixo informado.")
+	public void deveAutocompletarTitulos() throws Exception {
+		// Cenário
+		when(livroService.autocompletarTitulos("dom", 5)).thenReturn(Arrays.asList(new SugestaoDTO(2L, "Dom Casmurro"), new SugestaoDTO(7L, "Dom Quixote")));
+		
+		// Criar uma requisição do tipo get com o prefixo digitado
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API_LIVROS.concat("/autocompletar")).accept(JSON_MEDIATYPE)
+				.param("prefixo", "dom").param("total", "5");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", Matchers.hasSize(2)))
+				.andExpect(jsonPath("[0].texto", equalTo("Dom Casmurro")))
+				.andExpect(jsonPath("[1].id", equalTo(7)));
+	}
+	
 	@Test
 	@DisplayName("Deve atualizar o livro pelo id informado e campos encontrado.")
 	public void deveAtualizarLivro() throws Exception{
@@ -477,8 +593,8 @@ public class LivroControllerTest {
 				.build());
 		
 		// Executando o buscar do livros filtro com o mock de cima
-		when(livroService.buscarLivrosPaginadas(any(ProcurarLivroDTO.class)))
-				.thenReturn(livros);
+		when(livroService.buscarLivrosPaginadas(any(ProcurarLivroDTO.class), any(Pageable.class)))
+				.thenReturn(new PageImpl<>(livros, PageRequest.of(0, 1), 3));
 
 		// Criar uma requisição do tipo get
 		String queryPaginacao = API_LIVROS + "/filtro?titulo=" + procurarLivroDTO.getTitulo() + "&isbn="
@@ -493,23 +609,159 @@ public class LivroControllerTest {
 		mockMvc.perform(request)
 			.andDo(print())
 			.andExpect(status().isOk())
-			.andExpect(jsonPath("source",Matchers.hasSize(1))) // Total de registros que foi buscado sem filtro
-			.andExpect(jsonPath("pageSize").value(1)) // Quantidade de registro com o filtro
-			.andExpect(jsonPath("pageList",Matchers.hasSize(1))) // Total de registro que foi buscado com filtro
-			.andExpect(jsonPath("page").value(0)); // Página que foi informado no parametro
+			.andExpect(jsonPath("totalElements").value(3)) // Total de registros que foi buscado sem filtro
+			.andExpect(jsonPath("size").value(1)) // Quantidade de registro com o filtro
+			.andExpect(jsonPath("content",Matchers.hasSize(1))) // Total de registro que foi buscado com filtro
+			.andExpect(jsonPath("number").value(0)); // Página que foi informado no parametro
 			
 	}
 	
 	@Test
-	@DisplayName("Não deve buscar livros com parâmetros de paginação pois não encontrou nenhum registro.")
+	@DisplayName("Deve buscar livros com paginação por cursor.")
+	public void deveBuscarLivrosCursor() throws Exception{
+		// Cenário
+		List<LivroDTO> livros = new ArrayList<LivroDTO>();
+		livros.add(LivroDTO.builder().id(1L).titulo("Teste").subtitulo("Subtitulo").sinopse("Sinopse").isbn("123321")
+				.usuarioDto(UsuarioDTO.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build())
+				.build());
+		PaginaCursorDTO<LivroDTO> paginaCursor = new PaginaCursorDTO<LivroDTO>(livros, 1, "MjpUZXN0ZQ");
+		
+		// Executando o buscar do livros por cursor
+		when(livroService.buscarLivrosCursor(any(ProcurarLivroDTO.class), eq("MzpUZXN0ZQ"), eq(1)))
+				.thenReturn(paginaCursor);
+
+		// Criar uma requisição do tipo get
+		String queryPaginacao = API_LIVROS + "/filtro/cursor?titulo=Teste&cursor=MzpUZXN0ZQ&totalRegistro=1";
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(queryPaginacao).accept(JSON_MEDIATYPE)
+				.contentType(JSON_MEDIATYPE);
+
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+			.andDo(print())
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("conteudo",Matchers.hasSize(1)))
+			.andExpect(jsonPath("totalRegistro").value(1))
+			.andExpect(jsonPath("proximo").value("MjpUZXN0ZQ"));
+	}
+	
+	@Test
+	@DisplayName("Deve exportar os livros filtrados com um livro em JSON por linha.")
+	@SuppressWarnings("unchecked")
+	public void deveExportarLivros() throws Exception{
+		// Cenário
+		LivroDTO livro1 = LivroDTO.builder().id(1L).titulo("Teste 1").isbn("123321").build();
+		LivroDTO livro2 = LivroDTO.builder().id(2L).titulo("Teste 2").isbn("456654").build();
+		
+		// Executando a exportação, entregando os livros um a um
+		doAnswer(invocation -> {
+			Consumer<LivroDTO> consumidor = invocation.getArgument(1);
+			consumidor.accept(livro1);
+			consumidor.accept(livro2);
+			return null;
+		}).when(livroService).exportarLivros(any(ProcurarLivroDTO.class), any(Consumer.class));
+		
+		// Criar uma requisição do tipo get
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API_LIVROS + "/export?titulo=Teste");
+		
+		MvcResult resultado = mockMvc.perform(request)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		// Fazendo o teste e verificando
+		ObjectMapper objectMapper = new ObjectMapper();
+		mockMvc.perform(asyncDispatch(resultado))
+			.andDo(print())
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("application/x-ndjson"))
+			.andExpect(content().string(objectMapper.writeValueAsString(livro1) + "\n" + objectMapper.writeValueAsString(livro2) + "\n"));
+	}
+	
+	@Test
+	@DisplayName("Deve inserir o lote de livros em JSON por linha e retornar o relatório.")
+	@SuppressWarnings("unchecked")
+	public void deveInserirLoteLivrosNdjson() throws Exception{
+		
+		// Cenário
+		ObjectMapper objectMapper = new ObjectMapper();
+		CriarLivroDTO livro1 = CriarLivroDTO.builder().idUsuario(1L).idCategoria(2L).isbn("001").titulo("Teste Livro").estoque(1).build();
+		CriarLivroDTO livro2 = CriarLivroDTO.builder().idUsuario(1L).idCategoria(2L).isbn("001").titulo("Outro Livro").estoque(1).build();
+		
+		List<LinhaLoteDTO> linhas = new ArrayList<LinhaLoteDTO>();
+		linhas.add(LinhaLoteDTO.builder().linha(1).id(22L).sucesso(true).build());
+		linhas.add(LinhaLoteDTO.builder().linha(2).sucesso(false).mensagem("Este ISBN já foi cadastrado por outro livro.").build());
+		
+		when(livroService.inserirLote(any(Iterator.class))).thenAnswer(invocation -> {
+			Iterator<CriarLivroDTO> livros = invocation.getArgument(0);
+			List<String> isbns = new ArrayList<String>();
+			livros.forEachRemaining(l -> isbns.add(l.getIsbn()));
+			return isbns.size() == 2 ? new RelatorioLoteDTO(linhas) : null;
+		});
+		
+		// Linhas em branco são ignoradas
+		String ndjson = objectMapper.writeValueAsString(livro1) + "\n\n" + objectMapper.writeValueAsString(livro2) + "\n";
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API_LIVROS + "/lote").accept(JSON_MEDIATYPE)
+				.contentType("application/x-ndjson").content(ndjson);
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+			.andDo(print())
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("total").value(2))
+			.andExpect(jsonPath("inseridos").value(1))
+			.andExpect(jsonPath("erros").value(1))
+			.andExpect(jsonPath("linhas[0].id").value(22))
+			.andExpect(jsonPath("linhas[1].mensagem").value("Este ISBN já foi cadastrado por outro livro."));
+	}
+	
+	@Test
+	@DisplayName("Não deve inserir o lote de livros quando uma linha não é um JSON válido.")
+	public void naoDeveInserirLoteLivrosNdjsonInvalido() throws Exception{
+		
+		// Cenário, as linhas são lidas conforme o service pede os registros
+		when(livroService.inserirLote(any(Iterator.class))).thenAnswer(invocation -> {
+			invocation.<Iterator<CriarLivroDTO>>getArgument(0).forEachRemaining(l -> {});
+			return new RelatorioLoteDTO(new ArrayList<LinhaLoteDTO>());
+		});
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API_LIVROS + "/lote").accept(JSON_MEDIATYPE)
+				.contentType("application/x-ndjson").content("{\"isbn\":\"001\"}\n{isbn");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+			.andDo(print())
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("mensagem", equalTo("Linha 2 do lote não é um JSON válido.")));
+	}
+	
+	@Test
+	@DisplayName("Deve inserir o lote de livros enviado como array JSON.")
+	public void deveInserirLoteLivrosJson() throws Exception{
+		
+		// Cenário
+		CriarLivroDTO livro1 = CriarLivroDTO.builder().idUsuario(1L).idCategoria(2L).isbn("001").titulo("Teste Livro").estoque(1).build();
+		when(livroService.inserirLote(any(List.class))).thenReturn(new RelatorioLoteDTO(List.of(LinhaLoteDTO.builder().linha(1).id(22L).sucesso(true).build())));
+		
+		String json = new ObjectMapper().writeValueAsString(List.of(livro1));
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API_LIVROS + "/lote").accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE).content(json);
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+			.andDo(print())
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("inseridos").value(1))
+			.andExpect(jsonPath("linhas[0].sucesso").value(true));
+	}
+	
+	@Test
+	@DisplayName("Deve buscar a página vazia de livros com parâmetros de paginação quando não encontrar nenhum registro.")
 	public void naoDeveBuscarLivrosPaginacao() throws Exception{
 		// Cenário 
 		ProcurarLivroDTO procurarLivroDTO = ProcurarLivroDTO.builder().titulo("Teste").isbn("123321").usuarioNome("Gab")
 				.build();
 						
 		// Executando o buscar do livros filtro
-		when(livroService.buscarLivrosPaginadas(any(ProcurarLivroDTO.class)))
-			.thenThrow(new RegraDeNegocioException("Nenhum livro encontrado."));
+		when(livroService.buscarLivrosPaginadas(any(ProcurarLivroDTO.class), any(Pageable.class)))
+			.thenReturn(new PageImpl<LivroDTO>(new ArrayList<LivroDTO>(), PageRequest.of(0, 5), 0));
 						
 		// Criar uma requisição do tipo get
 		String queryPaginacao = API_LIVROS + "/filtro?titulo="+procurarLivroDTO.getTitulo()+"&isbn="+procurarLivroDTO.getIsbn()
@@ -517,11 +769,29 @@ public class LivroControllerTest {
 					
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(queryPaginacao).accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE);
 						
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("content", Matchers.hasSize(0)))
+				.andExpect(jsonPath("totalElements").value(0));
+	}
+	
+	@Test
+	@DisplayName("Não deve buscar livros paginados com página negativa ou total de registros zero.")
+	public void naoDeveBuscarLivrosPaginacaoInvalida() throws Exception{
+		// Cenário
+		String queryPaginacao = API_LIVROS + "/filtro?titulo=Teste&pagina=-1&totalRegistro=0";
+		
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(queryPaginacao).accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE);
+		
 		// Fazendo o teste e verificando
 		mockMvc.perform(request)
 				.andDo(print())
 				.andExpect(status().isBadRequest())
-				.andExpect(jsonPath("mensagem", equalTo("Nenhum livro encontrado.")));
+				.andExpect(jsonPath("mensagem", equalTo("Campos inválidos.")))
+				.andExpect(jsonPath("campos", Matchers.hasSize(2)));
+		verify(livroService, never()).buscarLivrosPaginadas(any(ProcurarLivroDTO.class), any(Pageable.class));
 	}
 	
 }
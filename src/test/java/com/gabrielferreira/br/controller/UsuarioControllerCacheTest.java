@@ -0,0 +1,73 @@
+package com.gabrielferreira.br.controller;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.service.FiltroBloomService;
+
+@SpringBootTest
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+@AutoConfigureMockMvc // Configuração do teste para configurar os objetos
+public class UsuarioControllerCacheTest {
+	
+	private static String API_USUARIO = "/api/usuarios";
+	private static MediaType JSON_MEDIATYPE = MediaType.APPLICATION_JSON;
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private UsuarioRepositorio usuarioRepositorio;
+	
+	@MockBean // O filtro falso diz que nenhum autor existe, assim a verificação não consulta o banco e o autor repetido chega no índice único
+	private FiltroBloomService filtroBloomService;
+	
+	@Test
+	@DisplayName("Deve buscar o autor gravado no banco depois de uma atualização com autor repetido que voltou no rollback.")
+	public void deveBuscarAutorOriginalDepoisDeAtualizacaoComAutorRepetido() throws Exception {
+		
+		// Cenário
+		Usuario usuario = usuarioRepositorio.save(Usuario.builder().autor("Autor Original Cache").dataNascimento(new Date()).build());
+		Usuario outroUsuario = usuarioRepositorio.save(Usuario.builder().autor("Autor Repetido Cache").dataNascimento(new Date()).build());
+		
+		CriarUsuarioDTO criarUsuarioDTO = CriarUsuarioDTO.builder().autor(outroUsuario.getAutor()).dataNascimento(new Date()).build();
+		String json = new ObjectMapper().writeValueAsString(criarUsuarioDTO);
+		MockHttpServletRequestBuilder requestAtualizar = MockMvcRequestBuilders.put(API_USUARIO + "/" + usuario.getId())
+				.accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE).content(json);
+		MockHttpServletRequestBuilder requestBuscar = MockMvcRequestBuilders.get(API_USUARIO + "/" + usuario.getId()).accept(JSON_MEDIATYPE);
+		
+		// Executando e verificando, a atualização falha no índice único do autor
+		mockMvc.perform(requestAtualizar)
+			.andDo(print())
+			.andExpect(status().isBadRequest());
+		
+		// O cache do getDetalhe não pode devolver o autor que não foi gravado
+		mockMvc.perform(requestBuscar)
+			.andDo(print())
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("autor").value("Autor Original Cache"));
+		
+		usuarioRepositorio.deleteAllById(List.of(usuario.getId(), outroUsuario.getId()));
+	}
+
+}
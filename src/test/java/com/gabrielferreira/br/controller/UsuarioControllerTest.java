@@ -1,6 +1,7 @@
 package com.gabrielferreira.br.controller;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -9,6 +10,7 @@ import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -31,6 +33,7 @@ import com.gabrielferreira.br.exception.EntidadeNotFoundException;
 import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Usuario;
 import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarUsuarioDTO;
 import com.gabrielferreira.br.service.UsuarioService;
@@ -236,6 +239,25 @@ public class UsuarioControllerTest {
 				.andExpect(jsonPath("mensagem", equalTo("Autor já existente ao atualizar.")));
 	}
 	
+	@Test
+	@DisplayName("Deve sugerir os autores que começam com o prefixo informado.")
+	public void deveAutocompletarAutores() throws Exception {
+		// Cenário
+		when(usuarioService.autocompletarAutores("jose", 10)).thenReturn(Arrays.asList(new SugestaoDTO(3L, "José de Alencar")));
+		
+		// Criar uma requisição do tipo get com o prefixo digitado, sem o total vale o padrão
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API_USUARIO + "/autocompletar").accept(JSON_MEDIATYPE)
+				.param("prefixo", "jose");
+		
+		// Fazendo o teste e verificando
+		mockMvc.perform(request)
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", Matchers.hasSize(1)))
+				.andExpect(jsonPath("[0].id", equalTo(3)))
+				.andExpect(jsonPath("[0].texto", equalTo("José de Alencar")));
+	}
+	
 	@Test
 	@DisplayName("Deve buscar o usuário com o id informado.")
 	public void deveBuscarUsuario() throws Exception {
@@ -284,7 +306,7 @@ public class UsuarioControllerTest {
 		Long idUsuario = 150L;
 		
 		// Executando o deletar do usuário
-		when(usuarioService.getDetalhe(idUsuario)).thenThrow(new EntidadeNotFoundException("Usuário não encontrado."));
+		doThrow(new EntidadeNotFoundException("Usuário não encontrado.")).when(usuarioService).deletar(idUsuario);
 		
 		// Criar uma requisição do tipo delete
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.delete(API_USUARIO + "/{idUsuario}",idUsuario).accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE);
@@ -323,13 +345,13 @@ public class UsuarioControllerTest {
 	}
 	
 	@Test
-	@DisplayName("Não deve buscar o usuários, pois nenhum foi cadastrado.")
+	@DisplayName("Deve buscar a lista vazia de usuários quando nenhum foi cadastrado.")
 	public void naoDeveBuscarUsuarios() throws Exception {
 		
 		// Cenário
 
 		// Executando o buscar do usuário
-		when(usuarioService.mostrarUsuarios()).thenThrow(new EntidadeNotFoundException("Nenhum usuário encontrado."));
+		when(usuarioService.mostrarUsuarios()).thenReturn(new ArrayList<UsuarioDTO>());
 
 		// Criar uma requisição do tipo get
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API_USUARIO).accept(JSON_MEDIATYPE).contentType(JSON_MEDIATYPE);
@@ -337,8 +359,8 @@ public class UsuarioControllerTest {
 		// Fazendo o teste e verificando
 		mockMvc.perform(request)
 				.andDo(print())
-				.andExpect(status().isNotFound())
-				.andExpect(jsonPath("mensagem", equalTo("Nenhum usuário encontrado.")));
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", Matchers.hasSize(0)));
 	}
 	
 	@Test
@@ -389,7 +411,7 @@ public class UsuarioControllerTest {
 				.build();
 		
 		// Executando o buscar do usuários filtro
-		when(usuarioService.filtroUsuarios(any(ProcurarUsuarioDTO.class))).thenThrow(new EntidadeNotFoundException("Nenhum usuário encontrado."));
+		when(usuarioService.filtroUsuarios(any(ProcurarUsuarioDTO.class))).thenReturn(new ArrayList<UsuarioDTO>());
 		
 		// Criar uma requisição do tipo get
 		String queryPaginacao = API_USUARIO + "/filtro?autor="+procurarUsuarioDTO.getAutor()+"&dataNascimentoInicio="+sdf.format(procurarUsuarioDTO.getDataNascimentoInicio())
@@ -400,8 +422,8 @@ public class UsuarioControllerTest {
 		// Fazendo o teste e verificando
 		mockMvc.perform(request)
 				.andDo(print())
-				.andExpect(status().isNotFound())
-				.andExpect(jsonPath("mensagem", equalTo("Nenhum usuário encontrado.")));
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("pageList", Matchers.hasSize(0)));
 	}
 	
 	@Test
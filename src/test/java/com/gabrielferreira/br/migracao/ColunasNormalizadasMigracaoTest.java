@@ -0,0 +1,71 @@
+package com.gabrielferreira.br.migracao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
+
+public class ColunasNormalizadasMigracaoTest {
+	
+	// Banco próprio do teste, separado do banco da aplicação que já está com todas as migrações
+	private static final String URL = "jdbc:h2:mem:migracaoColunasNormalizadas;DB_CLOSE_DELAY=-1";
+	
+	@Test
+	@DisplayName("Deve preencher as colunas normalizadas dos registros que já existiam e deixar as colunas obrigatórias.")
+	public void devePreencherColunasNormalizadas() throws SQLException {
+		
+		// Cenário, o banco com os registros antes da V3
+		migrar("2");
+		try(Connection connection = DriverManager.getConnection(URL, "sa", ""); Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO TB_CLIENTE (ID, DATA_NASCIMENTO, DOCUMENTO, NOME_COMPLETO) VALUES (1, CURRENT_DATE, '123', '  Ŝtefan   Ăndrei ')");
+			statement.execute("INSERT INTO TB_USUARIO (ID, AUTOR) VALUES (1, 'José Łukasz Ñandú')");
+			statement.execute("INSERT INTO TB_USUARIO (ID, AUTOR) VALUES (2, NULL)");
+			
+			// Executando
+			migrar(null);
+			
+			// Verificando
+			assertThat(getValor(statement, "SELECT NOME_COMPLETO_NORMALIZADO FROM TB_CLIENTE WHERE ID = 1")).isEqualTo("stefan andrei");
+			assertThat(getValor(statement, "SELECT AUTOR_NORMALIZADO FROM TB_USUARIO WHERE ID = 1")).isEqualTo("jose lukasz nandu");
+			assertThat(getValor(statement, "SELECT AUTOR_NORMALIZADO FROM TB_USUARIO WHERE ID = 2")).isEmpty();
+			assertThat(getValor(statement, "SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'TB_CLIENTE' "
+					+ "AND COLUMN_NAME = 'NOME_COMPLETO_NORMALIZADO'")).isEqualTo("NO");
+			assertThat(getValor(statement, "SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'TB_USUARIO' "
+					+ "AND COLUMN_NAME = 'AUTOR_NORMALIZADO'")).isEqualTo("NO");
+		}
+	}
+	
+	@Test
+	@DisplayName("Deve normalizar na migração igual a normalização atual da aplicação.")
+	public void deveNormalizarIgualAplicacao() {
+		for(String texto : new String[] {"João  da Silva", " Cecília Meireles ", "Ŝtefan\tĂndrei", "Łódź", "ÇÃO"}) {
+			assertThat(V3__Colunas_normalizadas.getTextoNormalizado(texto)).isEqualTo(ValidacaoFormatacao.getTextoNormalizado(texto));
+		}
+	}
+	
+	// Sem versão alvo aplica todas as migrações
+	private void migrar(String versao) {
+		Flyway flyway = Flyway.configure().dataSource(URL, "sa", "")
+				.locations("classpath:db/migracao", "classpath:com/gabrielferreira/br/migracao")
+				.target(versao != null ? versao : "latest")
+				.load();
+		flyway.migrate();
+	}
+	
+	private String getValor(Statement statement, String consulta) throws SQLException {
+		try(ResultSet resultSet = statement.executeQuery(consulta)) {
+			resultSet.next();
+			return resultSet.getString(1);
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.gabrielferreira.br.repositorio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+
+@ExtendWith(SpringExtension.class) // O Spring deve rodar um mini contexto de injeção de dependecia para rodar os testes
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+@DataJpaTest // Indicar que vai fazer teste com jpa, vai criar uma instancia no banco de dados em memoria e apenas testar e depois apagar essa instancia
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // O cache de segundo nível só recebe os registros depois do commit, cada operação roda na sua transação
+public class CategoriaRepositorioTest {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	@Autowired
+	private CategoriaRepositorio categoriaRepositorio;
+	
+	@Autowired
+	private UsuarioRepositorio usuarioRepositorio;
+	
+	@Autowired
+	private LivroRepositorio livroRepositorio;
+	
+	private Categoria categoria;
+	
+	private Usuario usuario;
+	
+	@BeforeEach
+	public void criarInstancias() {
+		categoria = categoriaRepositorio.save(Categoria.builder().id(null).descricao("Aventuras").build());
+		usuario = usuarioRepositorio.save(Usuario.builder().id(null).autor("Gabriel Ferreira").dataNascimento(new Date()).build());
+		livroRepositorio.save(Livro.builder().id(null).usuario(usuario).categoria(categoria).isbn("001").titulo("Teste Livro").build());
+		livroRepositorio.save(Livro.builder().id(null).usuario(usuario).categoria(categoria).isbn("002").titulo("Teste Livro 2").build());
+		entityManagerFactory.getCache().evictAll();
+	}
+	
+	@AfterEach
+	public void limparRegistros() {
+		livroRepositorio.deleteAll();
+		usuarioRepositorio.deleteAll();
+		categoriaRepositorio.deleteAll();
+	}
+	
+	@Test
+	@DisplayName("Deve buscar a categoria e o usuário no banco somente na primeira vez, depois vem do cache de segundo nível.")
+	public void deveBuscarCategoriaEUsuarioDoCacheDeSegundoNivel() {
+		// Cenário
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando, cada busca abre um novo contexto de persistência
+		categoriaRepositorio.findById(categoria.getId());
+		usuarioRepositorio.findById(usuario.getId());
+		Categoria categoriaCache = categoriaRepositorio.findById(categoria.getId()).get();
+		Usuario usuarioCache = usuarioRepositorio.findById(usuario.getId()).get();
+		
+		// Verificando
+		assertThat(categoriaCache.getDescricao()).isEqualTo("Aventuras");
+		assertThat(usuarioCache.getAutor()).isEqualTo("Gabriel Ferreira");
+		assertThat(statistics.getDomainDataRegionStatistics(Categoria.class.getName()).getHitCount()).isEqualTo(1);
+		assertThat(statistics.getDomainDataRegionStatistics(Usuario.class.getName()).getHitCount()).isEqualTo(1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros da categoria pela coleção em cache.")
+	public void deveBuscarLivrosDaCategoriaDoCacheDeColecao() {
+		// Cenário
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		Integer primeiraBusca = totalLivrosDaCategoria();
+		Integer segundaBusca = totalLivrosDaCategoria();
+		
+		// Verificando
+		assertThat(primeiraBusca).isEqualTo(2);
+		assertThat(segundaBusca).isEqualTo(2);
+		assertThat(statistics.getCollectionStatistics(Categoria.class.getName() + ".livros").getCacheHitCount()).isEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros da categoria com o livro inserido depois da primeira busca.")
+	public void deveBuscarLivrosDaCategoriaAtualizados() {
+		// Cenário
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		Integer primeiraBusca = totalLivrosDaCategoria();
+		livroRepositorio.save(Livro.builder().id(null).usuario(usuario).categoria(categoria).isbn("003").titulo("Teste Livro 3").build());
+		Integer segundaBusca = totalLivrosDaCategoria();
+		
+		// Verificando, o livro novo tira do cache a coleção da categoria, que é o lado inverso do Livro.categoria
+		assertThat(primeiraBusca).isEqualTo(2);
+		assertThat(segundaBusca).isEqualTo(3);
+		assertThat(statistics.getCollectionStatistics(Categoria.class.getName() + ".livros").getCacheHitCount()).isZero();
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros por categoria do cache de consulta até algum livro ser alterado.")
+	public void deveBuscarLivrosPorCategoriaDoCacheDeConsulta() {
+		// Cenário
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		livroRepositorio.findLivrosByCategoriaId(categoria.getId());
+		List<Livro> livrosCache = livroRepositorio.findLivrosByCategoriaId(categoria.getId());
+		
+		// Verificando
+		assertThat(livrosCache).hasSize(2);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		
+		// Inserindo um livro novo, a consulta precisa ir até o banco de novo
+		livroRepositorio.save(Livro.builder().id(null).usuario(usuario).categoria(categoria).isbn("003").titulo("Teste Livro 3").build());
+		List<Livro> livrosAtualizados = livroRepositorio.findLivrosByCategoriaId(categoria.getId());
+		
+		assertThat(livrosAtualizados).hasSize(3);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+	}
+	
+	private Integer totalLivrosDaCategoria() {
+		return transactionTemplate.execute(status -> categoriaRepositorio.findById(categoria.getId()).get().getLivros().size());
+	}
+	
+	private Statistics iniciarEstatisticas() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		return statistics;
+	}
+	
+}
@@ -3,22 +3,37 @@ package com.gabrielferreira.br.repositorio;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.gabrielferreira.br.modelo.Categoria;
 import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
+import com.gabrielferreira.br.service.AutocompletarService;
+import com.gabrielferreira.br.service.BuscaLivroService;
+import com.gabrielferreira.br.service.FiltroBloomService;
+import com.gabrielferreira.br.service.IndiceTrigramasService;
+import com.gabrielferreira.br.service.LivroService;
 
 @ExtendWith(SpringExtension.class) // O Spring deve rodar um mini contexto de injeção de dependecia para rodar os testes
 @ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
@@ -99,6 +114,46 @@ public class LivroRepositorioTest {
 		assertThat(!livroPesquisadoDepoisDeletar.isPresent()).isTrue();
 	}
 	
+	@Test
+	@DisplayName("Deve deletar o livro com um único delete, sem buscar o livro antes.")
+	public void deveDeletarLivroPorId() {
+		// Cenário 
+		usuario = Usuario.builder().id(null).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		entityManager.persist(usuario);
+		livro = Livro.builder().id(null).usuario(usuario).isbn("001").titulo("Teste Livro").subtitulo("Teste teste").sinopse("Teste sinopse").build();
+		entityManager.persistAndFlush(livro);
+		entityManager.clear();
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando, o segundo delete não encontra mais o livro
+		int removidosPrimeiroDelete = livroRepositorio.deletarPorId(livro.getId());
+		int removidosSegundoDelete = livroRepositorio.deletarPorId(livro.getId());
+		
+		// Verificando, nenhum select foi feito para deletar
+		assertThat(removidosPrimeiroDelete).isEqualTo(1);
+		assertThat(removidosSegundoDelete).isZero();
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(livroRepositorio.findById(livro.getId())).isNotPresent();
+	}
+	
+	@Test
+	@DisplayName("Deve verificar se existe livro na categoria informada.")
+	public void deveVerificarLivroPorCategoria() {
+		// Cenário 
+		categoria = Categoria.builder().id(null).descricao("Terror").build();
+		Categoria categoriaSemLivro = Categoria.builder().id(null).descricao("Comédia").build();
+		entityManager.persist(categoria);
+		entityManager.persist(categoriaSemLivro);
+		usuario = Usuario.builder().id(null).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		entityManager.persist(usuario);
+		livro = Livro.builder().id(null).usuario(usuario).categoria(categoria).isbn("001").titulo("Teste Livro").subtitulo("Teste teste").sinopse("Teste sinopse").build();
+		entityManager.persistAndFlush(livro);
+		
+		// Executando e verificando
+		assertThat(livroRepositorio.existsByCategoriaId(categoria.getId())).isTrue();
+		assertThat(livroRepositorio.existsByCategoriaId(categoriaSemLivro.getId())).isFalse();
+	}
+	
 	@Test
 	@DisplayName("Deve atualizar ou inserir o livro pelo id informado.")
 	public void deveAtualizarOuInserirLivro() {
@@ -147,10 +202,10 @@ public class LivroRepositorioTest {
 		entityManager.persist(livro);
 		
 		// Executando
-		Livro livroPesquisado = livroRepositorio.buscarIsbnLivro(livro.getIsbn());
+		Boolean existeIsbn = livroRepositorio.existsByIsbn(livro.getIsbn());
 		
 		// Verificando
-		assertNotNull(livroPesquisado);
+		assertThat(existeIsbn).isTrue();
 	}
 	
 	@Test
@@ -175,16 +230,17 @@ public class LivroRepositorioTest {
 		
 		// Persistindo na base do livro
 		entityManager.persist(livro);
-		entityManager.persist(livro2);
+		entityManager.persistAndFlush(livro2);
 		
-		// Voce quer atualizar o livro2, porém quer colocar o isbn igual ao livro (001)
+		// Voce quer atualizar o livro2, porém quer colocar o isbn igual ao livro (001), a alteração não vai para o banco antes da verificação
+		entityManager.detach(livro2);
 		livro2.setIsbn("001");
 		
 		// Executando
-		Livro livroPesquisado = livroRepositorio.buscarIsbnLivroQuandoForAtualizar(livro2.getIsbn(),livro2.getId());
+		Boolean existeIsbn = livroRepositorio.existsByIsbnAndIdNot(livro2.getIsbn(),livro2.getId());
 		
 		// Verificando
-		assertNotNull(livroPesquisado);
+		assertThat(existeIsbn).isTrue();
 	}
 	
 	@Test
@@ -195,10 +251,10 @@ public class LivroRepositorioTest {
 		livro = Livro.builder().id(null).usuario(usuario).isbn("001").titulo("Teste Livro").subtitulo("Teste teste").sinopse("Teste sinopse").build();
 		
 		// Executando
-		Livro livroPesquisado = livroRepositorio.buscarIsbnLivro(livro.getIsbn());
+		Boolean existeIsbn = livroRepositorio.existsByIsbn(livro.getIsbn());
 		
 		// Verificando
-		assertThat(livroPesquisado).isNull();
+		assertThat(existeIsbn).isFalse();
 	}
 	
 	@Test
@@ -210,10 +266,10 @@ public class LivroRepositorioTest {
 		livro = Livro.builder().id(1L).usuario(usuario).isbn("001").titulo("Teste Livro").subtitulo("Teste teste").sinopse("Teste sinopse").build();
 		
 		// Executando
-		Livro livroPesquisado = livroRepositorio.buscarIsbnLivroQuandoForAtualizar(livro.getIsbn(),livro.getId());
+		Boolean existeIsbn = livroRepositorio.existsByIsbnAndIdNot(livro.getIsbn(),livro.getId());
 		
 		// Verificando
-		assertThat(livroPesquisado).isNull();	
+		assertThat(existeIsbn).isFalse();	
 	}
 	
 	@Test
@@ -263,16 +319,17 @@ public class LivroRepositorioTest {
 		
 		// Persistindo na base do livro
 		entityManager.persist(livro);
-		entityManager.persist(livro2);
+		entityManager.persistAndFlush(livro2);
 		
 		// Voce quer atualizar o livro2, porém quer colocar o nome igual ao livro (Teste Livro)
-		livro2.setIsbn("Teste Livro");
+		entityManager.detach(livro2);
+		livro2.setTitulo("Teste Livro");
 		
 		// Executando
-		Optional<Livro> livroPesquisado = livroRepositorio.existsByTituloQuandoForAtualizar(livro2.getTitulo(),livro2.getId());
+		Boolean existeTitulo = livroRepositorio.existsByTituloAndIdNot(livro2.getTitulo(),livro2.getId());
 		
 		// Verificando
-		assertNotNull(livroPesquisado);
+		assertThat(existeTitulo).isTrue();
 	}
 	
 	@Test
@@ -284,10 +341,10 @@ public class LivroRepositorioTest {
 		livro = Livro.builder().id(1L).usuario(usuario).isbn("001").titulo("Teste Livro").subtitulo("Teste teste").sinopse("Teste sinopse").build();
 		
 		// Executando
-		Optional<Livro> livroPesquisado = livroRepositorio.existsByTituloQuandoForAtualizar(livro.getTitulo(),livro.getId());
+		Boolean existeTitulo = livroRepositorio.existsByTituloAndIdNot(livro.getTitulo(),livro.getId());
 		
 		// Verificação
-		assertThat(!livroPesquisado.isPresent()).isTrue();	
+		assertThat(existeTitulo).isFalse();	
 	}
 	
 	@Test
@@ -338,4 +395,192 @@ public class LivroRepositorioTest {
 	
 	}
 	
+	@Test
+	@DisplayName("Deve buscar a página de livros com o usuário e a categoria em uma única consulta.")
+	public void deveBuscarLivrosPaginadosEmUmaConsulta() {
+		// Cenário
+		criarLivrosComAutoresECategoriasDiferentes();
+		LivroService livroService = criarLivroService();
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		Page<LivroDTO> livros = livroService.buscarLivrosPaginadas(new ProcurarLivroDTO(), PageRequest.of(0, 5));
+		Page<LivroDTO> livrosPorAutor = livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().usuarioNome("Autor 2").build(), PageRequest.of(0, 5));
+		
+		// Verificando
+		assertThat(livros.getContent()).hasSize(3);
+		assertThat(livros.getContent()).allMatch(l -> l.getUsuarioDto().getAutor() != null && l.getCategoriaDTO().getDescricao() != null);
+		assertThat(livrosPorAutor.getContent()).hasSize(1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros da categoria com os usuários em uma única consulta.")
+	public void deveBuscarLivrosPorCategoriaEmUmaConsulta() {
+		// Cenário
+		categoria = Categoria.builder().id(null).descricao("Aventuras").build();
+		entityManager.persist(categoria);
+		
+		usuario = Usuario.builder().id(null).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		usuario2 = Usuario.builder().id(null).autor("José Ferreira").dataNascimento(new Date()).build();
+		entityManager.persist(usuario);
+		entityManager.persist(usuario2);
+		
+		entityManager.persist(Livro.builder().id(null).usuario(usuario).isbn("001").titulo("Teste Livro").categoria(categoria).build());
+		entityManager.persist(Livro.builder().id(null).usuario(usuario2).isbn("002").titulo("Teste Livro 2").categoria(categoria).build());
+		entityManager.flush();
+		entityManager.clear();
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		List<Livro> livros = livroRepositorio.findLivrosByCategoriaId(categoria.getId());
+		
+		// Verificando
+		assertThat(livros).hasSize(2);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("Deve buscar o livro pelo id com o usuário e a categoria em uma única consulta.")
+	public void deveObterLivroPorIdEmUmaConsulta() {
+		// Cenário
+		Livro livroCriado = criarLivrosComAutoresECategoriasDiferentes().get(0);
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		LivroDTO livroDTO = new LivroDTO(livroRepositorio.findById(livroCriado.getId()).get());
+		
+		// Verificando
+		assertThat(livroDTO.getUsuarioDto().getAutor()).isEqualTo("Autor 1");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros dos ids informados com o usuário e a categoria em uma única consulta.")
+	public void deveBuscarLivrosPorIdsEmUmaConsulta() {
+		// Cenário
+		List<Livro> livros = criarLivrosComAutoresECategoriasDiferentes();
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		List<LivroDTO> livrosDtos = livroRepositorio.findAllById(Arrays.asList(livros.get(0).getId(), livros.get(2).getId(), 0L))
+				.stream().map(LivroDTO::new).collect(Collectors.toList());
+		
+		// Verificando
+		assertThat(livrosDtos).extracting(l -> l.getCategoriaDTO().getDescricao()).containsExactlyInAnyOrder("Categoria 1", "Categoria 3");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("Deve exportar os livros filtrados em uma única consulta sem carregar as entidades no contexto.")
+	public void deveExportarLivrosEmUmaUnicaConsulta() {
+		// Cenário
+		criarLivrosComAutoresECategoriasDiferentes();
+		LivroService livroService = criarLivroService();
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		List<LivroDTO> exportados = new ArrayList<LivroDTO>();
+		livroService.exportarLivros(ProcurarLivroDTO.builder().titulo("Teste Livro").build(), exportados::add);
+		
+		// Verificando
+		assertThat(exportados).extracting(LivroDTO::getTitulo).containsExactly("Teste Livro 1", "Teste Livro 2", "Teste Livro 3");
+		assertThat(exportados.get(0).getCategoriaDTO().getDescricao()).isEqualTo("Categoria 1");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+	
+	@Test
+	@DisplayName("Deve deletar os livros filtrados e os livros dos ids informados sem carregar as entidades.")
+	public void deveDeletarLivrosEmLote() {
+		// Cenário
+		List<Livro> livros = criarLivrosComAutoresECategoriasDiferentes();
+		LivroService livroService = criarLivroService();
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando, o id 0 não existe e não entra na quantidade removida
+		int removidosFiltro = livroService.deletarLivrosFiltro(ProcurarLivroDTO.builder().usuarioNome("Autor 2").build());
+		int removidosIds = livroService.deletarLote(Arrays.asList(livros.get(0).getId(), livros.get(1).getId(), 0L));
+		
+		// Verificando
+		assertThat(removidosFiltro).isEqualTo(1);
+		assertThat(removidosIds).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(livroRepositorio.findAll()).extracting(Livro::getId).containsExactly(livros.get(2).getId());
+	}
+	
+	@Test
+	@DisplayName("Não deve deletar todos os livros quando o filtro tem somente os coringas do LIKE.")
+	public void naoDeveDeletarLivrosFiltroComCoringas() {
+		// Cenário
+		List<Livro> livros = criarLivrosComAutoresECategoriasDiferentes();
+		LivroService livroService = criarLivroService();
+		
+		// Executando, os coringas digitados são procurados como texto na remoção
+		int removidosTitulo = livroService.deletarLivrosFiltro(ProcurarLivroDTO.builder().titulo("%").build());
+		int removidosCategoria = livroService.deletarLivrosFiltro(ProcurarLivroDTO.builder().descricaoCategoria("_%").build());
+		int removidosUsuario = livroService.deletarLivrosFiltro(ProcurarLivroDTO.builder().usuarioNome("%").build());
+		
+		// Verificando
+		assertThat(removidosTitulo).isZero();
+		assertThat(removidosCategoria).isZero();
+		assertThat(removidosUsuario).isZero();
+		assertThat(livroRepositorio.findAll()).hasSameSizeAs(livros);
+	}
+	
+	@Test
+	@DisplayName("Deve inserir os livros em lote com os ids reservados pela sequência.")
+	public void deveInserirLivrosEmLote() {
+		// Cenário
+		categoria = Categoria.builder().id(null).descricao("Aventuras").build();
+		usuario = Usuario.builder().id(null).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		entityManager.persist(categoria);
+		entityManager.persist(usuario);
+		entityManager.flush();
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		for(int i = 1; i <= 20; i++) {
+			entityManager.persist(Livro.builder().id(null).usuario(usuario).categoria(categoria).isbn(String.valueOf(i)).titulo("Teste Livro " + i).build());
+		}
+		entityManager.flush();
+		
+		// Verificando, no máximo duas consultas na sequência e um único insert preparado para os 20 livros
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(20);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+	}
+	
+	private List<Livro> criarLivrosComAutoresECategoriasDiferentes() {
+		List<Livro> livros = new ArrayList<Livro>();
+		for(int i = 1; i <= 3; i++) {
+			Usuario usuarioLivro = Usuario.builder().id(null).autor("Autor " + i).dataNascimento(new Date()).build();
+			Categoria categoriaLivro = Categoria.builder().id(null).descricao("Categoria " + i).build();
+			entityManager.persist(usuarioLivro);
+			entityManager.persist(categoriaLivro);
+			
+			Livro livroCriado = Livro.builder().id(null).usuario(usuarioLivro).categoria(categoriaLivro).isbn("00" + i).titulo("Teste Livro " + i)
+					.subtitulo("Teste teste").sinopse("Teste sinopse").estoque(10).build();
+			entityManager.persist(livroCriado);
+			livros.add(livroCriado);
+		}
+		
+		// Limpando o contexto para que as consultas precisem ir até o banco
+		entityManager.flush();
+		entityManager.clear();
+		return livros;
+	}
+	
+	// As consultas e remoções vão ao banco, os índices na memória ficam falsos e o índice de trigramas não diminui os candidatos
+	private LivroService criarLivroService() {
+		return new LivroService(livroRepositorio, null, null, entityManager.getEntityManager(), Mockito.mock(FiltroBloomService.class),
+				Mockito.mock(BuscaLivroService.class), Mockito.mock(AutocompletarService.class), Mockito.mock(IndiceTrigramasService.class, invocacao -> null), null);
+	}
+	
+	private Statistics iniciarEstatisticas() {
+		Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		return statistics;
+	}
+	
 }
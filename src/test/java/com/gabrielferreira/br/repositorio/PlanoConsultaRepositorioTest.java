@@ -0,0 +1,214 @@
+package com.gabrielferreira.br.repositorio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarUsuarioDTO;
+import com.gabrielferreira.br.repositorio.abstrato.AbstractRepositorio;
+import com.gabrielferreira.br.service.ClienteService;
+import com.gabrielferreira.br.service.LivroService;
+import com.gabrielferreira.br.service.UsuarioService;
+
+// Executa o EXPLAIN do H2 no SQL gerado pelo Hibernate, o plano mostra o índice usado em cada tabela ou "tableScan" quando percorre a tabela inteira
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.gabrielferreira.br.repositorio.PlanoConsultaRepositorioTest$CapturaConsultas")
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class PlanoConsultaRepositorioTest {
+	
+	// Listagens sem filtro, percorrem a tabela inteira com ou sem índice
+	private static final Set<String> LISTAGENS_COMPLETAS = Set.of("CategoriaRepositorio.buscarCategoriasDTO", "ClienteRepositorio.buscarClientesDTO",
+			"ClienteRepositorio.buscarNomesCompletosIndice", "LivroRepositorio.buscarIsbns", "LivroRepositorio.buscarTitulos",
+			"LivroRepositorio.buscarSugestoesTitulos", "LivroRepositorio.buscarIsbnsIndice", "UsuarioRepositorio.buscarAutores",
+			"UsuarioRepositorio.buscarSugestoesAutores", "UsuarioRepositorio.buscarAutoresIndice", "UsuarioRepositorio.buscarUsuariosDTO");
+	
+	@Autowired
+	private CategoriaRepositorio categoriaRepositorio;
+	
+	@Autowired
+	private ClienteRepositorio clienteRepositorio;
+	
+	@Autowired
+	private LivroRepositorio livroRepositorio;
+	
+	@Autowired
+	private UsuarioRepositorio usuarioRepositorio;
+	
+	@Autowired
+	private ClienteService clienteService;
+	
+	@Autowired
+	private LivroService livroService;
+	
+	@Autowired
+	private UsuarioService usuarioService;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	@Test
+	@DisplayName("Deve usar um índice em todas as consultas com filtro dos repositórios.")
+	public void deveUsarIndiceConsultasRepositorios() {
+		
+		// Cenário, cada método declarado nos repositórios com uma chamada que executa a sua consulta
+		Map<String, Runnable> consultas = new LinkedHashMap<String, Runnable>();
+		consultas.put("AbstractRepositorio.deletarPorId", () -> {
+			categoriaRepositorio.deletarPorId(-1L);
+			clienteRepositorio.deletarPorId(-1L);
+			livroRepositorio.deletarPorId(-1L);
+			usuarioRepositorio.deletarPorId(-1L);
+		});
+		consultas.put("AbstractRepositorio.deletarPorIds", () -> {
+			categoriaRepositorio.deletarPorIds(List.of(-1L, -2L));
+			clienteRepositorio.deletarPorIds(List.of(-1L, -2L));
+			livroRepositorio.deletarPorIds(List.of(-1L, -2L));
+			usuarioRepositorio.deletarPorIds(List.of(-1L, -2L));
+		});
+		consultas.put("CategoriaRepositorio.buscarCategoriasDTO", categoriaRepositorio::buscarCategoriasDTO);
+		consultas.put("ClienteRepositorio.buscarClientesDTO", clienteRepositorio::buscarClientesDTO);
+		consultas.put("ClienteRepositorio.buscarNomesCompletosIndice", clienteRepositorio::buscarNomesCompletosIndice);
+		consultas.put("LivroRepositorio.buscarIsbns", livroRepositorio::buscarIsbns);
+		consultas.put("LivroRepositorio.buscarTitulos", livroRepositorio::buscarTitulos);
+		consultas.put("LivroRepositorio.buscarSugestoesTitulos", livroRepositorio::buscarSugestoesTitulos);
+		consultas.put("LivroRepositorio.buscarIsbnsIndice", livroRepositorio::buscarIsbnsIndice);
+		consultas.put("LivroRepositorio.buscarIsbnsExistentes", () -> livroRepositorio.buscarIsbnsExistentes(List.of("001", "002")));
+		consultas.put("LivroRepositorio.buscarTitulosExistentes", () -> livroRepositorio.buscarTitulosExistentes(List.of("Titulo 1", "Titulo 2")));
+		consultas.put("LivroRepositorio.existsByIsbn", () -> livroRepositorio.existsByIsbn("001"));
+		consultas.put("LivroRepositorio.existsByIsbnAndIdNot", () -> livroRepositorio.existsByIsbnAndIdNot("001", -1L));
+		consultas.put("LivroRepositorio.existsByTitulo", () -> livroRepositorio.existsByTitulo("Titulo 1"));
+		consultas.put("LivroRepositorio.existsByTituloAndIdNot", () -> livroRepositorio.existsByTituloAndIdNot("Titulo 1", -1L));
+		consultas.put("LivroRepositorio.existsByCategoriaId", () -> livroRepositorio.existsByCategoriaId(-1L));
+		consultas.put("LivroRepositorio.findLivrosByCategoriaId", () -> livroRepositorio.findLivrosByCategoriaId(-1L));
+		consultas.put("LivroRepositorio.buscarLivrosIndice", () -> {
+			livroRepositorio.buscarLivrosIndice(0L, null, null, PageRequest.of(0, 10));
+			livroRepositorio.buscarLivrosIndice(0L, -1L, -1L, PageRequest.of(0, 10));
+		});
+		consultas.put("LivroRepositorio.findById", () -> livroRepositorio.findById(-1L));
+		consultas.put("LivroRepositorio.findAllById", () -> livroRepositorio.findAllById(List.of(-1L, -2L)));
+		consultas.put("UsuarioRepositorio.buscarAutores", usuarioRepositorio::buscarAutores);
+		consultas.put("UsuarioRepositorio.buscarSugestoesAutores", usuarioRepositorio::buscarSugestoesAutores);
+		consultas.put("UsuarioRepositorio.buscarAutoresIndice", usuarioRepositorio::buscarAutoresIndice);
+		consultas.put("UsuarioRepositorio.existsByAutor", () -> usuarioRepositorio.existsByAutor("Gabriel Ferreira"));
+		consultas.put("UsuarioRepositorio.existsByAutorAndIdNot", () -> usuarioRepositorio.existsByAutorAndIdNot("Gabriel Ferreira", -1L));
+		consultas.put("UsuarioRepositorio.buscarUsuariosDTO", usuarioRepositorio::buscarUsuariosDTO);
+		
+		// Verificando, nenhum método novo dos repositórios fica de fora
+		assertThat(consultas.keySet()).containsExactlyInAnyOrderElementsOf(getMetodosRepositorios());
+		
+		// Executando
+		consultas.forEach((nome, consulta) -> {
+			List<String> planos = getPlanos(consulta);
+			
+			// Verificando
+			assertThat(planos).as(nome).isNotEmpty();
+			if(!LISTAGENS_COMPLETAS.contains(nome)) {
+				assertThat(planos).as(nome).allSatisfy(plano -> assertThat(plano).doesNotContain("tableScan"));
+			}
+		});
+	}
+	
+	@Test
+	@DisplayName("Deve usar os índices compostos na mesma ordem dos filtros, sem ordenar os registros depois da consulta.")
+	public void deveUsarIndiceOrdenacaoFiltros() {
+		
+		// Cenário
+		Date dataNascimentoInicio = new Date(0L);
+		Date dataNascimentoFinal = new Date();
+		ProcurarUsuarioDTO procurarUsuarioDTO = ProcurarUsuarioDTO.builder().dataNascimentoInicio(dataNascimentoInicio).dataNascimentoFinal(dataNascimentoFinal).build();
+		
+		// Executando
+		List<String> planosUsuarios = getPlanos(() -> usuarioService.filtroUsuarios(procurarUsuarioDTO));
+		List<String> planosUsuariosCursor = getPlanos(() -> usuarioService.filtroUsuariosCursor(procurarUsuarioDTO, null, 10));
+		List<String> planosLivros = getPlanos(() -> livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().titulo("Teste").build(), PageRequest.of(0, 10)));
+		List<String> planosLivrosCursor = getPlanos(() -> livroService.buscarLivrosCursor(ProcurarLivroDTO.builder().titulo("Teste").build(), null, 10));
+		List<String> planosLivrosUsuario = getPlanos(() -> livroService.buscarLivrosCursor(ProcurarLivroDTO.builder().usuarioNome("Gabriel").build(), null, 10));
+		List<String> planosLivrosCategoria = getPlanos(() -> livroService.buscarLivrosCursor(ProcurarLivroDTO.builder().descricaoCategoria("Terror").build(), null, 10));
+		
+		// Verificando
+		assertThat(planosUsuarios).singleElement().asString().contains("IX_USUARIO_DATA_NASCIMENTO_ID", "index sorted");
+		assertThat(planosUsuariosCursor).singleElement().asString().contains("IX_USUARIO_DATA_NASCIMENTO_ID", "index sorted");
+		assertThat(planosLivros).first().asString().contains("IX_LIVRO_TITULO_ID", "index sorted");
+		assertThat(planosLivrosCursor).singleElement().asString().contains("IX_LIVRO_TITULO_ID", "index sorted");
+		assertThat(planosLivrosUsuario).singleElement().asString().contains("IX_LIVRO_TITULO_ID", "index sorted").doesNotContain("tableScan");
+		assertThat(planosLivrosCategoria).singleElement().asString().contains("IX_LIVRO_TITULO_ID", "index sorted").doesNotContain("tableScan");
+	}
+	
+	@Test
+	@DisplayName("Deve usar os índices dos filtros dos clientes por igualdade.")
+	public void deveUsarIndiceFiltrosClientes() {
+		
+		// Executando
+		List<String> planosDocumento = getPlanos(() -> clienteService.clientesFiltros(ProcurarClienteDTO.builder().documento("17778590000").build()));
+		List<String> planosPossuiLivro = getPlanos(() -> clienteService.clientesFiltros(ProcurarClienteDTO.builder().possuiLivro(true).build()));
+		List<String> planosTipoDocumento = getPlanos(() -> clienteService.clientesFiltrosCursor(ProcurarClienteDTO.builder().tipoDocumentoCodigo(1).possuiLivro(true).build(), null, 10));
+		
+		// Verificando
+		assertThat(planosDocumento).singleElement().asString().contains("IX_CLIENTE_DOCUMENTO_ID");
+		assertThat(planosPossuiLivro).singleElement().asString().contains("IX_CLIENTE_POSSUI_LIVRO_ID");
+		assertThat(planosTipoDocumento).singleElement().asString().contains("IX_CLIENTE_TIPO_DOCUMENTO_ID");
+	}
+	
+	// Planos de todas as consultas executadas pela chamada, cada SQL é preparado com os parâmetros sem valor como o Hibernate prepara
+	private List<String> getPlanos(Runnable consulta) {
+		CapturaConsultas.CONSULTAS.clear();
+		transactionTemplate.executeWithoutResult(status -> consulta.run());
+		
+		List<String> planos = new ArrayList<String>();
+		for(String sql : new ArrayList<String>(CapturaConsultas.CONSULTAS)) {
+			planos.add(jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql), resultSet -> {
+				resultSet.next();
+				return resultSet.getString(1);
+			}));
+		}
+		return planos;
+	}
+	
+	private List<String> getMetodosRepositorios() {
+		return Arrays.asList(AbstractRepositorio.class, CategoriaRepositorio.class, ClienteRepositorio.class, LivroRepositorio.class, UsuarioRepositorio.class)
+				.stream()
+				.flatMap(repositorio -> Arrays.stream(repositorio.getDeclaredMethods()).map(Method::getName).distinct()
+						.map(metodo -> repositorio.getSimpleName() + "." + metodo))
+				.collect(Collectors.toList());
+	}
+	
+	// Guarda os selects e deletes preparados pelo Hibernate, as sequências e os inserts ficam de fora
+	public static class CapturaConsultas implements StatementInspector {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private static final List<String> CONSULTAS = new CopyOnWriteArrayList<String>();
+		
+		@Override
+		public String inspect(String sql) {
+			String inicio = sql.trim().toLowerCase();
+			if(inicio.startsWith("select") || inicio.startsWith("delete")) {
+				CONSULTAS.add(sql);
+			}
+			return sql;
+		}
+	}
+
+}
@@ -1,8 +1,10 @@
 package com.gabrielferreira.br.repositorio;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.Date;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,9 +13,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
 
 @ExtendWith(SpringExtension.class) // O Spring deve rodar um mini contexto de injeção de dependecia para rodar os testes
 @ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
@@ -74,31 +79,95 @@ public class UsuarioRepositorioTest {
 		Usuario usuario2 = Usuario.builder().id(null).autor("Teste").dataNascimento(new Date()).build();
 		
 		// Persistindo na base do usuario2
-		entityManager.persist(usuario2);
+		entityManager.persistAndFlush(usuario2);
 		
-		// Voce quer atualizar o usuario2, porém quer colocar o nome igual ao usuario (Gabriel Ferreira)
+		// Voce quer atualizar o usuario2, porém quer colocar o nome igual ao usuario (Gabriel Ferreira), a alteração não vai para o banco antes da verificação
+		entityManager.detach(usuario2);
 		usuario2.setAutor("Gabriel Ferreira");
 		
 		// Buscando o nosso usuario 
-		Usuario usuarioPesquisado = usuarioRepositorio.buscarAutorUsuarioQuandoForAtualizar(usuario2.getAutor(),usuario2.getId());
+		Boolean existeAutor = usuarioRepositorio.existsByAutorAndIdNot(usuario2.getAutor(),usuario2.getId());
 	
 		
 		// Verificando
-		assertThat(usuarioPesquisado).isNotNull();
+		assertThat(existeAutor).isTrue();
 	}
 	
 	@Test
 	@DisplayName("Deve retornar usuário nulo quando for buscar o autor na hora de atualizar.")
 	public void deveRetornarUsuarioNuloQuandoForBuscarAutorAtualizar() {
 		
-		Usuario usuario2 = Usuario.builder().id(null).autor("Teste").dataNascimento(new Date()).build();
+		Usuario usuario2 = Usuario.builder().id(1L).autor("Teste").dataNascimento(new Date()).build();
 		
 		// Buscando o nosso usuario 
-		Usuario usuarioPesquisado = usuarioRepositorio.buscarAutorUsuarioQuandoForAtualizar(usuario2.getAutor(),usuario2.getId());
+		Boolean existeAutor = usuarioRepositorio.existsByAutorAndIdNot(usuario2.getAutor(),usuario2.getId());
+	
+		
+		// Verificando
+		assertThat(existeAutor).isFalse();
+	}
+	
+	@Test
+	@DisplayName("Deve retornar os usuários já projetados no DTO.")
+	public void deveRetornarUsuariosProjetadosNoDTO() {
+		
+		// Cenário já foi construido no criarInstancias()
+		
+		// Persistindo na base do usuario
+		entityManager.persistAndFlush(usuario);
+		entityManager.clear();
+		
+		// Buscando os usuarios
+		List<UsuarioDTO> usuarioDTOs = usuarioRepositorio.buscarUsuariosDTO();
+		
+		// Verificando
+		assertThat(usuarioDTOs).hasSize(1);
+		assertThat(usuarioDTOs.get(0).getId()).isEqualTo(usuario.getId());
+		assertThat(usuarioDTOs.get(0).getAutor()).isEqualTo(usuario.getAutor());
+	}
+	
+	@Test
+	@DisplayName("Não deve salvar dois usuários com o mesmo autor por causa do índice único.")
+	public void naoDeveSalvarAutorRepetido() {
+		
+		// Cenário já foi construido no criarInstancias()
+		usuarioRepositorio.saveAndFlush(usuario);
+		Usuario usuarioRepetido = Usuario.builder().id(null).autor(usuario.getAutor()).dataNascimento(new Date()).build();
+		
+		// Executando e verificando
+		assertThatThrownBy(() -> usuarioRepositorio.saveAndFlush(usuarioRepetido))
+			.isInstanceOf(DataIntegrityViolationException.class)
+			.hasMessageContaining(Usuario.UK_USUARIO_AUTOR);
+	}
 	
+	@Test
+	@DisplayName("Não deve deletar o usuário que tem livros, a chave estrangeira do livro deve ser informada na falha.")
+	public void naoDeveDeletarUsuarioComLivros() {
+		// Cenário
+		entityManager.persist(usuario);
+		entityManager.persistAndFlush(Livro.builder().id(null).usuario(usuario).isbn("001").titulo("Teste Livro").build());
+		
+		// Executando e verificando
+		assertThatThrownBy(() -> usuarioRepositorio.deletarPorId(usuario.getId()))
+			.isInstanceOf(DataIntegrityViolationException.class)
+			.hasMessageContaining(Livro.FK_LIVRO_USUARIO);
+	}
+	
+	@Test
+	@DisplayName("Deve gravar o autor normalizado ao inserir e ao alterar o autor do usuário.")
+	public void deveGravarAutorNormalizado() {
+		// Cenário
+		usuario.setAutor("Cecília  Meireles");
+		
+		// Executando
+		entityManager.persistAndFlush(usuario);
+		String autorInserido = usuario.getAutorNormalizado();
+		usuario.setAutor("José De Alencar");
+		entityManager.flush();
 		
 		// Verificando
-		assertThat(usuarioPesquisado).isNull();
+		assertThat(autorInserido).isEqualTo("cecilia meireles");
+		assertThat(usuarioRepositorio.buscarAutoresIndice()).extracting(s -> s.getTexto()).containsExactly("jose de alencar");
 	}
 	
 }
@@ -0,0 +1,117 @@
+package com.gabrielferreira.br.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gabrielferreira.br.exception.RegraDeNegocioException;
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
+import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+
+@SpringBootTest
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class AutocompletarServiceTest {
+	
+	@Autowired
+	private LivroService livroService;
+	
+	@Autowired
+	private UsuarioService usuarioService;
+	
+	@Autowired
+	private CategoriaService categoriaService;
+	
+	private Usuario usuario;
+	
+	private Categoria categoria;
+	
+	private List<Long> idsLivros;
+	
+	@BeforeEach
+	public void criarInstancias() {
+		usuario = usuarioService.inserir(CriarUsuarioDTO.builder().autor("Graciliano Ramos").dataNascimento(new Date(0)).build());
+		categoria = categoriaService.inserirCategoria(CriarCategoriaDTO.builder().descricao("Regionalismo").build());
+		idsLivros = new ArrayList<Long>();
+	}
+	
+	@AfterEach
+	public void limparRegistros() {
+		if(!idsLivros.isEmpty()) {
+			livroService.deletarLote(idsLivros);
+		}
+		usuarioService.deletar(usuario.getId());
+		categoriaService.deletar(categoria.getId());
+	}
+	
+	@Test
+	@DisplayName("Deve sugerir os títulos inseridos e o título novo do livro alterado.")
+	public void deveAutocompletarTitulos() {
+		
+		// Cenário
+		Livro vidasSecas = inserirLivro("Vidas Secas", "9101");
+		Livro saoBernardo = inserirLivro("São Bernardo", "9102");
+		
+		// Executando
+		livroService.inserir(CriarLivroDTO.builder().id(saoBernardo.getId()).titulo("Angústia").isbn("9102").estoque(1)
+				.idUsuario(usuario.getId()).idCategoria(categoria.getId()).build());
+		
+		// Verificando, o prefixo não diferencia acento e letra maiúscula
+		assertThat(livroService.autocompletarTitulos("VIDAS s", 10)).extracting(s -> s.getId()).containsExactly(vidasSecas.getId());
+		assertThat(livroService.autocompletarTitulos("angu", 10)).extracting(s -> s.getTexto()).containsExactly("Angústia");
+		assertThat(livroService.autocompletarTitulos("sao", 10)).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve retirar das sugestões o livro e o autor deletados.")
+	public void deveRetirarDeletadosDasSugestoes() {
+		
+		// Cenário
+		Livro livro = inserirLivro("Caetés", "9103");
+		Usuario outroUsuario = usuarioService.inserir(CriarUsuarioDTO.builder().autor("Rachel De Queiroz").dataNascimento(new Date(0)).build());
+		assertThat(usuarioService.autocompletarAutores("rachel", 10)).extracting(s -> s.getId()).containsExactly(outroUsuario.getId());
+		
+		// Executando
+		livroService.deletar(livro.getId());
+		idsLivros.remove(livro.getId());
+		usuarioService.deletar(outroUsuario.getId());
+		
+		// Verificando
+		assertThat(livroService.autocompletarTitulos("caetes", 10)).isEmpty();
+		assertThat(usuarioService.autocompletarAutores("rachel", 10)).isEmpty();
+		assertThat(usuarioService.autocompletarAutores("graci", 10)).extracting(s -> s.getTexto()).containsExactly("Graciliano Ramos");
+	}
+	
+	@Test
+	@DisplayName("Não deve sugerir com o total menor do que 1.")
+	public void naoDeveAutocompletarTotalInvalido() {
+		
+		// Executando
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class, () -> livroService.autocompletarTitulos("vidas", 0));
+		
+		// Verificando
+		assertThat(exception).hasMessage("O total de registros por página deve ser maior do que 0.");
+	}
+	
+	private Livro inserirLivro(String titulo, String isbn) {
+		Livro livro = livroService.inserir(CriarLivroDTO.builder().titulo(titulo).isbn(isbn).estoque(1)
+				.idUsuario(usuario.getId()).idCategoria(categoria.getId()).build());
+		idsLivros.add(livro.getId());
+		return livro;
+	}
+
+}
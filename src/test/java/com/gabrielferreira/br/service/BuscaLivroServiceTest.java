@@ -0,0 +1,120 @@
+package com.gabrielferreira.br.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
+import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+
+@SpringBootTest
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class BuscaLivroServiceTest {
+	
+	@Autowired
+	private LivroService livroService;
+	
+	@Autowired
+	private UsuarioService usuarioService;
+	
+	@Autowired
+	private CategoriaService categoriaService;
+	
+	private Usuario usuario;
+	
+	private Categoria categoria;
+	
+	private List<Long> idsLivros;
+	
+	@BeforeEach
+	public void criarInstancias() {
+		usuario = usuarioService.inserir(CriarUsuarioDTO.builder().autor("Machado De Assis").dataNascimento(new Date(0)).build());
+		categoria = categoriaService.inserirCategoria(CriarCategoriaDTO.builder().descricao("Literatura Brasileira").build());
+		idsLivros = new ArrayList<Long>();
+	}
+	
+	@AfterEach
+	public void limparRegistros() {
+		if(!idsLivros.isEmpty()) {
+			livroService.deletarLote(idsLivros);
+		}
+		usuarioService.deletar(usuario.getId());
+		categoriaService.deletar(categoria.getId());
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros pelo texto do mais relevante para o menos relevante.")
+	public void deveBuscarLivrosPorRelevancia() {
+		
+		// Cenário
+		Livro memorias = inserirLivro("Memórias Póstumas De Brás Cubas", "9001", "O defunto autor conta a própria vida.");
+		Livro casmurro = inserirLivro("Dom Casmurro", "9002", "Bentinho e Capitu, memórias de um ciúme.");
+		
+		// Executando
+		List<LivroDTO> livrosTitulo = livroService.buscarLivrosTexto("memorias", 10);
+		List<LivroDTO> livrosPrefixo = livroService.buscarLivrosTexto("dom casm", 10);
+		List<LivroDTO> livrosAutorCategoria = livroService.buscarLivrosTexto("machado brasileira", 10);
+		
+		// Verificando, a palavra no título vale mais do que na sinopse e o acento não faz diferença
+		assertThat(livrosTitulo).extracting(l -> l.getId()).containsExactly(memorias.getId(), casmurro.getId());
+		assertThat(livrosPrefixo).extracting(l -> l.getId()).containsExactly(casmurro.getId());
+		assertThat(livrosPrefixo.get(0).getUsuarioDto().getAutor()).isEqualTo("Machado De Assis");
+		assertThat(livrosAutorCategoria).hasSize(2);
+		assertThat(livroService.buscarLivrosTexto("inexistente", 10)).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve retirar da busca o livro deletado.")
+	public void deveRetirarLivroDeletadoDaBusca() {
+		
+		// Cenário
+		Livro livro = inserirLivro("Quincas Borba", "9003", "Ao vencedor, as batatas.");
+		
+		// Executando
+		livroService.deletar(livro.getId());
+		idsLivros.remove(livro.getId());
+		
+		// Verificando
+		assertThat(livroService.buscarLivrosTexto("quincas", 10)).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os livros pelo novo nome do autor e pela nova descrição da categoria.")
+	public void deveBuscarLivrosAposAlterarAutorCategoria() {
+		
+		// Cenário
+		Livro livro = inserirLivro("Helena", "9004", "Romance da primeira fase.");
+		
+		// Executando
+		usuarioService.inserir(CriarUsuarioDTO.builder().id(usuario.getId()).autor("Joaquim Maria").dataNascimento(new Date(0)).build());
+		categoriaService.inserirCategoria(CriarCategoriaDTO.builder().id(categoria.getId()).descricao("Romantismo").build());
+		
+		// Verificando
+		assertThat(livroService.buscarLivrosTexto("joaquim", 10)).extracting(l -> l.getId()).containsExactly(livro.getId());
+		assertThat(livroService.buscarLivrosTexto("romantismo", 10)).extracting(l -> l.getId()).containsExactly(livro.getId());
+		assertThat(livroService.buscarLivrosTexto("machado", 10)).isEmpty();
+	}
+	
+	private Livro inserirLivro(String titulo, String isbn, String sinopse) {
+		Livro livro = livroService.inserir(CriarLivroDTO.builder().titulo(titulo).isbn(isbn).sinopse(sinopse).estoque(1)
+				.idUsuario(usuario.getId()).idCategoria(categoria.getId()).build());
+		idsLivros.add(livro.getId());
+		return livro;
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.gabrielferreira.br.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gabrielferreira.br.config.CacheConfig;
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.CategoriaDTO;
+import com.gabrielferreira.br.repositorio.CategoriaRepositorio;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class CategoriaServiceCacheTest {
+
+	@Autowired
+	private CategoriaService categoriaService;
+	
+	@Autowired
+	private CacheManager cacheManager;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	@MockBean // O repositório é falso, assim é possível contar quantas vezes a consulta chegou no banco
+	private CategoriaRepositorio categoriaRepositorio;
+	
+	private Categoria categoria;
+	
+	@BeforeEach
+	public void criarInstancias() {
+		cacheManager.getCache(CacheConfig.CACHE_CATEGORIA).clear();
+		cacheManager.getCache(CacheConfig.CACHE_CATEGORIAS).clear();
+		categoria = Categoria.builder().id(1L).descricao("Aventura").build();
+	}
+	
+	@Test
+	@DisplayName("Deve buscar a categoria no banco somente na primeira vez.")
+	public void deveBuscarCategoriaDoCache() {
+		
+		// Cenário
+		when(categoriaRepositorio.findById(categoria.getId())).thenReturn(Optional.of(categoria));
+		
+		// Executando
+		Categoria primeiraBusca = categoriaService.getDetalhe(categoria.getId());
+		Categoria segundaBusca = categoriaService.getDetalhe(categoria.getId());
+		
+		// Verificando
+		verify(categoriaRepositorio, times(1)).findById(categoria.getId());
+		assertThat(segundaBusca).isNotSameAs(primeiraBusca);
+		assertThat(segundaBusca.getDescricao()).isEqualTo(primeiraBusca.getDescricao());
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.CACHE_CATEGORIA).tag("result", "hit")
+				.functionCounter().count()).isGreaterThanOrEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("Deve buscar a lista de categorias no banco somente na primeira vez.")
+	public void deveMostrarCategoriasDoCache() {
+		
+		// Cenário
+		List<CategoriaDTO> categoriaDTOs = new ArrayList<CategoriaDTO>();
+		categoriaDTOs.add(new CategoriaDTO(categoria));
+		when(categoriaRepositorio.buscarCategoriasDTO()).thenReturn(categoriaDTOs);
+		
+		// Executando
+		categoriaService.mostrarCategorias();
+		List<CategoriaDTO> categoriasCache = categoriaService.mostrarCategorias();
+		
+		// Verificando
+		verify(categoriaRepositorio, times(1)).buscarCategoriasDTO();
+		assertThat(categoriasCache).hasSize(1);
+	}
+	
+	@Test
+	@DisplayName("Deve invalidar o cache da categoria e da lista quando inserir uma categoria.")
+	public void deveInvalidarCacheAoInserirCategoria() {
+		
+		// Cenário
+		when(categoriaRepositorio.findById(categoria.getId())).thenReturn(Optional.of(categoria));
+		when(categoriaRepositorio.buscarCategoriasDTO()).thenReturn(new ArrayList<CategoriaDTO>(List.of(new CategoriaDTO(categoria))));
+		when(categoriaRepositorio.save(any())).thenReturn(categoria);
+		
+		categoriaService.getDetalhe(categoria.getId());
+		categoriaService.mostrarCategorias();
+		
+		// Executando a atualização da categoria
+		categoriaService.inserirCategoria(CriarCategoriaDTO.builder().id(categoria.getId()).descricao("Terror").build());
+		categoriaService.getDetalhe(categoria.getId());
+		categoriaService.mostrarCategorias();
+		
+		// Verificando
+		verify(categoriaRepositorio, times(2)).findById(categoria.getId());
+		verify(categoriaRepositorio, times(2)).buscarCategoriasDTO();
+	}
+	
+	@Test
+	@DisplayName("Deve invalidar o cache da categoria quando deletar a categoria.")
+	public void deveInvalidarCacheAoDeletarCategoria() {
+		
+		// Cenário
+		when(categoriaRepositorio.findById(categoria.getId())).thenReturn(Optional.of(categoria));
+		when(categoriaRepositorio.deletarPorId(categoria.getId())).thenReturn(1);
+		categoriaService.getDetalhe(categoria.getId());
+		
+		// Executando
+		categoriaService.deletar(categoria.getId());
+		
+		// Verificando
+		assertThat(cacheManager.getCache(CacheConfig.CACHE_CATEGORIA).get(categoria.getId())).isNull();
+		verify(categoriaRepositorio).deletarPorId(categoria.getId());
+	}
+	
+}
@@ -17,7 +17,6 @@ import org.mockito.Mockito;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import com.gabrielferreira.br.exception.EntidadeNotFoundException;
 import com.gabrielferreira.br.modelo.Categoria;
 import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.CategoriaDTO;
@@ -33,7 +32,7 @@ public class CategoriaServiceTest {
 	@BeforeEach
 	public void criarInstancias() {
 		categoriaRepositorio = Mockito.mock(CategoriaRepositorio.class);
-		categoriaService = new CategoriaService(categoriaRepositorio);
+		categoriaService = new CategoriaService(categoriaRepositorio, Mockito.mock(BuscaLivroService.class));
 	}
 	
 	@Test
@@ -86,14 +85,14 @@ public class CategoriaServiceTest {
 	@DisplayName("Deve mostrar todas as categorias.")
 	public void deveMostrarCategorias() {
 		// Cenário
-		List<Categoria> categoriasMock = new ArrayList<Categoria>();
-		categoriasMock.add(Categoria.builder().id(2L).descricao("Aventuras").build());
-		categoriasMock.add(Categoria.builder().id(3L).descricao("Terror").build());
-		categoriasMock.add(Categoria.builder().id(4L).descricao("Ação").build());
-		categoriasMock.add(Categoria.builder().id(5L).descricao("Ficção").build());
+		List<CategoriaDTO> categoriasMock = new ArrayList<CategoriaDTO>();
+		categoriasMock.add(CategoriaDTO.builder().id(2L).descricao("Aventuras").build());
+		categoriasMock.add(CategoriaDTO.builder().id(3L).descricao("Terror").build());
+		categoriasMock.add(CategoriaDTO.builder().id(4L).descricao("Ação").build());
+		categoriasMock.add(CategoriaDTO.builder().id(5L).descricao("Ficção").build());
 		
 		// Mock das categorias 
-		when(categoriaRepositorio.findAll()).thenReturn(categoriasMock);
+		when(categoriaRepositorio.buscarCategoriasDTO()).thenReturn(categoriasMock);
 		
 		// Executando método
 		List<CategoriaDTO> categorias = categoriaService.mostrarCategorias();
@@ -104,17 +103,17 @@ public class CategoriaServiceTest {
 	}
 	
 	@Test
-	@DisplayName("Não deve mostrar categorias.")
+	@DisplayName("Deve mostrar a lista vazia de categorias quando não tiver nenhuma.")
 	public void naoDeveMostrarCategorias() {
 		// Cenário 	
-		when(categoriaRepositorio.findAll()).thenReturn(new ArrayList<>());
+		when(categoriaRepositorio.buscarCategoriasDTO()).thenReturn(new ArrayList<>());
 				
 		// Executando 
-		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class, () -> categoriaService.mostrarCategorias());
+		List<CategoriaDTO> categorias = categoriaService.mostrarCategorias();
 				
-		// Verificação
-		assertThat(exception).isInstanceOf(EntidadeNotFoundException.class).hasMessage(exception.getMessage());
-		verify(categoriaRepositorio).findAll();
+		// Verificação, a busca sem resultado não é um erro
+		assertThat(categorias).isEmpty();
+		verify(categoriaRepositorio).buscarCategoriasDTO();
 	}
 	
 }
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +27,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -34,8 +36,11 @@ import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Cliente;
 import com.gabrielferreira.br.modelo.dto.criar.CriarClienteDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.ClienteDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
 import com.gabrielferreira.br.repositorio.ClienteRepositorio;
+import com.gabrielferreira.br.utils.CursorPaginacao;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
 
 @ExtendWith(SpringExtension.class) // O Spring deve rodar um mini contexto de injeção de dependecia para rodar os testes
 @ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
@@ -46,9 +51,9 @@ public class ClienteServiceTest {
 	private EntityManager entityManager;
 	
 	private CriteriaBuilder criteriaBuilder;
-	private CriteriaQuery<Cliente> criteriaQuery;
+	private CriteriaQuery<ClienteDTO> criteriaQuery;
 	private Root<Cliente> root;
-	private TypedQuery<Cliente> typedQuery;
+	private TypedQuery<ClienteDTO> typedQuery;
 	private Predicate predicateNomeCompleto;
 	private Predicate predicateDocumento;
 	private Predicate predicatePossuiLivro;
@@ -58,7 +63,11 @@ public class ClienteServiceTest {
 	public void criarInstancias() {
 		clienteRepositorio = Mockito.mock(ClienteRepositorio.class);
 		entityManager = Mockito.mock(EntityManager.class);
-		clienteService = new ClienteService(clienteRepositorio, entityManager);
+		IndiceTrigramasService indiceTrigramasService = Mockito.mock(IndiceTrigramasService.class);
+		clienteService = new ClienteService(clienteRepositorio, entityManager, indiceTrigramasService);
+		
+		// O índice de trigramas não diminui as consultas
+		when(indiceTrigramasService.getCandidatosNomeCompleto(any())).thenReturn(null);
 	}
 	
 	@BeforeEach
@@ -161,14 +170,49 @@ public class ClienteServiceTest {
 		Cliente cliente = Cliente.builder().id(1L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
 				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build();
 		
-		// Retornar esse dado no mock do bucar via banco 
-		doReturn(Optional.of(cliente)).when(clienteRepositorio).findById(cliente.getId());
+		// O delete direto no banco remove um registro
+		when(clienteRepositorio.deletarPorId(cliente.getId())).thenReturn(1);
 		
 		// Executando o método
 		clienteService.deletar(cliente.getId());
 		
 		// Verificando
-		verify(clienteRepositorio).deleteById(cliente.getId());
+		verify(clienteRepositorio).deletarPorId(cliente.getId());
+	}
+	
+	@Test
+	@DisplayName("Deve deletar os clientes dos ids informados em partes.")
+	@SuppressWarnings("unchecked")
+	public void deveDeletarClientesEmLote() {
+		// Cenário, 1200 ids distintos mais um repetido e um nulo
+		List<Long> ids = new ArrayList<Long>();
+		for(long i = 1; i <= 1200; i++) {
+			ids.add(i);
+		}
+		ids.add(1L);
+		ids.add(null);
+		when(clienteRepositorio.deletarPorIds(any())).thenAnswer(i -> ((List<Long>) i.getArgument(0)).size());
+		
+		// Executando
+		int removidos = clienteService.deletarLote(ids);
+		
+		// Verificando, três deletes: 500, 500 e 200
+		assertThat(removidos).isEqualTo(1200);
+		verify(clienteRepositorio,times(3)).deletarPorIds(any());
+	}
+	
+	@Test
+	@DisplayName("Não deve deletar os clientes em lote sem ids ou sem filtro.")
+	public void naoDeveDeletarClientesEmLote() {
+		// Executando
+		Throwable exceptionIds = Assertions.assertThrows(RegraDeNegocioException.class, () -> clienteService.deletarLote(new ArrayList<Long>()));
+		Throwable exceptionFiltro = Assertions.assertThrows(RegraDeNegocioException.class, 
+				() -> clienteService.deletarClientesFiltro(ProcurarClienteDTO.builder().nomeCompleto(" ").build()));
+		
+		// Verificando
+		assertThat(exceptionIds).hasMessage("Informe os ids dos registros que serão deletados.");
+		assertThat(exceptionFiltro).hasMessage("Informe ao menos um filtro para deletar os clientes.");
+		verify(clienteRepositorio,never()).deletarPorIds(any());
 	}
 	
 	@Test
@@ -225,16 +269,16 @@ public class ClienteServiceTest {
 	@DisplayName("Deve mostrar total de clientes com todas as informações.")
 	public void deveMostrarTotalDeClientes() {
 		// Cenário 
-		List<Cliente> clientes = new ArrayList<Cliente>();
-		clientes.add(Cliente.builder().id(1L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
-				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build());
-		clientes.add(Cliente.builder().id(2L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
-				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build());
-		clientes.add(Cliente.builder().id(3L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
-				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build());
+		List<ClienteDTO> clientes = new ArrayList<ClienteDTO>();
+		clientes.add(new ClienteDTO(Cliente.builder().id(1L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
+		clientes.add(new ClienteDTO(Cliente.builder().id(2L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
+		clientes.add(new ClienteDTO(Cliente.builder().id(3L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
 		
 		// Mock com a lista de cima 
-		when(clienteRepositorio.findAll()).thenReturn(clientes);
+		when(clienteRepositorio.buscarClientesDTO()).thenReturn(clientes);
 		
 		// Executando 
 		List<ClienteDTO> clienteDTOs = clienteService.mostrarClientes();
@@ -245,18 +289,17 @@ public class ClienteServiceTest {
 	}
 	
 	@Test
-	@DisplayName("Não deve mostrar total de clientes pois não encontrou nenhum.")
+	@DisplayName("Deve mostrar a lista vazia de clientes quando não encontrar nenhum.")
 	public void naoDeveMostrarTotalDeClientes() {
 		// Cenário
 		// Mock para retornar uma lista vazia
-		when(clienteRepositorio.findAll()).thenReturn(new ArrayList<>());
+		when(clienteRepositorio.buscarClientesDTO()).thenReturn(new ArrayList<>());
 		
 		// Executando 
-		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class,
-				() -> clienteService.mostrarClientes());
+		List<ClienteDTO> clienteDTOs = clienteService.mostrarClientes();
 	
-		// Verificação
-		assertThat(exception).isInstanceOf(EntidadeNotFoundException.class).hasMessage("Nenhum cliente encontrado.");
+		// Verificação, a busca sem resultado não é um erro
+		assertThat(clienteDTOs).isEmpty();
 	}
 	
 	@Test
@@ -269,19 +312,19 @@ public class ClienteServiceTest {
 				.possuiLivro(true)
 				.tipoDocumentoCodigo(1).build();
 		
-		List<Cliente> clientes = new ArrayList<Cliente>();
-		clientes.add(Cliente.builder().id(1L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
-				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build());
-		clientes.add(Cliente.builder().id(2L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
-				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build());
-		clientes.add(Cliente.builder().id(3L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
-				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build());
+		List<ClienteDTO> clientes = new ArrayList<ClienteDTO>();
+		clientes.add(new ClienteDTO(Cliente.builder().id(1L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
+		clientes.add(new ClienteDTO(Cliente.builder().id(2L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
+		clientes.add(new ClienteDTO(Cliente.builder().id(3L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
 		
 		// Incializando os mocks
 		condicaoConsultaTesteMock(procurarClienteDTO);
 		
 		// Mocks dos filtros
-		when(criteriaBuilder.like(root.get("nomeCompleto"), "%" + procurarClienteDTO.getNomeCompleto() + "%")).thenReturn(predicateNomeCompleto);
+		when(criteriaBuilder.like(root.get("nomeCompletoNormalizado"), "%" + ValidacaoFormatacao.getTextoNormalizado(procurarClienteDTO.getNomeCompleto()) + "%")).thenReturn(predicateNomeCompleto);
 		when(criteriaBuilder.equal(root.get("documento"), procurarClienteDTO.getDocumento())).thenReturn(predicateDocumento);
 		when(criteriaBuilder.equal(root.get("possuiLivro"), procurarClienteDTO.getPossuiLivro())).thenReturn(predicatePossuiLivro);
 		when(criteriaBuilder.equal(root.get("tipoDocumento"), procurarClienteDTO.getTipoDocumentoCodigo())).thenReturn(predicateTipoDocumentoCodigo);
@@ -312,7 +355,7 @@ public class ClienteServiceTest {
 		condicaoConsultaTesteMock(procurarClienteDTO);
 				
 		// Mocks dos filtros
-		when(criteriaBuilder.like(root.get("nomeCompleto"), "%" + procurarClienteDTO.getNomeCompleto() + "%")).thenReturn(predicateNomeCompleto);
+		when(criteriaBuilder.like(root.get("nomeCompletoNormalizado"), "%" + ValidacaoFormatacao.getTextoNormalizado(procurarClienteDTO.getNomeCompleto()) + "%")).thenReturn(predicateNomeCompleto);
 		when(criteriaBuilder.equal(root.get("documento"), procurarClienteDTO.getDocumento())).thenReturn(predicateDocumento);
 		when(criteriaBuilder.equal(root.get("possuiLivro"), procurarClienteDTO.getPossuiLivro())).thenReturn(predicatePossuiLivro);
 		when(criteriaBuilder.equal(root.get("tipoDocumento"), procurarClienteDTO.getTipoDocumentoCodigo())).thenReturn(predicateTipoDocumentoCodigo);
@@ -321,17 +364,76 @@ public class ClienteServiceTest {
 		when(typedQuery.getResultList()).thenReturn(new ArrayList<>());
 				
 		// Executando
-		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class,
-								() -> clienteService.clientesFiltros(procurarClienteDTO));
+		List<ClienteDTO> clienteDTOs = clienteService.clientesFiltros(procurarClienteDTO);
 						
+		// Verificação, a busca sem resultado não é um erro
+		assertThat(clienteDTOs).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve retornar a primeira página de clientes por cursor com o id do último cliente no cursor.")
+	public void deveRetornarClientesFiltrosCursor() {
+		// Cenário
+		ProcurarClienteDTO procurarClienteDTO = ProcurarClienteDTO.builder().possuiLivro(true).build();
+		
+		List<ClienteDTO> clientes = new ArrayList<ClienteDTO>();
+		clientes.add(new ClienteDTO(Cliente.builder().id(3L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
+		clientes.add(new ClienteDTO(Cliente.builder().id(2L).nomeCompleto("Gabriel Ferreira").documento("56853510038")
+				.dataNascimento(LocalDate.now()).possuiLivro(true).tipoDocumento(clienteService.getTipoDocumentoEscolhido(1)).build()));
+		
+		// Incializando os mocks
+		condicaoConsultaTesteMock(procurarClienteDTO);
+		
+		// Mock com a lista de cima
+		when(typedQuery.getResultList()).thenReturn(clientes);
+		
+		// Executando
+		PaginaCursorDTO<ClienteDTO> paginaCursor = clienteService.clientesFiltrosCursor(procurarClienteDTO, null, 1);
+		
+		// Verificando
+		assertThat(paginaCursor.getConteudo()).hasSize(1);
+		assertThat(CursorPaginacao.lerCursor(paginaCursor.getProximo()).getId()).isEqualTo(3L);
+		assertThat(CursorPaginacao.lerCursor(paginaCursor.getProximo()).getChave()).isNull();
+	}
+	
+	@Test
+	@DisplayName("Não deve retornar clientes por cursor, pois o total de registros por página é inválido.")
+	public void naoDeveRetornarClientesFiltrosCursorTotalInvalido() {
+		// Cenário
+		ProcurarClienteDTO procurarClienteDTO = ProcurarClienteDTO.builder().build();
+		
+		// Executando
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class,
+								() -> clienteService.clientesFiltrosCursor(procurarClienteDTO, null, 0));
+		
 		// Verificação
-		assertThat(exception).isInstanceOf(EntidadeNotFoundException.class).hasMessage("Nenhum cliente encontrado.");
+		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage("O total de registros por página deve ser maior do que 0.");
 	}
 	
 	private void condicaoConsultaTesteMock(ProcurarClienteDTO procurarClienteDTO) {
 		when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-		when(criteriaBuilder.createQuery(Cliente.class)).thenReturn(criteriaQuery);
+		when(criteriaBuilder.createQuery(ClienteDTO.class)).thenReturn(criteriaQuery);
 		when(criteriaQuery.from(Cliente.class)).thenReturn(root);
 		when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
 	}
+	@Test
+	@DisplayName("Deve buscar o cliente sempre no banco quando a entidade não está configurada para usar cache.")
+	public void deveBuscarClienteSemCache() {
+		// Cenário, o cache manager não tem cache para o cliente
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.setCacheNames(List.of("categorias"));
+		clienteService.setCacheManager(cacheManager);
+		
+		Cliente cliente = Cliente.builder().id(1L).nomeCompleto("Gabriel Ferreira").build();
+		when(clienteRepositorio.findById(cliente.getId())).thenReturn(Optional.of(cliente));
+		
+		// Executando
+		clienteService.getDetalhe(cliente.getId());
+		clienteService.getDetalhe(cliente.getId());
+		
+		// Verificando
+		verify(clienteRepositorio, times(2)).findById(cliente.getId());
+	}
+	
 }
@@ -0,0 +1,93 @@
+package com.gabrielferreira.br.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class) // O Spring deve rodar um mini contexto de injeção de dependecia para rodar os testes
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class FiltroBloomServiceTest {
+
+	private FiltroBloomService filtroBloomService;
+	
+	private LivroRepositorio livroRepositorio;
+	
+	private UsuarioRepositorio usuarioRepositorio;
+	
+	private MeterRegistry meterRegistry;
+	
+	@BeforeEach
+	public void criarInstancias() {
+		livroRepositorio = Mockito.mock(LivroRepositorio.class);
+		usuarioRepositorio = Mockito.mock(UsuarioRepositorio.class);
+		meterRegistry = new SimpleMeterRegistry();
+		
+		when(livroRepositorio.buscarIsbns()).thenReturn(Arrays.asList("001", "002"));
+		when(livroRepositorio.buscarTitulos()).thenReturn(Arrays.asList("Teste Livro", "Teste Livro 2"));
+		when(usuarioRepositorio.buscarAutores()).thenReturn(new ArrayList<String>(Arrays.asList("Gabriel Ferreira")));
+		
+		filtroBloomService = new FiltroBloomService(livroRepositorio, usuarioRepositorio, meterRegistry, 1000, 0.01);
+		filtroBloomService.afterPropertiesSet();
+	}
+	
+	@Test
+	@DisplayName("Deve carregar as chaves cadastradas no banco quando iniciar.")
+	public void deveCarregarChavesCadastradas() {
+		// Verificando
+		assertThat(filtroBloomService.podeExistirIsbn("001")).isTrue();
+		assertThat(filtroBloomService.podeExistirIsbn("002")).isTrue();
+		assertThat(filtroBloomService.podeExistirTitulo("Teste Livro")).isTrue();
+		assertThat(filtroBloomService.podeExistirAutor("Gabriel Ferreira")).isTrue();
+	}
+	
+	@Test
+	@DisplayName("Deve responder que não existe quando a chave nunca foi cadastrada.")
+	public void naoDeveExistirChaveNaoCadastrada() {
+		// Verificando, com poucas chaves no filtro a chance de falso positivo é praticamente nula
+		assertThat(filtroBloomService.podeExistirIsbn("999")).isFalse();
+		assertThat(filtroBloomService.podeExistirTitulo("Livro Novo")).isFalse();
+		assertThat(filtroBloomService.podeExistirAutor("José da Silva")).isFalse();
+	}
+	
+	@Test
+	@DisplayName("Deve adicionar as chaves do livro e do usuário inseridos.")
+	public void deveAdicionarChavesInseridas() {
+		// Executando
+		filtroBloomService.adicionarLivro(Livro.builder().id(3L).isbn("003").titulo("Livro Novo").build());
+		filtroBloomService.adicionarUsuario(Usuario.builder().id(2L).autor("José da Silva").build());
+		
+		// Verificando
+		assertThat(filtroBloomService.podeExistirIsbn("003")).isTrue();
+		assertThat(filtroBloomService.podeExistirTitulo("Livro Novo")).isTrue();
+		assertThat(filtroBloomService.podeExistirAutor("José da Silva")).isTrue();
+	}
+	
+	@Test
+	@DisplayName("Deve expor a probabilidade de falso positivo de cada filtro como métrica.")
+	public void deveExporFppComoMetrica() {
+		// Verificando
+		double fppIsbn = meterRegistry.get("livraria.bloom.fpp").tag("filtro", "isbn").gauge().value();
+		assertThat(fppIsbn).isGreaterThan(0).isLessThan(0.01);
+		assertThat(meterRegistry.get("livraria.bloom.fpp").tag("filtro", "titulo").gauge()).isNotNull();
+		assertThat(meterRegistry.get("livraria.bloom.fpp").tag("filtro", "autor").gauge()).isNotNull();
+	}
+	
+}
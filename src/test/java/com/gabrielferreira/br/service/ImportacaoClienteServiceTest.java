@@ -0,0 +1,129 @@
+package com.gabrielferreira.br.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gabrielferreira.br.exception.EntidadeNotFoundException;
+import com.gabrielferreira.br.exception.RegraDeNegocioException;
+import com.gabrielferreira.br.modelo.dto.mostrar.ImportacaoClienteDTO;
+import com.gabrielferreira.br.modelo.enums.SituacaoImportacao;
+import com.gabrielferreira.br.repositorio.ClienteRepositorio;
+
+@SpringBootTest(properties = "livraria.importacao.tamanho-lote=5")
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class ImportacaoClienteServiceTest {
+	
+	private static final String CABECALHO = "nomeCompleto,documento,dataNascimento,possuiLivro,tipoDocumentoCodigo\n";
+	
+	@Autowired
+	private ImportacaoClienteService importacaoClienteService;
+	
+	@Autowired
+	private ClienteRepositorio clienteRepositorio;
+	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@AfterEach
+	public void limparClientes() {
+		clienteRepositorio.deleteAll();
+	}
+	
+	@Test
+	@DisplayName("Deve importar os clientes do CSV e rejeitar as linhas inválidas.")
+	public void deveImportarClientes() {
+		
+		// Cenário
+		String csv = CABECALHO
+				+ "Gabriel Ferreira,17778590000,26/12/1997,true,1\n"
+				+ "\"Ferreira, José\",12345678000199,01/01/1980,false,2\n"
+				+ "Ana,123,01/01/1990,,1\n"
+				+ "Maria da Silva,123,1990-01-01,,1\n"
+				+ "Maria da Silva,123,01/01/1990,,9\n"
+				+ "Maria da Silva,123\n";
+		
+		// Executando
+		ImportacaoClienteDTO importacao = importacaoClienteService.importarClientes(getArquivo(csv));
+		
+		// Verificando
+		assertThat(importacao.getSituacao()).isEqualTo(SituacaoImportacao.CONCLUIDA);
+		assertThat(importacao.getProcessados()).isEqualTo(6);
+		assertThat(importacao.getInseridos()).isEqualTo(2);
+		assertThat(importacao.getRejeitados()).isEqualTo(4);
+		assertThat(importacao.getRejeicoes()).extracting(r -> r.getLinha()).containsExactly(3, 4, 5, 6);
+		assertThat(importacao.getRejeicoes().get(0).getMensagem()).contains("nomeCompleto");
+		assertThat(importacao.getRejeicoes().get(2).getMensagem()).isEqualTo("Insira o tipo de documento corretamente.");
+		assertThat(clienteRepositorio.buscarClientesDTO()).extracting(c -> c.getNomeCompleto())
+				.containsExactlyInAnyOrder("Gabriel Ferreira", "Ferreira, José");
+		assertThat(clienteRepositorio.buscarNomesCompletosIndice()).extracting(c -> c.getTexto())
+				.containsExactlyInAnyOrder("gabriel ferreira", "ferreira, jose");
+		assertThat(importacaoClienteService.getImportacao(importacao.getId()).getInseridos()).isEqualTo(2);
+	}
+	
+	@Test
+	@DisplayName("Deve gravar os clientes em lotes com um insert preparado por lote.")
+	public void deveImportarClientesEmLotes() {
+		
+		// Cenário
+		StringBuilder csv = new StringBuilder(CABECALHO);
+		for(int i = 1; i <= 10; i++) {
+			csv.append("Cliente Importado ").append(i).append(",").append(i).append(",01/01/1990,false,1\n");
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		
+		// Executando
+		ImportacaoClienteDTO importacao = importacaoClienteService.importarClientes(getArquivo(csv.toString()));
+		
+		// Verificando, os dois lotes de 5 reaproveitam o mesmo insert preparado, sem lote seriam 10 inserts preparados
+		assertThat(importacao.getInseridos()).isEqualTo(10);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+	}
+	
+	@Test
+	@DisplayName("Não deve importar os clientes quando falta uma coluna obrigatória no cabeçalho.")
+	public void naoDeveImportarClientesSemCabecalho() {
+		
+		// Cenário
+		String csv = "nomeCompleto,documento\nGabriel Ferreira,17778590000\n";
+		
+		// Executando
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class, () -> importacaoClienteService.importarClientes(getArquivo(csv)));
+		
+		// Verificando, a importação fica registrada como falha
+		assertThat(exception).hasMessage("Colunas obrigatórias não encontradas no cabeçalho: dataNascimento, tipoDocumentoCodigo.");
+		assertThat(importacaoClienteService.getImportacoes()).anyMatch(i -> i.getSituacao() == SituacaoImportacao.FALHOU);
+	}
+	
+	@Test
+	@DisplayName("Não deve encontrar uma importação inexistente.")
+	public void naoDeveEncontrarImportacao() {
+		
+		// Executando
+		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class, () -> importacaoClienteService.getImportacao("inexistente"));
+		
+		// Verificando
+		assertThat(exception).hasMessage("Importação não encontrada.");
+	}
+	
+	private InputStream getArquivo(String csv) {
+		return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
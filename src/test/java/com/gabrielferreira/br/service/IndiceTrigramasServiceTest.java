@@ -0,0 +1,160 @@
+package com.gabrielferreira.br.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Cliente;
+import com.gabrielferreira.br.modelo.Livro;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.modelo.dto.criar.CriarCategoriaDTO;
+import com.gabrielferreira.br.modelo.dto.criar.CriarClienteDTO;
+import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarClienteDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
+import com.gabrielferreira.br.modelo.dto.procurar.ProcurarUsuarioDTO;
+import com.gabrielferreira.br.modelo.enums.TipoDocumento;
+import com.gabrielferreira.br.repositorio.ClienteRepositorio;
+import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+
+@SpringBootTest
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class IndiceTrigramasServiceTest {
+	
+	@Autowired
+	private IndiceTrigramasService indiceTrigramasService;
+	
+	@Autowired
+	private ClienteRepositorio clienteRepositorio;
+	
+	@Autowired
+	private ClienteService clienteService;
+	
+	@Autowired
+	private UsuarioService usuarioService;
+	
+	@Autowired
+	private LivroService livroService;
+	
+	@Autowired
+	private CategoriaService categoriaService;
+	
+	@Test
+	@DisplayName("Deve filtrar os clientes pelo pedaço do nome completo com os candidatos do índice.")
+	public void deveFiltrarClientesPeloIndice() {
+		
+		// Cenário
+		Cliente cecilia = inserirCliente("Cecília Meireles", "91000000001");
+		Cliente clarice = inserirCliente("Clarice Lispector", "91000000002");
+		
+		// Executando
+		clienteService.inserirCliente(CriarClienteDTO.builder().id(clarice.getId()).nomeCompleto("Clarice Meireles").documento("91000000002")
+				.dataNascimento(LocalDate.of(1920, 12, 10)).possuiLivro(false).tipoDocumentoCodigo(1).build());
+		
+		// Verificando, o nome alterado troca os candidatos e o filtro não diferencia acento e letra maiúscula
+		assertThat(indiceTrigramasService.getCandidatosNomeCompleto("meireles")).containsExactly(cecilia.getId(), clarice.getId());
+		assertThat(clienteService.clientesFiltros(ProcurarClienteDTO.builder().nomeCompleto("MEIRELES").build()))
+				.extracting(c -> c.getId()).containsExactly(clarice.getId(), cecilia.getId());
+		assertThat(clienteService.clientesFiltros(ProcurarClienteDTO.builder().nomeCompleto("cecilia  meir").build()))
+				.extracting(c -> c.getId()).containsExactly(cecilia.getId());
+		assertThat(clienteService.clientesFiltros(ProcurarClienteDTO.builder().nomeCompleto("Lispector").build())).isEmpty();
+		
+		// Executando
+		clienteService.deletar(cecilia.getId());
+		clienteService.deletar(clarice.getId());
+		
+		// Verificando
+		assertThat(indiceTrigramasService.getCandidatosNomeCompleto("meireles")).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve filtrar os usuários pelo pedaço do autor e os livros pelo pedaço do isbn com os candidatos do índice.")
+	public void deveFiltrarUsuariosLivrosPeloIndice() {
+		
+		// Cenário
+		Usuario usuario = usuarioService.inserir(CriarUsuarioDTO.builder().autor("Cora Coralina").dataNascimento(new Date(0)).build());
+		Categoria categoria = categoriaService.inserirCategoria(CriarCategoriaDTO.builder().descricao("Poesia Goiana").build());
+		Livro livro = livroService.inserir(CriarLivroDTO.builder().titulo("Poemas Dos Becos De Goiás").isbn("8526012345").estoque(1)
+				.idUsuario(usuario.getId()).idCategoria(categoria.getId()).build());
+		
+		// Executando e verificando, o filtro de livros pelo autor não tem o % e usa o índice da coluna normalizada
+		assertThat(usuarioService.filtroUsuarios(ProcurarUsuarioDTO.builder().autor("ra Cor").build()))
+				.extracting(u -> u.getId()).containsExactly(usuario.getId());
+		assertThat(livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().usuarioNome("CORA coralina").build(), PageRequest.of(0, 5)).getContent())
+				.extracting(l -> l.getId()).containsExactly(livro.getId());
+		assertThat(livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().isbn("601234").build(), PageRequest.of(0, 5)).getContent())
+				.extracting(l -> l.getId()).containsExactly(livro.getId());
+		assertThat(livroService.buscarLivrosPaginadas(ProcurarLivroDTO.builder().isbn("601235").build(), PageRequest.of(0, 5)).getTotalElements())
+				.isZero();
+		
+		// Executando
+		livroService.deletar(livro.getId());
+		usuarioService.deletar(usuario.getId());
+		categoriaService.deletar(categoria.getId());
+		
+		// Verificando
+		assertThat(indiceTrigramasService.getCandidatosIsbn("601234")).isEmpty();
+		assertThat(indiceTrigramasService.getCandidatosAutor("coralina")).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve remover pelo filtro o cliente gravado sem passar pelo índice.")
+	public void deveRemoverClienteForaDoIndice() {
+		
+		// Cenário, o cliente gravado direto pelo repositório não chega ao índice
+		Cliente cecilia = inserirCliente("Cecília Meireles", "91000000003");
+		Cliente foraIndice = clienteRepositorio.save(Cliente.builder().nomeCompleto("Clarice Meireles").documento("91000000004")
+				.dataNascimento(LocalDate.of(1920, 12, 10)).possuiLivro(false).tipoDocumento(TipoDocumento.CPF).build());
+		
+		// Executando, a remoção pelo filtro fica somente com o LIKE
+		int removidos = clienteService.deletarClientesFiltro(ProcurarClienteDTO.builder().nomeCompleto("meireles").build());
+		
+		// Verificando
+		assertThat(removidos).isEqualTo(2);
+		assertThat(clienteRepositorio.existsById(foraIndice.getId())).isFalse();
+		assertThat(indiceTrigramasService.getCandidatosNomeCompleto("meireles")).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve usar os candidatos somente depois da carga inicial do índice e com a aplicação em uma instância só.")
+	public void deveUsarCandidatosComIndiceCompleto() {
+		
+		// Cenário
+		ClienteRepositorio clienteRepositorioMock = Mockito.mock(ClienteRepositorio.class);
+		UsuarioRepositorio usuarioRepositorioMock = Mockito.mock(UsuarioRepositorio.class);
+		LivroRepositorio livroRepositorioMock = Mockito.mock(LivroRepositorio.class);
+		Mockito.when(clienteRepositorioMock.buscarNomesCompletosIndice()).thenReturn(List.of(new SugestaoDTO(1L, "cecilia meireles")));
+		IndiceTrigramasService indiceInstanciaUnica = new IndiceTrigramasService(clienteRepositorioMock, usuarioRepositorioMock, livroRepositorioMock, 1000, true);
+		IndiceTrigramasService indiceVariasInstancias = new IndiceTrigramasService(clienteRepositorioMock, usuarioRepositorioMock, livroRepositorioMock, 1000, false);
+		
+		// Executando e verificando
+		assertThat(indiceInstanciaUnica.getCandidatosNomeCompleto("meireles")).isNull();
+		indiceInstanciaUnica.afterPropertiesSet();
+		indiceVariasInstancias.afterPropertiesSet();
+		assertThat(indiceInstanciaUnica.getCandidatosNomeCompleto("meireles")).containsExactly(1L);
+		assertThat(indiceVariasInstancias.getCandidatosNomeCompleto("meireles")).isNull();
+		
+		// O filtro não consulta o total da tabela
+		Mockito.verify(clienteRepositorioMock, Mockito.never()).count();
+	}
+	
+	private Cliente inserirCliente(String nomeCompleto, String documento) {
+		return clienteService.inserirCliente(CriarClienteDTO.builder().nomeCompleto(nomeCompleto).documento(documento)
+				.dataNascimento(LocalDate.of(1901, 11, 7)).possuiLivro(false).tipoDocumentoCodigo(1).build());
+	}
+	
+}
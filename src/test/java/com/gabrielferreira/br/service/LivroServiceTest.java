@@ -2,9 +2,11 @@ package com.gabrielferreira.br.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,12 +18,17 @@ import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.validation.Validation;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +36,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -39,8 +48,12 @@ import com.gabrielferreira.br.modelo.Livro;
 import com.gabrielferreira.br.modelo.Usuario;
 import com.gabrielferreira.br.modelo.dto.criar.CriarLivroDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.LivroDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RelatorioLoteDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarLivroDTO;
 import com.gabrielferreira.br.repositorio.LivroRepositorio;
+import com.gabrielferreira.br.utils.CursorPaginacao;
+import com.gabrielferreira.br.utils.ValidacaoFormatacao;
 
 @ExtendWith(SpringExtension.class) // O Spring deve rodar um mini contexto de injeção de dependecia para rodar os testes
 @ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
@@ -52,20 +65,24 @@ public class LivroServiceTest {
 	
 	private CategoriaService categoriaService;
 	
+	private FiltroBloomService filtroBloomService;
+	
+	private IndiceTrigramasService indiceTrigramasService;
+	
 	private LivroRepositorio livroRepositorio;
 	
 	private EntityManager entityManager;
 	
 	private CriteriaBuilder criteriaBuilder;
 	
-	private CriteriaQuery<Livro> criteriaQuery;
+	private CriteriaQuery<LivroDTO> criteriaQuery;
 	
 	private Root<Livro> root;
 	
 	private Join<Object, Object> usuarioJoin;
 	private Join<Object, Object> categoriaJoin;
 	
-	private TypedQuery<Livro> typedQuery;
+	private TypedQuery<LivroDTO> typedQuery;
 	
 	private Predicate predicateTitulo;
 	private Predicate predicateIsbn;
@@ -78,7 +95,15 @@ public class LivroServiceTest {
 		livroRepositorio = Mockito.mock(LivroRepositorio.class);
 		categoriaService = Mockito.mock(CategoriaService.class);
 		entityManager = Mockito.mock(EntityManager.class);
-		livroService = new LivroService(livroRepositorio, usuarioService,categoriaService,entityManager);
+		filtroBloomService = Mockito.mock(FiltroBloomService.class);
+		indiceTrigramasService = Mockito.mock(IndiceTrigramasService.class);
+		livroService = new LivroService(livroRepositorio, usuarioService,categoriaService,entityManager, filtroBloomService, Mockito.mock(BuscaLivroService.class),
+				Mockito.mock(AutocompletarService.class), indiceTrigramasService, Validation.buildDefaultValidatorFactory().getValidator());
+		
+		// O filtro de bloom e o índice de trigramas não diminuem as consultas, a menos que o teste diga o contrário
+		when(filtroBloomService.podeExistirTitulo(any())).thenReturn(true);
+		when(filtroBloomService.podeExistirIsbn(any())).thenReturn(true);
+		when(indiceTrigramasService.getCandidatosIsbn(any())).thenReturn(null);
 	}
 	
 	@BeforeEach
@@ -118,19 +143,19 @@ public class LivroServiceTest {
 				.estoque(criarLivroDTO.getEstoque()).build();
 		
 		// Quando for verificar o método de isbn ja cadastrado, deve retornar null, ou seja não existe isbn repetido
-		when(livroRepositorio.buscarIsbnLivro(criarLivroDTO.getIsbn())).thenReturn(null);
+		when(livroRepositorio.existsByIsbn(criarLivroDTO.getIsbn())).thenReturn(false);
 		
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja não existe titulo cadastrado
 		when(livroRepositorio.existsByTitulo(criarLivroDTO.getTitulo())).thenReturn(false);
 		
 		// Quando for salvar no repositorio, retornar o livro criado ja com o id embutido
-		when(livroRepositorio.save(any())).thenReturn(livroCriado);
+		when(livroRepositorio.saveAndFlush(any())).thenReturn(livroCriado);
 		
 		// Executando o método
 		Livro livroSaldo = livroService.inserir(criarLivroDTO);
 		
 		// Verificando se foi invocado o save no service
-		verify(livroRepositorio).save(any());
+		verify(livroRepositorio).saveAndFlush(any());
 		
 		// Verificando 
 		assertThat(livroSaldo.getId()).isNotNull();
@@ -157,19 +182,19 @@ public class LivroServiceTest {
 							estoque(criarLivroDTO.getEstoque()).build();
 		
 		// Quando for verificar o método de isbn ja cadastrado, deve retornar null, ou seja não existe isbn repetido
-		when(livroRepositorio.buscarIsbnLivroQuandoForAtualizar(criarLivroDTO.getIsbn(),criarLivroDTO.getId())).thenReturn(null);
+		when(livroRepositorio.existsByIsbnAndIdNot(criarLivroDTO.getIsbn(),criarLivroDTO.getId())).thenReturn(false);
 		
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja não existe titulo cadastrado
-		when(livroRepositorio.existsByTituloQuandoForAtualizar(criarLivroDTO.getTitulo(),criarLivroDTO.getId())).thenReturn(Optional.empty());
+		when(livroRepositorio.existsByTituloAndIdNot(criarLivroDTO.getTitulo(),criarLivroDTO.getId())).thenReturn(false);
 		
 		// Quando for atualizar no repositorio, retornar o livro que queria já salvar
-		when(livroRepositorio.save(any())).thenReturn(livroAtualizado);
+		when(livroRepositorio.saveAndFlush(any())).thenReturn(livroAtualizado);
 		
 		// Executando o método
 		Livro livroParaAtualizar = livroService.inserir(criarLivroDTO);
 		
 		// Verificando se foi invocado o save no service
-		verify(livroRepositorio).save(any());
+		verify(livroRepositorio).saveAndFlush(any());
 		
 		// Verificando 
 		assertThat(livroParaAtualizar.getId()).isNotNull();
@@ -191,20 +216,15 @@ public class LivroServiceTest {
 				.titulo("Teste Livro atualizar").subtitulo("Teste subtitulo atualizar")
 				.sinopse("Teste sinopse atualizar").build();
 
-		// Entidade que já esta salva no banco do mock
-		Livro livroSalvo = Livro.builder().id(50L).usuario(usuarioAtualizar).isbn("002")
-				.titulo("Teste salvo").subtitulo("Teste subtitulo salvo")
-				.sinopse("Teste sinopse salvo").build();
-
 		// Quando for verificar o método de isbn ja cadastrado, deve retornar null, ou
 		// seja não existe isbn repetido
-		when(livroRepositorio.buscarIsbnLivroQuandoForAtualizar(criarLivroDTO.getIsbn(), criarLivroDTO.getId()))
-				.thenReturn(livroSalvo);
+		when(livroRepositorio.existsByIsbnAndIdNot(criarLivroDTO.getIsbn(), criarLivroDTO.getId()))
+				.thenReturn(true);
 
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja
 		// não existe titulo cadastrado
-		when(livroRepositorio.existsByTituloQuandoForAtualizar(criarLivroDTO.getTitulo(), criarLivroDTO.getId()))
-				.thenReturn(Optional.empty());
+		when(livroRepositorio.existsByTituloAndIdNot(criarLivroDTO.getTitulo(), criarLivroDTO.getId()))
+				.thenReturn(false);
 
 
 		// Execução
@@ -212,7 +232,7 @@ public class LivroServiceTest {
 				
 		// Verificação
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(livroRepositorio,never()).save(any());
+		verify(livroRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -229,20 +249,15 @@ public class LivroServiceTest {
 				.titulo("Teste Livro Atualizar").subtitulo("Teste subtitulo atualizar")
 				.sinopse("Teste sinopse atualizar").build();
 
-		// Entidade que já esta salva no banco do mock
-		Livro livroSalvo = Livro.builder().id(50L).usuario(usuarioAtualizar).isbn("004")
-				.titulo("Teste Livro atualizar").subtitulo("Teste subtitulo salvo")
-				.sinopse("Teste sinopse salvo").build();
-
 		// Quando for verificar o método de isbn ja cadastrado, deve retornar null, ou
 		// seja não existe isbn repetido
-		when(livroRepositorio.buscarIsbnLivroQuandoForAtualizar(criarLivroDTO.getIsbn(), criarLivroDTO.getId()))
-				.thenReturn(null);
+		when(livroRepositorio.existsByIsbnAndIdNot(criarLivroDTO.getIsbn(), criarLivroDTO.getId()))
+				.thenReturn(false);
 
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja
 		// não existe titulo cadastrado
-		when(livroRepositorio.existsByTituloQuandoForAtualizar(criarLivroDTO.getTitulo(), criarLivroDTO.getId()))
-				.thenReturn(Optional.of(livroSalvo));
+		when(livroRepositorio.existsByTituloAndIdNot(criarLivroDTO.getTitulo(), criarLivroDTO.getId()))
+				.thenReturn(true);
 
 
 		// Execução
@@ -250,7 +265,7 @@ public class LivroServiceTest {
 				
 		// Verificação
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(livroRepositorio,never()).save(any());
+		verify(livroRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -267,10 +282,8 @@ public class LivroServiceTest {
 		CriarLivroDTO criarLivroDTO = CriarLivroDTO.builder().id(null).idUsuario(usuario.getId()).isbn("001").titulo("Teste Livro Gabriel").subtitulo("Teste teste Gabriel")
 				.sinopse("Teste sinopse gabriel").build();
 		
-		// Já está salvo no banco mockado e com o isbn igual da variavel criarLivroDto
-		Livro livroBuscado = Livro.builder().id(22L).usuario(any()).isbn("001").titulo("Teste Livro 123").subtitulo("Teste teste 123").sinopse("Teste sinopse 123").build();
 		// Quando for verificar o isbn cadastrado, é pra retorna com o livro de cima
-		when(livroRepositorio.buscarIsbnLivro(criarLivroDTO.getIsbn())).thenReturn(livroBuscado);
+		when(livroRepositorio.existsByIsbn(criarLivroDTO.getIsbn())).thenReturn(true);
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja não existe titulo cadastrado
 		when(livroRepositorio.existsByTitulo(criarLivroDTO.getTitulo())).thenReturn(false);
 		
@@ -279,7 +292,7 @@ public class LivroServiceTest {
 		
 		// Verificação
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(livroRepositorio,never()).save(any());
+		verify(livroRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -300,14 +313,14 @@ public class LivroServiceTest {
 		when(livroRepositorio.existsByTitulo(criarLivroDTO.getTitulo())).thenReturn(true);
 		
 		// Quando for verificar o isbn cadastrado, é pra retorna null, pois não existe
-		when(livroRepositorio.buscarIsbnLivro(criarLivroDTO.getIsbn())).thenReturn(null);
+		when(livroRepositorio.existsByIsbn(criarLivroDTO.getIsbn())).thenReturn(false);
 		
 		// Execução
 		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class, () -> livroService.inserir(criarLivroDTO));
 		
 		// Verificação
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(livroRepositorio,never()).save(any());
+		verify(livroRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -322,7 +335,7 @@ public class LivroServiceTest {
 		when(usuarioService.getDetalhe(criarLivroDTO.getIdUsuario())).thenReturn(usuario);
 		
 		// Quando for verificar o método de isbn ja cadastrado, deve retornar null, ou seja não existe isbn repetido
-		when(livroRepositorio.buscarIsbnLivro(criarLivroDTO.getIsbn())).thenReturn(null);
+		when(livroRepositorio.existsByIsbn(criarLivroDTO.getIsbn())).thenReturn(false);
 				
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja não existe titulo cadastrado
 		when(livroRepositorio.existsByTitulo(criarLivroDTO.getTitulo())).thenReturn(false);
@@ -332,7 +345,7 @@ public class LivroServiceTest {
 	
 		// Verificando
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(livroRepositorio,never()).save(any());
+		verify(livroRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -347,7 +360,7 @@ public class LivroServiceTest {
 		when(usuarioService.getDetalhe(criarLivroDTO.getIdUsuario())).thenReturn(usuario);
 				
 		// Quando for verificar o método de isbn ja cadastrado, deve retornar null, ou seja não existe isbn repetido
-		when(livroRepositorio.buscarIsbnLivro(criarLivroDTO.getIsbn())).thenReturn(null);
+		when(livroRepositorio.existsByIsbn(criarLivroDTO.getIsbn())).thenReturn(false);
 						
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja não existe titulo cadastrado
 		when(livroRepositorio.existsByTitulo(criarLivroDTO.getTitulo())).thenReturn(false);
@@ -357,7 +370,7 @@ public class LivroServiceTest {
 			
 		// Verificando
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(livroRepositorio,never()).save(any());
+		verify(livroRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -373,7 +386,7 @@ public class LivroServiceTest {
 		when(usuarioService.getDetalhe(criarLivroDTO.getIdUsuario())).thenReturn(usuario);
 				
 		// Quando for verificar o método de isbn ja cadastrado, deve retornar null, ou seja não existe isbn repetido
-		when(livroRepositorio.buscarIsbnLivro(criarLivroDTO.getIsbn())).thenReturn(null);
+		when(livroRepositorio.existsByIsbn(criarLivroDTO.getIsbn())).thenReturn(false);
 						
 		// Quando for verificar o titulo cadastrado, é pra retorna como false, ou seja não existe titulo cadastrado
 		when(livroRepositorio.existsByTitulo(criarLivroDTO.getTitulo())).thenReturn(false);
@@ -383,7 +396,7 @@ public class LivroServiceTest {
 			
 		// Verificando
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage("Estoque do livro não pode ser menor do que 0.");
-		verify(livroRepositorio,never()).save(any());
+		verify(livroRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -461,17 +474,34 @@ public class LivroServiceTest {
 		Livro livro = Livro.builder().id(22L).usuario(usuario).isbn("Teste isbn").titulo("Teste titulo")
 				.subtitulo("Teste subtitulo").sinopse("Teste sinopse").build();
 		
-		// Quando for buscar o livro, vai ter que retornar o livro de cima 
-		doReturn(Optional.of(livro)).when(livroRepositorio).findById(livro.getId());
+		// O delete direto no banco remove um registro
+		when(livroRepositorio.deletarPorId(livro.getId())).thenReturn(1);
 		
 		// Executand o método 
 		livroService.deletar(livro.getId());
 		
-		// Verificação
-		verify(livroRepositorio).deleteById(livro.getId());
+		// Verificação, o livro não é buscado antes do delete
+		verify(livroRepositorio).deletarPorId(livro.getId());
+		verify(livroRepositorio,never()).findById(anyLong());
 		
 	}
 	
+	@Test
+	@DisplayName("Não deve deletar o livro quando o delete não remove nenhum registro.")
+	public void naoDeveDeletarLivroInexistente() {
+		
+		// Cenário
+		when(livroRepositorio.deletarPorId(22L)).thenReturn(0);
+		
+		// Execução
+		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class, () -> livroService.deletar(22L));
+		
+		// Verificação, a mesma instância sem pilha é reaproveitada
+		assertThat(exception).hasMessage("Registro não encontrado.");
+		assertThat(exception).isSameAs(EntidadeNotFoundException.REGISTRO_NAO_ENCONTRADO);
+		assertThat(exception.getStackTrace()).isEmpty();
+	}
+	
 	@Test
 	@DisplayName("Não deve deletar livro pois o id não foi informado.")
 	public void naoDeveDeletarLivro() {
@@ -494,37 +524,84 @@ public class LivroServiceTest {
 		ProcurarLivroDTO procurarLivroDTO = ProcurarLivroDTO.builder().titulo("Teste").isbn("123321").usuarioNome("Gab").descricaoCategoria("Aventuras")
 					.build();
 		
-		List<Livro> livros = new ArrayList<Livro>();
+		List<LivroDTO> livros = new ArrayList<LivroDTO>();
 		Usuario usuario = Usuario.builder().autor("Gabriel 1").id(1L).dataNascimento(new Date()).build();
 		Categoria categoria = Categoria.builder().id(1L).descricao("Aventura").build();
 		
-		livros.add(Livro.builder().id(1L).titulo("Teste 1").subtitulo("Teste sub 1").sinopse("Teste sin 1").isbn("123")
-				.usuario(usuario).categoria(categoria).build());
-		livros.add(Livro.builder().id(2L).titulo("Teste 2").subtitulo("Teste sub 2").sinopse("Teste sin 2").isbn("321")
-				.usuario(usuario).categoria(categoria).build());
-		livros.add(Livro.builder().id(3L).titulo("Teste 3").subtitulo("Teste sub 3").sinopse("Teste sin 3").isbn("123345")
-				.usuario(usuario).categoria(categoria).build());
-		livros.add(Livro.builder().id(4L).titulo("Teste 4").subtitulo("Teste sub 4").sinopse("Teste sin 4").isbn("9568054")
-				.usuario(usuario).categoria(categoria).build());
+		livros.add(new LivroDTO(Livro.builder().id(1L).titulo("Teste 1").subtitulo("Teste sub 1").sinopse("Teste sin 1").isbn("123")
+				.usuario(usuario).categoria(categoria).build()));
+		livros.add(new LivroDTO(Livro.builder().id(2L).titulo("Teste 2").subtitulo("Teste sub 2").sinopse("Teste sin 2").isbn("321")
+				.usuario(usuario).categoria(categoria).build()));
+		livros.add(new LivroDTO(Livro.builder().id(3L).titulo("Teste 3").subtitulo("Teste sub 3").sinopse("Teste sin 3").isbn("123345")
+				.usuario(usuario).categoria(categoria).build()));
+		livros.add(new LivroDTO(Livro.builder().id(4L).titulo("Teste 4").subtitulo("Teste sub 4").sinopse("Teste sin 4").isbn("9568054")
+				.usuario(usuario).categoria(categoria).build()));
 		
 		condicaoConsultaTeste(procurarLivroDTO);
 		
 		when(criteriaBuilder.like(root.get("titulo"), "%" + procurarLivroDTO.getTitulo() + "%")).thenReturn(predicateTitulo);
 		when(criteriaBuilder.like(root.get("isbn"), "%" + procurarLivroDTO.getIsbn() + "%")).thenReturn(predicateIsbn);
-		when(criteriaBuilder.like(usuarioJoin.get("autor"), procurarLivroDTO.getUsuarioNome())).thenReturn(predicateAutor);
+		when(criteriaBuilder.like(usuarioJoin.get("autorNormalizado"), ValidacaoFormatacao.getTextoNormalizado(procurarLivroDTO.getUsuarioNome()))).thenReturn(predicateAutor);
 		when(criteriaBuilder.like(categoriaJoin.get("descricao"), procurarLivroDTO.getDescricaoCategoria())).thenReturn(predicateCategoria);
 		when(typedQuery.getResultList()).thenReturn(livros);
 		
 		// Executando
-		List<LivroDTO> livrosDtos = livroService.buscarLivrosPaginadas(procurarLivroDTO);
+		Page<LivroDTO> livrosDtos = livroService.buscarLivrosPaginadas(procurarLivroDTO, PageRequest.of(0, 5));
 		
 		// Verificando
-		assertThat(livrosDtos).hasSize(4);
+		assertThat(livrosDtos.getContent()).hasSize(4);
+		assertThat(livrosDtos.getTotalElements()).isEqualTo(4);
+		verify(typedQuery).setFirstResult(0);
+		verify(typedQuery).setMaxResults(5);
+		
+		// Como a página não foi preenchida, não precisa executar a consulta de total
+		verify(criteriaBuilder,never()).createQuery(Long.class);
 		
 	}
 	
 	@Test
-	@DisplayName("Não deve mostrar lista de livros com todos os parametros informados pois não encontrou nenhum registro.")
+	@DisplayName("Deve mostrar somente a página informada da lista de livros, buscando o total no banco.")
+	@SuppressWarnings("unchecked")
+	public void deveMostrarPaginaDeLivrosComTotal() throws ParseException {
+		
+		// Cenário 
+		ProcurarLivroDTO procurarLivroDTO = ProcurarLivroDTO.builder().titulo("Teste").build();
+		
+		List<LivroDTO> livros = new ArrayList<LivroDTO>();
+		Usuario usuario = Usuario.builder().autor("Gabriel 1").id(1L).dataNascimento(new Date()).build();
+		Categoria categoria = Categoria.builder().id(1L).descricao("Aventura").build();
+		
+		livros.add(new LivroDTO(Livro.builder().id(3L).titulo("Teste 3").subtitulo("Teste sub 3").sinopse("Teste sin 3").isbn("123345")
+				.usuario(usuario).categoria(categoria).build()));
+		livros.add(new LivroDTO(Livro.builder().id(4L).titulo("Teste 4").subtitulo("Teste sub 4").sinopse("Teste sin 4").isbn("9568054")
+				.usuario(usuario).categoria(categoria).build()));
+		
+		condicaoConsultaTeste(procurarLivroDTO);
+		
+		CriteriaQuery<Long> criteriaQueryTotal = Mockito.mock(CriteriaQuery.class);
+		TypedQuery<Long> typedQueryTotal = Mockito.mock(TypedQuery.class);
+		when(criteriaBuilder.createQuery(Long.class)).thenReturn(criteriaQueryTotal);
+		when(criteriaQueryTotal.from(Livro.class)).thenReturn(root);
+		when(entityManager.createQuery(criteriaQueryTotal)).thenReturn(typedQueryTotal);
+		when(typedQueryTotal.getSingleResult()).thenReturn(10L);
+		
+		when(criteriaBuilder.like(root.get("titulo"), "%" + procurarLivroDTO.getTitulo() + "%")).thenReturn(predicateTitulo);
+		when(typedQuery.getResultList()).thenReturn(livros);
+		
+		// Executando
+		Page<LivroDTO> livrosDtos = livroService.buscarLivrosPaginadas(procurarLivroDTO, PageRequest.of(1, 2));
+		
+		// Verificando
+		assertThat(livrosDtos.getContent()).hasSize(2);
+		assertThat(livrosDtos.getTotalElements()).isEqualTo(10);
+		assertThat(livrosDtos.getTotalPages()).isEqualTo(5);
+		verify(typedQuery).setFirstResult(2);
+		verify(typedQuery).setMaxResults(2);
+		
+	}
+	
+	@Test
+	@DisplayName("Deve mostrar a página vazia de livros com todos os parametros informados quando não encontrar nenhum registro.")
 	public void naoDeveMostrarListaDeLivrosParametros() throws ParseException {
 		
 		// Cenário 
@@ -535,23 +612,264 @@ public class LivroServiceTest {
 		
 		when(criteriaBuilder.like(root.get("titulo"), "%" + procurarLivroDTO.getTitulo() + "%")).thenReturn(predicateTitulo);
 		when(criteriaBuilder.like(root.get("isbn"), "%" + procurarLivroDTO.getIsbn() + "%")).thenReturn(predicateIsbn);
-		when(criteriaBuilder.like(usuarioJoin.get("autor"), procurarLivroDTO.getUsuarioNome())).thenReturn(predicateAutor);
+		when(criteriaBuilder.like(usuarioJoin.get("autorNormalizado"), ValidacaoFormatacao.getTextoNormalizado(procurarLivroDTO.getUsuarioNome()))).thenReturn(predicateAutor);
 		when(typedQuery.getResultList()).thenReturn(new ArrayList<>());
 		
 		// Executando
-		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class,
-							() -> livroService.buscarLivrosPaginadas(procurarLivroDTO));
+		Page<LivroDTO> livros = livroService.buscarLivrosPaginadas(procurarLivroDTO, PageRequest.of(0, 5));
 				
+		// Verificação, a página vazia é deduzida sem a consulta do total
+		assertThat(livros.getContent()).isEmpty();
+		assertThat(livros.getTotalElements()).isZero();
+		
+	}
+	
+	@Test
+	@DisplayName("Deve mostrar a primeira página de livros por cursor, retornando o cursor da próxima página.")
+	public void deveMostrarPrimeiraPaginaDeLivrosCursor() {
+		
+		// Cenário 
+		ProcurarLivroDTO procurarLivroDTO = ProcurarLivroDTO.builder().titulo("Teste").build();
+		
+		List<LivroDTO> livros = new ArrayList<LivroDTO>();
+		Usuario usuario = Usuario.builder().autor("Gabriel 1").id(1L).dataNascimento(new Date()).build();
+		Categoria categoria = Categoria.builder().id(1L).descricao("Aventura").build();
+		
+		livros.add(new LivroDTO(Livro.builder().id(3L).titulo("Teste 3").usuario(usuario).categoria(categoria).build()));
+		livros.add(new LivroDTO(Livro.builder().id(2L).titulo("Teste 2").usuario(usuario).categoria(categoria).build()));
+		livros.add(new LivroDTO(Livro.builder().id(1L).titulo("Teste 1").usuario(usuario).categoria(categoria).build()));
+		
+		condicaoConsultaTeste(procurarLivroDTO);
+		
+		when(criteriaBuilder.like(root.get("titulo"), "%" + procurarLivroDTO.getTitulo() + "%")).thenReturn(predicateTitulo);
+		when(typedQuery.getResultList()).thenReturn(livros);
+		
+		// Executando
+		PaginaCursorDTO<LivroDTO> paginaCursor = livroService.buscarLivrosCursor(procurarLivroDTO, null, 2);
+		
+		// Verificando, buscou um registro a mais para saber se existe próxima página
+		verify(typedQuery).setMaxResults(3);
+		verify(typedQuery,never()).setFirstResult(anyInt());
+		assertThat(paginaCursor.getConteudo()).hasSize(2);
+		
+		CursorPaginacao proximo = CursorPaginacao.lerCursor(paginaCursor.getProximo());
+		assertThat(proximo.getChave()).isEqualTo("Teste 2");
+		assertThat(proximo.getId()).isEqualTo(2L);
+	}
+	
+	@Test
+	@DisplayName("Deve retornar a última página de livros por cursor vazia, sem cursor para a próxima página.")
+	@SuppressWarnings("unchecked")
+	public void deveMostrarUltimaPaginaDeLivrosCursor() {
+		
+		// Cenário 
+		ProcurarLivroDTO procurarLivroDTO = ProcurarLivroDTO.builder().build();
+		String cursor = CursorPaginacao.gerarCursor("Teste 1", 1L);
+		Path<String> pathTitulo = Mockito.mock(Path.class);
+		Path<Long> pathId = Mockito.mock(Path.class);
+		
+		condicaoConsultaTeste(procurarLivroDTO);
+		
+		when(root.<String>get("titulo")).thenReturn(pathTitulo);
+		when(root.<Long>get("id")).thenReturn(pathId);
+		when(typedQuery.getResultList()).thenReturn(new ArrayList<>());
+		
+		// Executando
+		PaginaCursorDTO<LivroDTO> paginaCursor = livroService.buscarLivrosCursor(procurarLivroDTO, cursor, 2);
+		
+		// Verificando
+		verify(criteriaBuilder).lessThan(pathTitulo, "Teste 1");
+		verify(criteriaBuilder).lessThan(pathId, 1L);
+		assertThat(paginaCursor.getConteudo()).isEmpty();
+		assertThat(paginaCursor.getProximo()).isNull();
+	}
+	
+	@Test
+	@DisplayName("Não deve mostrar livros por cursor pois o cursor informado é inválido.")
+	public void naoDeveMostrarLivrosCursorInvalido() {
+		
+		// Cenário 
+		ProcurarLivroDTO procurarLivroDTO = ProcurarLivroDTO.builder().build();
+		
+		condicaoConsultaTeste(procurarLivroDTO);
+		
+		// Executando
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class,
+							() -> livroService.buscarLivrosCursor(procurarLivroDTO, "cursor-invalido", 2));
+		
 		// Verificação
-		assertThat(exception).isInstanceOf(EntidadeNotFoundException.class).hasMessage(exception.getMessage());
+		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage("Cursor de paginação inválido.");
+	}
+	
+	@Test
+	@DisplayName("Deve exportar os livros filtrados percorrendo a consulta como stream.")
+	public void deveExportarLivros() {
+		
+		// Cenário 
+		ProcurarLivroDTO procurarLivroDTO = ProcurarLivroDTO.builder().titulo("Teste").build();
+		
+		Usuario usuario = Usuario.builder().autor("Gabriel 1").id(1L).dataNascimento(new Date()).build();
+		Categoria categoria = Categoria.builder().id(1L).descricao("Aventura").build();
+		LivroDTO livro1 = new LivroDTO(Livro.builder().id(1L).titulo("Teste 1").usuario(usuario).categoria(categoria).build());
+		LivroDTO livro2 = new LivroDTO(Livro.builder().id(2L).titulo("Teste 2").usuario(usuario).categoria(categoria).build());
+		
+		condicaoConsultaTeste(procurarLivroDTO);
+		
+		when(criteriaBuilder.like(root.get("titulo"), "%" + procurarLivroDTO.getTitulo() + "%")).thenReturn(predicateTitulo);
+		when(typedQuery.getResultStream()).thenReturn(Stream.of(livro1, livro2));
+		
+		// Executando
+		List<LivroDTO> exportados = new ArrayList<LivroDTO>();
+		livroService.exportarLivros(procurarLivroDTO, exportados::add);
+		
+		// Verificando, a consulta não carrega a lista inteira
+		assertThat(exportados).containsExactly(livro1, livro2);
+		verify(typedQuery).getResultStream();
+		verify(typedQuery,never()).getResultList();
+	}
+	
+	@Test
+	@DisplayName("Deve inserir o livro sem consultar o título e o ISBN no banco quando o filtro de bloom não conhece as chaves.")
+	public void deveInserirLivroSemConsultarDuplicidade() {
+		
+		// Cenário
+		Usuario usuario = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		Categoria categoria = Categoria.builder().id(2L).descricao("Aventura").build();
+		CriarLivroDTO criarLivroDTO = CriarLivroDTO.builder().id(null).idUsuario(usuario.getId()).isbn("123")
+				.titulo("Teste Livro").subtitulo("Teste teste").sinopse("Teste sinopse").estoque(100).idCategoria(categoria.getId()).build();
+		
+		when(usuarioService.getDetalhe(criarLivroDTO.getIdUsuario())).thenReturn(usuario);
+		when(categoriaService.getDetalhe(criarLivroDTO.getIdCategoria())).thenReturn(categoria);
+		when(filtroBloomService.podeExistirIsbn(criarLivroDTO.getIsbn())).thenReturn(false);
+		when(filtroBloomService.podeExistirTitulo(criarLivroDTO.getTitulo())).thenReturn(false);
+		
+		Livro livroCriado = Livro.builder().id(22L).usuario(usuario).categoria(categoria).isbn(criarLivroDTO.getIsbn()).titulo(criarLivroDTO.getTitulo()).build();
+		when(livroRepositorio.saveAndFlush(any())).thenReturn(livroCriado);
+		
+		// Executando
+		livroService.inserir(criarLivroDTO);
 		
+		// Verificando, as chaves do livro novo entram no filtro
+		verify(livroRepositorio,never()).existsByIsbn(any());
+		verify(livroRepositorio,never()).existsByTitulo(any());
+		verify(filtroBloomService).adicionarLivro(livroCriado);
+	}
+	
+	@Test
+	@DisplayName("Deve consultar o banco quando o filtro de bloom diz que o ISBN pode existir.")
+	public void deveConsultarIsbnQuandoFiltroPodeConter() {
+		
+		// Cenário
+		Livro livro = Livro.builder().id(null).isbn("001").titulo("Teste Livro").build();
+		when(filtroBloomService.podeExistirIsbn(livro.getIsbn())).thenReturn(true);
+		when(livroRepositorio.existsByIsbn(livro.getIsbn())).thenReturn(true);
+		
+		// Execução
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class, () -> livroService.verificarIsbnExistente(livro));
+		
+		// Verificação
+		assertThat(exception).hasMessage("Este ISBN já foi cadastrado por outro livro.");
+		verify(livroRepositorio).existsByIsbn(livro.getIsbn());
+	}
+	
+	@Test
+	@DisplayName("Deve inserir o lote de livros informando no relatório os registros com erro.")
+	public void deveInserirLoteLivros() {
+		
+		// Cenário
+		Usuario usuario = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		Categoria categoria = Categoria.builder().id(2L).descricao("Aventura").build();
+		List<CriarLivroDTO> criarLivrosDtos = new ArrayList<CriarLivroDTO>();
+		criarLivrosDtos.add(CriarLivroDTO.builder().idUsuario(1L).idCategoria(2L).isbn("123").titulo("Livro Um").subtitulo("Teste teste").sinopse("Teste sinopse").estoque(10).build());
+		criarLivrosDtos.add(CriarLivroDTO.builder().idUsuario(1L).idCategoria(2L).isbn("456").titulo("Livro Dois").subtitulo("Teste teste").sinopse("Teste sinopse").estoque(10).build());
+		criarLivrosDtos.add(CriarLivroDTO.builder().idUsuario(1L).idCategoria(2L).isbn("789").titulo("livro um").subtitulo("Teste teste").sinopse("Teste sinopse").estoque(10).build());
+		criarLivrosDtos.add(CriarLivroDTO.builder().idUsuario(9L).idCategoria(2L).isbn("999").titulo("Livro Tres").subtitulo("Teste teste").sinopse("Teste sinopse").estoque(10).build());
+		
+		when(usuarioService.getListaPorIds(any())).thenReturn(List.of(usuario));
+		when(categoriaService.getListaPorIds(any())).thenReturn(List.of(categoria));
+		when(livroRepositorio.buscarTitulosExistentes(any())).thenReturn(new ArrayList<String>());
+		when(livroRepositorio.buscarIsbnsExistentes(any())).thenReturn(List.of("456"));
+		
+		// Simulando o id gerado pelo banco
+		Mockito.doAnswer(invocation -> {
+			invocation.<Livro>getArgument(0).setId(22L);
+			return null;
+		}).when(entityManager).persist(any(Livro.class));
+		
+		// Executando
+		RelatorioLoteDTO relatorioLoteDTO = livroService.inserirLote(criarLivrosDtos);
+		
+		// Verificando, somente o primeiro livro é inserido e cada erro aponta a sua linha
+		assertThat(relatorioLoteDTO.getTotal()).isEqualTo(4);
+		assertThat(relatorioLoteDTO.getInseridos()).isEqualTo(1);
+		assertThat(relatorioLoteDTO.getErros()).isEqualTo(3);
+		assertThat(relatorioLoteDTO.getLinhas().get(0).getId()).isEqualTo(22L);
+		assertThat(relatorioLoteDTO.getLinhas().get(1).getMensagem()).isEqualTo("Este ISBN já foi cadastrado por outro livro.");
+		assertThat(relatorioLoteDTO.getLinhas().get(2).getMensagem()).isEqualTo("Este Título já foi cadastrado por outro livro.");
+		assertThat(relatorioLoteDTO.getLinhas().get(3).getMensagem()).isEqualTo("Usuário não encontrado.");
+		verify(entityManager).persist(any(Livro.class));
+		verify(filtroBloomService).adicionarLivro(any(Livro.class));
+		verify(usuarioService).getListaPorIds(any());
+		verify(categoriaService).getListaPorIds(any());
+		verify(usuarioService,never()).getDetalhe(anyLong());
+		verify(livroRepositorio,never()).existsByIsbn(any());
+	}
+	
+	@Test
+	@DisplayName("Deve inserir o lote de livros em partes, enviando os inserts e limpando o contexto a cada parte.")
+	public void deveInserirLoteLivrosEmPartes() {
+		
+		// Cenário, 60 livros formam uma parte de 50 e outra de 10
+		Usuario usuario = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		Categoria categoria = Categoria.builder().id(2L).descricao("Aventura").build();
+		List<CriarLivroDTO> criarLivrosDtos = new ArrayList<CriarLivroDTO>();
+		for(int i = 0; i < 60; i++) {
+			criarLivrosDtos.add(CriarLivroDTO.builder().idUsuario(1L).idCategoria(2L).isbn("10" + i).titulo("Livro " + i)
+					.subtitulo("Teste teste").sinopse("Teste sinopse").estoque(10).build());
+		}
+		
+		when(usuarioService.getListaPorIds(any())).thenReturn(List.of(usuario));
+		when(categoriaService.getListaPorIds(any())).thenReturn(List.of(categoria));
+		when(livroRepositorio.buscarTitulosExistentes(any())).thenReturn(new ArrayList<String>());
+		when(livroRepositorio.buscarIsbnsExistentes(any())).thenReturn(new ArrayList<String>());
+		
+		// Executando
+		RelatorioLoteDTO relatorioLoteDTO = livroService.inserirLote(criarLivrosDtos.iterator());
+		
+		// Verificando, as linhas continuam numeradas em sequência entre as partes
+		assertThat(relatorioLoteDTO.getInseridos()).isEqualTo(60);
+		assertThat(relatorioLoteDTO.getLinhas()).extracting(l -> l.getLinha()).containsExactlyElementsOf(
+				Stream.iterate(1, i -> i + 1).limit(60).collect(Collectors.toList()));
+		verify(entityManager, times(60)).persist(any(Livro.class));
+		verify(entityManager, times(2)).flush();
+		verify(entityManager, times(2)).clear();
+		verify(livroRepositorio, times(2)).buscarIsbnsExistentes(any());
+	}
+	
+	@Test
+	@DisplayName("Não deve inserir no lote um livro com id informado.")
+	public void naoDeveInserirLoteLivroComId() {
+		
+		// Cenário
+		List<CriarLivroDTO> criarLivrosDtos = List.of(CriarLivroDTO.builder().id(5L).idUsuario(1L).idCategoria(2L).isbn("123")
+				.titulo("Livro Um").estoque(10).build());
+		
+		// Executando
+		RelatorioLoteDTO relatorioLoteDTO = livroService.inserirLote(criarLivrosDtos);
+		
+		// Verificando
+		assertThat(relatorioLoteDTO.getInseridos()).isZero();
+		assertThat(relatorioLoteDTO.getLinhas().get(0).getMensagem()).isEqualTo("O lote não aceita livros com id, somente novos livros.");
+		verify(entityManager,never()).persist(any());
 	}
 	
 	private void condicaoConsultaTeste(ProcurarLivroDTO procurarLivroDTO) {
 		when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-		when(criteriaBuilder.createQuery(Livro.class)).thenReturn(criteriaQuery);
+		when(criteriaBuilder.createQuery(LivroDTO.class)).thenReturn(criteriaQuery);
 		when(criteriaQuery.from(Livro.class)).thenReturn(root);
 		when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+		when(root.join("usuario", JoinType.LEFT)).thenReturn(usuarioJoin);
+		when(root.join("categoria", JoinType.LEFT)).thenReturn(categoriaJoin);
 		when(root.join("usuario")).thenReturn(usuarioJoin);
 		when(root.join("categoria")).thenReturn(categoriaJoin);
 	}
@@ -0,0 +1,92 @@
+package com.gabrielferreira.br.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.gabrielferreira.br.modelo.Categoria;
+import com.gabrielferreira.br.modelo.Usuario;
+import com.gabrielferreira.br.repositorio.CategoriaRepositorio;
+import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+
+@SpringBootTest
+@ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
+public class RemocaoCacheSegundoNivelTest {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private CategoriaService categoriaService;
+
+	@Autowired
+	private UsuarioRepositorio usuarioRepositorio;
+
+	@Autowired
+	private CategoriaRepositorio categoriaRepositorio;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	@DisplayName("Deve deletar o usuário do cache de segundo nível sem carregar o usuário e os livros.")
+	public void deveDeletarUsuarioCacheSemCarregar() {
+		
+		// Cenário
+		Usuario removido = usuarioRepositorio.save(Usuario.builder().autor("Autor Removido Cache").dataNascimento(new Date()).build());
+		entityManagerFactory.getCache().evictAll();
+		usuarioRepositorio.findById(removido.getId());
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando
+		usuarioService.deletar(removido.getId());
+		
+		// Verificando, somente os DELETE vão para o banco (o Hibernate inclui o da tabela de ligação dos livros) e o usuário removido
+		// não vem mais do cache
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+		assertThat(entityManagerFactory.getCache().contains(Usuario.class, removido.getId())).isFalse();
+		assertThat(usuarioRepositorio.findById(removido.getId())).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve deletar as categorias do cache de segundo nível em lote com um único DELETE, sem carregar as categorias.")
+	public void deveDeletarCategoriasCacheEmLoteComUmDelete() {
+		
+		// Cenário
+		Categoria removida = categoriaRepositorio.save(Categoria.builder().descricao("Removida Cache").build());
+		entityManagerFactory.getCache().evictAll();
+		categoriaRepositorio.findById(removida.getId());
+		Statistics statistics = iniciarEstatisticas();
+		
+		// Executando, o id 0 não existe e não entra na quantidade removida
+		int removidas = categoriaService.deletarLote(Arrays.asList(removida.getId(), 0L));
+		
+		// Verificando
+		assertThat(removidas).isEqualTo(1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(entityManagerFactory.getCache().contains(Categoria.class, removida.getId())).isFalse();
+		assertThat(categoriaRepositorio.existsById(removida.getId())).isFalse();
+	}
+	
+	private Statistics iniciarEstatisticas() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		return statistics;
+	}
+
+}
@@ -6,12 +6,15 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.text.ParseException;
+import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +23,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -28,7 +32,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.Mockito;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -36,10 +43,14 @@ import com.gabrielferreira.br.exception.EntidadeNotFoundException;
 import com.gabrielferreira.br.exception.RegraDeNegocioException;
 import com.gabrielferreira.br.modelo.Usuario;
 import com.gabrielferreira.br.modelo.dto.criar.CriarUsuarioDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.PaginaCursorDTO;
+import com.gabrielferreira.br.modelo.dto.mostrar.RegistrosPorIdsDTO;
 import com.gabrielferreira.br.modelo.dto.mostrar.UsuarioDTO;
 import com.gabrielferreira.br.modelo.dto.procurar.ProcurarUsuarioDTO;
 import com.gabrielferreira.br.repositorio.UsuarioRepositorio;
+import com.gabrielferreira.br.utils.CursorPaginacao;
 import com.gabrielferreira.br.utils.ValidacaoFormatacao;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 @ExtendWith(SpringExtension.class) // O Spring deve rodar um mini contexto de injeção de dependecia para rodar os testes
 @ActiveProfiles("test") // Rodar com o perfil de teste, rodar com o ambiente de teste
@@ -55,11 +66,11 @@ public class UsuarioServiceTest {
 	
 	private CriteriaBuilder criteriaBuilder;
 	
-	private CriteriaQuery<Usuario> criteriaQuery;
+	private CriteriaQuery<UsuarioDTO> criteriaQuery;
 	
 	private Root<Usuario> root;
 	
-	private TypedQuery<Usuario> typedQuery;
+	private TypedQuery<UsuarioDTO> typedQuery;
 	
 	private Predicate predicateAutor;
 	private Predicate predicateDataNascimentoInicio;
@@ -69,7 +80,14 @@ public class UsuarioServiceTest {
 	public void criarInstancias() {
 		usuarioRepositorio = Mockito.mock(UsuarioRepositorio.class);
 		entityManager = Mockito.mock(EntityManager.class);
-		usuarioService = new UsuarioService(usuarioRepositorio,entityManager);
+		FiltroBloomService filtroBloomService = Mockito.mock(FiltroBloomService.class);
+		IndiceTrigramasService indiceTrigramasService = Mockito.mock(IndiceTrigramasService.class);
+		usuarioService = new UsuarioService(usuarioRepositorio,entityManager, filtroBloomService, Mockito.mock(BuscaLivroService.class),
+				Mockito.mock(AutocompletarService.class), indiceTrigramasService);
+		
+		// O filtro de bloom e o índice de trigramas não diminuem as consultas
+		when(filtroBloomService.podeExistirAutor(any())).thenReturn(true);
+		when(indiceTrigramasService.getCandidatosAutor(any())).thenReturn(null);
 		
 		criarUsuarioDTO = CriarUsuarioDTO.builder().id(null).autor("José Da Silva").dataNascimento(new Date()).build();
 	}
@@ -95,13 +113,13 @@ public class UsuarioServiceTest {
 		Usuario usuarioCriado = Usuario.builder().id(34L).autor(criarUsuarioDTO.getAutor()).dataNascimento(criarUsuarioDTO.getDataNascimento()).build();
 		
 		// Quando for salvar no repositorio, retornar o usuário criado ja com o id embutido
-		when(usuarioRepositorio.save(any())).thenReturn(usuarioCriado);
+		when(usuarioRepositorio.saveAndFlush(any())).thenReturn(usuarioCriado);
 		
 		// Executando o método
 		Usuario usuarioSalvo = usuarioService.inserir(criarUsuarioDTO);
 		
 		// Verificando se foi invocado o save no service
-		verify(usuarioRepositorio).save(any());
+		verify(usuarioRepositorio).saveAndFlush(any());
 		
 		// Verificando 
 		assertThat(usuarioSalvo.getId()).isNotNull();
@@ -159,16 +177,16 @@ public class UsuarioServiceTest {
 		Usuario usuarioAtualizado = Usuario.builder().id(criarUsuarioDTO.getId()).autor(criarUsuarioDTO.getAutor()).dataNascimento(criarUsuarioDTO.getDataNascimento()).build();
 		
 		// Quando for verificar o método de autor ja cadastrado, deve retornar null, ou seja não existe autor repetido
-		when(usuarioRepositorio.buscarAutorUsuarioQuandoForAtualizar(anyString(), anyLong())).thenReturn(null);
+		when(usuarioRepositorio.existsByAutorAndIdNot(anyString(), anyLong())).thenReturn(false);
 		
 		// Quando for atualizar no repositorio, retornar o usuário que queria já salvar
-		when(usuarioRepositorio.save(any())).thenReturn(usuarioAtualizado);
+		when(usuarioRepositorio.saveAndFlush(any())).thenReturn(usuarioAtualizado);
 		
 		// Executando o método
 		Usuario usuarioParaAtualizar = usuarioService.inserir(criarUsuarioDTO);
 		
 		// Verificando se foi invocado o save no service
-		verify(usuarioRepositorio).save(any());
+		verify(usuarioRepositorio).saveAndFlush(any());
 		
 		// Verificando 
 		assertThat(usuarioParaAtualizar.getId()).isNotNull();
@@ -184,12 +202,30 @@ public class UsuarioServiceTest {
 		// Cenário
 		Usuario usuario = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
 		
+		// O delete direto no banco remove um registro
+		when(usuarioRepositorio.deletarPorId(usuario.getId())).thenReturn(1);
+		
 		// Executando método 
 		usuarioService.deletar(usuario.getId());
 		
 		// Verificação
-		verify(usuarioRepositorio).deleteById(usuario.getId());
+		verify(usuarioRepositorio).deletarPorId(usuario.getId());
+		
+	}
+	
+	@Test
+	@DisplayName("Não deve deletar o usuário que ainda tem livros associados.")
+	public void naoDeveDeletarUsuarioComLivros() {
+		
+		// Cenário, a chave estrangeira do livro impede o delete
+		ConstraintViolationException violacao = new ConstraintViolationException("Referential integrity constraint violation", null, "PUBLIC.USUARIO_FK");
+		when(usuarioRepositorio.deletarPorId(1L)).thenThrow(new DataIntegrityViolationException("delete", violacao));
 		
+		// Execução
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class, () -> usuarioService.deletar(1L));
+		
+		// Verificação
+		assertThat(exception).hasMessage("Não é possível deletar usuário pois tem livros associados !");
 	}
 	
 	@Test
@@ -205,7 +241,7 @@ public class UsuarioServiceTest {
 		
 		// Verificação
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(usuarioRepositorio,never()).save(any());
+		verify(usuarioRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -216,12 +252,9 @@ public class UsuarioServiceTest {
 		// Criando o nosso usuario para fazer o update
 		CriarUsuarioDTO criarUsuarioDTO = CriarUsuarioDTO.builder().id(11L).autor("Teste 123").dataNascimento(new Date()).build();
 
-		// Entidade que já esta salva no banco do mock
-		Usuario usuarioSalvo = Usuario.builder().id(50L).autor("Teste 123").dataNascimento(new Date()).build();
-
 		// Quando for verificar o autor cadastrado, é pra retorna como verdadeiro, ou seja existe autor cadastrado
-		when(usuarioRepositorio.buscarAutorUsuarioQuandoForAtualizar(anyString(), anyLong()))
-				.thenReturn(usuarioSalvo);
+		when(usuarioRepositorio.existsByAutorAndIdNot(anyString(), anyLong()))
+				.thenReturn(true);
 
 
 		// Execução
@@ -229,7 +262,7 @@ public class UsuarioServiceTest {
 				
 		// Verificação
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
-		verify(usuarioRepositorio,never()).save(any());
+		verify(usuarioRepositorio,never()).saveAndFlush(any());
 	}
 	
 	@Test
@@ -286,38 +319,37 @@ public class UsuarioServiceTest {
 	@DisplayName("Deve mostrar lista de usários cadastrados.")
 	public void deveMostrarListaDeUsuarios() {
 		// Cenário 
-		List<Usuario> usuarios = new ArrayList<Usuario>();
-		usuarios.add(Usuario.builder().id(1L).autor("José da Silva").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(2L).autor("Marcos da Silva").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(3L).autor("Natália da Silva").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(4L).autor("Josué da Silva").dataNascimento(new Date()).build());
+		List<UsuarioDTO> usuarios = new ArrayList<UsuarioDTO>();
+		usuarios.add(UsuarioDTO.builder().id(1L).autor("José da Silva").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(2L).autor("Marcos da Silva").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(3L).autor("Natália da Silva").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(4L).autor("Josué da Silva").dataNascimento(new Date()).build());
 		
 		// Mockando o resultado de usuários 
-		when(usuarioRepositorio.findAll()).thenReturn(usuarios);
+		when(usuarioRepositorio.buscarUsuariosDTO()).thenReturn(usuarios);
 		
 		// Executando o método
 		List<UsuarioDTO> usuarioDTOs = usuarioService.mostrarUsuarios();
 		
 		// Verificando se foi invocado
-		verify(usuarioRepositorio).findAll();
+		verify(usuarioRepositorio).buscarUsuariosDTO();
 		
 		// Verificando
 		assertThat(usuarioDTOs).hasSize(4);
 	}
 	
 	@Test
-	@DisplayName("Não deve mostrar lista de usários pois ninguem foi cadastrado.")
+	@DisplayName("Deve mostrar a lista vazia de usuários quando ninguem foi cadastrado.")
 	public void naoDeveMostrarListaDeUsuarios() {
 		// Cenário
-		when(usuarioRepositorio.findAll()).thenReturn(new ArrayList<>());
+		when(usuarioRepositorio.buscarUsuariosDTO()).thenReturn(new ArrayList<>());
 
 		// Executando
-		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class,
-				() -> usuarioService.mostrarUsuarios());
+		List<UsuarioDTO> usuarioDTOs = usuarioService.mostrarUsuarios();
 
-		// Verificação
-		assertThat(exception).isInstanceOf(EntidadeNotFoundException.class).hasMessage(exception.getMessage());
-		verify(usuarioRepositorio).findAll();
+		// Verificação, a busca sem resultado não é um erro
+		assertThat(usuarioDTOs).isEmpty();
+		verify(usuarioRepositorio).buscarUsuariosDTO();
 	}
 	
 	@Test
@@ -330,16 +362,16 @@ public class UsuarioServiceTest {
 					.dataNascimentoFinal(sdf.parse("05/04/2022"))
 					.build();
 		
-		List<Usuario> usuarios = new ArrayList<Usuario>();
-		usuarios.add(Usuario.builder().id(1L).autor("Gabriel 1").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(2L).autor("Gabriel 2").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(3L).autor("Gabriel 3").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(4L).autor("Gabriel 4").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(5L).autor("Gabriel 5").dataNascimento(new Date()).build());
+		List<UsuarioDTO> usuarios = new ArrayList<UsuarioDTO>();
+		usuarios.add(UsuarioDTO.builder().id(1L).autor("Gabriel 1").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(2L).autor("Gabriel 2").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(3L).autor("Gabriel 3").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(4L).autor("Gabriel 4").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(5L).autor("Gabriel 5").dataNascimento(new Date()).build());
 		
 		condicaoConsultaTeste(procurarUsuarioDTO);
 		
-		when(criteriaBuilder.like(root.get("autor"), "%" + procurarUsuarioDTO.getAutor()+ "%")).thenReturn(predicateAutor);
+		when(criteriaBuilder.like(root.get("autorNormalizado"), "%" + ValidacaoFormatacao.getTextoNormalizado(procurarUsuarioDTO.getAutor())+ "%")).thenReturn(predicateAutor);
 		when(criteriaBuilder.greaterThanOrEqualTo(root.get("dataNascimento"), procurarUsuarioDTO.getDataNascimentoInicio())).thenReturn(predicateDataNascimentoInicio);
 		when(criteriaBuilder.lessThanOrEqualTo(root.get("dataNascimento"), procurarUsuarioDTO.getDataNascimentoFinal())).thenReturn(predicateDataNascimentoFinal);
 		when(typedQuery.getResultList()).thenReturn(usuarios);
@@ -362,9 +394,9 @@ public class UsuarioServiceTest {
 					.dataNascimentoFinal(sdf.parse("05/04/2022"))
 					.build();
 		
-		List<Usuario> usuarios = new ArrayList<Usuario>();
-		usuarios.add(Usuario.builder().id(1L).autor("Gabriel 1").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(2L).autor("Gabriel 2").dataNascimento(new Date()).build());
+		List<UsuarioDTO> usuarios = new ArrayList<UsuarioDTO>();
+		usuarios.add(UsuarioDTO.builder().id(1L).autor("Gabriel 1").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(2L).autor("Gabriel 2").dataNascimento(new Date()).build());
 		
 		condicaoConsultaTeste(procurarUsuarioDTO);
 		
@@ -388,9 +420,9 @@ public class UsuarioServiceTest {
 		ProcurarUsuarioDTO procurarUsuarioDTO = ProcurarUsuarioDTO.builder().autor(null).dataNascimentoInicio(sdf.parse("05/04/2022"))
 					.dataNascimentoFinal(null).build();
 		
-		List<Usuario> usuarios = new ArrayList<Usuario>();
-		usuarios.add(Usuario.builder().id(1L).autor("Gabriel 1").dataNascimento(new Date()).build());
-		usuarios.add(Usuario.builder().id(2L).autor("Gabriel 2").dataNascimento(new Date()).build());
+		List<UsuarioDTO> usuarios = new ArrayList<UsuarioDTO>();
+		usuarios.add(UsuarioDTO.builder().id(1L).autor("Gabriel 1").dataNascimento(new Date()).build());
+		usuarios.add(UsuarioDTO.builder().id(2L).autor("Gabriel 2").dataNascimento(new Date()).build());
 		
 		condicaoConsultaTeste(procurarUsuarioDTO);
 		
@@ -418,17 +450,16 @@ public class UsuarioServiceTest {
 		condicaoConsultaTeste(procurarUsuarioDTO);
 		
 		
-		when(criteriaBuilder.like(root.get("autor"), "%" + procurarUsuarioDTO.getAutor()+ "%")).thenReturn(predicateAutor);
+		when(criteriaBuilder.like(root.get("autorNormalizado"), "%" + ValidacaoFormatacao.getTextoNormalizado(procurarUsuarioDTO.getAutor())+ "%")).thenReturn(predicateAutor);
 		when(criteriaBuilder.greaterThanOrEqualTo(root.get("dataNascimento"), procurarUsuarioDTO.getDataNascimentoInicio())).thenReturn(predicateDataNascimentoInicio);
 		when(criteriaBuilder.lessThanOrEqualTo(root.get("dataNascimento"), procurarUsuarioDTO.getDataNascimentoFinal())).thenReturn(predicateDataNascimentoFinal);
 		when(typedQuery.getResultList()).thenReturn(new ArrayList<>());
 		
 		// Executando
-		Throwable exception = Assertions.assertThrows(EntidadeNotFoundException.class,
-					() -> usuarioService.filtroUsuarios(procurarUsuarioDTO));
+		List<UsuarioDTO> usuarioDTOs = usuarioService.filtroUsuarios(procurarUsuarioDTO);
 		
-		// Verificação
-		assertThat(exception).isInstanceOf(EntidadeNotFoundException.class).hasMessage(exception.getMessage());
+		// Verificação, a busca sem resultado não é um erro
+		assertThat(usuarioDTOs).isEmpty();
 	}
 	
 	@Test
@@ -450,10 +481,145 @@ public class UsuarioServiceTest {
 		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage(exception.getMessage());
 	}
 	
+	@Test
+	@DisplayName("Deve mostrar a página seguinte de usuários por cursor a partir da data de nascimento do último usuário.")
+	@SuppressWarnings("unchecked")
+	public void deveMostrarPaginaDeUsuariosCursor() throws ParseException {
+		
+		// Cenário 
+		SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
+		ProcurarUsuarioDTO procurarUsuarioDTO = ProcurarUsuarioDTO.builder().build();
+		Date dataUltimoUsuario = sdf.parse("05/04/2022");
+		String cursor = CursorPaginacao.gerarCursor(dataUltimoUsuario, 10L);
+		
+		List<UsuarioDTO> usuarios = new ArrayList<UsuarioDTO>();
+		usuarios.add(UsuarioDTO.builder().id(9L).autor("Gabriel 9").dataNascimento(sdf.parse("04/04/2022")).build());
+		usuarios.add(UsuarioDTO.builder().id(8L).autor("Gabriel 8").dataNascimento(sdf.parse("03/04/2022")).build());
+		
+		Path<Date> pathDataNascimento = Mockito.mock(Path.class);
+		Path<Long> pathId = Mockito.mock(Path.class);
+		
+		condicaoConsultaTeste(procurarUsuarioDTO);
+		
+		when(root.<Date>get("dataNascimento")).thenReturn(pathDataNascimento);
+		when(root.<Long>get("id")).thenReturn(pathId);
+		when(typedQuery.getResultList()).thenReturn(usuarios);
+		
+		// Executando
+		PaginaCursorDTO<UsuarioDTO> paginaCursor = usuarioService.filtroUsuariosCursor(procurarUsuarioDTO, cursor, 2);
+		
+		// Verificando
+		verify(criteriaBuilder).lessThan(pathDataNascimento, dataUltimoUsuario);
+		verify(criteriaBuilder).lessThan(pathId, 10L);
+		verify(typedQuery).setMaxResults(3);
+		assertThat(paginaCursor.getConteudo()).hasSize(2);
+		assertThat(paginaCursor.getProximo()).isNull();
+	}
+	
 	private void condicaoConsultaTeste(ProcurarUsuarioDTO procurarUsuarioDTO) {
 		when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-		when(criteriaBuilder.createQuery(Usuario.class)).thenReturn(criteriaQuery);
+		when(criteriaBuilder.createQuery(UsuarioDTO.class)).thenReturn(criteriaQuery);
 		when(criteriaQuery.from(Usuario.class)).thenReturn(root);
 		when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
 	}
+	@Test
+	@DisplayName("Deve buscar o usuário no banco somente na primeira vez quando a entidade usa cache, cada busca recebe a sua cópia.")
+	public void deveBuscarUsuarioDoCache() {
+		// Cenário
+		usuarioService.setCacheManager(criarCacheManagerUsuario());
+		Usuario usuario = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		when(usuarioRepositorio.findById(usuario.getId())).thenReturn(Optional.of(usuario));
+		
+		// Executando, a alteração da entidade buscada não pode chegar no cache
+		Usuario primeiraBusca = usuarioService.getDetalhe(usuario.getId());
+		primeiraBusca.setAutor("Autor Alterado");
+		Usuario segundaBusca = usuarioService.getDetalhe(usuario.getId());
+		segundaBusca.getDataNascimento().setTime(0L);
+		Usuario terceiraBusca = usuarioService.getDetalhe(usuario.getId());
+		
+		// Verificando
+		verify(usuarioRepositorio, times(1)).findById(usuario.getId());
+		assertThat(segundaBusca).isNotSameAs(primeiraBusca).isNotSameAs(terceiraBusca);
+		assertThat(segundaBusca.getId()).isEqualTo(usuario.getId());
+		assertThat(segundaBusca.getAutor()).isEqualTo("Gabriel Ferreira");
+		assertThat(terceiraBusca.getDataNascimento().getTime()).isNotZero();
+	}
+	
+	@Test
+	@DisplayName("Deve remover o usuário do cache quando atualizar e quando deletar.")
+	public void deveRemoverUsuarioDoCache() {
+		// Cenário
+		usuarioService.setCacheManager(criarCacheManagerUsuario());
+		Usuario usuario = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		when(usuarioRepositorio.findById(usuario.getId())).thenReturn(Optional.of(usuario));
+		when(usuarioRepositorio.saveAndFlush(any())).thenReturn(usuario);
+		when(usuarioRepositorio.deletarPorId(usuario.getId())).thenReturn(1);
+		
+		// Executando
+		usuarioService.getDetalhe(usuario.getId());
+		usuarioService.inserir(CriarUsuarioDTO.builder().id(usuario.getId()).autor("Gabriel Ferreira").dataNascimento(new Date()).build());
+		usuarioService.getDetalhe(usuario.getId());
+		usuarioService.deletar(usuario.getId());
+		usuarioService.getDetalhe(usuario.getId());
+		
+		// Verificando
+		verify(usuarioRepositorio, times(3)).findById(usuario.getId());
+	}
+	
+	@Test
+	@DisplayName("Deve buscar os usuários dos ids informados em uma consulta, sem consultar os que estão no cache, e informar os não encontrados.")
+	public void deveBuscarUsuariosPorIds() {
+		// Cenário, o usuário 1 já está no cache e o id 3 não existe
+		usuarioService.setCacheManager(criarCacheManagerUsuario());
+		Usuario usuario1 = Usuario.builder().id(1L).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		Usuario usuario2 = Usuario.builder().id(2L).autor("José Ferreira").dataNascimento(new Date()).build();
+		when(usuarioRepositorio.findById(usuario1.getId())).thenReturn(Optional.of(usuario1));
+		when(usuarioRepositorio.findAllById(Arrays.asList(2L, 3L))).thenReturn(Arrays.asList(usuario2));
+		usuarioService.getDetalhe(usuario1.getId());
+		
+		// Executando, com id repetido
+		RegistrosPorIdsDTO<UsuarioDTO> registrosPorIds = usuarioService.getRegistrosPorIds(Arrays.asList(2L, 1L, 3L, 2L), Usuario::getId, UsuarioDTO::new);
+		
+		// Verificando, a ordem dos ids informados é mantida
+		assertThat(registrosPorIds.getRegistros()).extracting(UsuarioDTO::getAutor).containsExactly("José Ferreira", "Gabriel Ferreira");
+		assertThat(registrosPorIds.getNaoEncontrados()).containsExactly(3L);
+		verify(usuarioRepositorio).findAllById(Arrays.asList(2L, 3L));
+	}
+	
+	@Test
+	@DisplayName("Não deve buscar os usuários por ids sem informar os ids.")
+	public void naoDeveBuscarUsuariosPorIds() {
+		// Execução
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class, 
+				() -> usuarioService.getRegistrosPorIds(new ArrayList<Long>(), Usuario::getId, UsuarioDTO::new));
+		
+		// Verificação
+		assertThat(exception).hasMessage("Informe os ids dos registros que serão consultados.");
+	}
+	
+	@Test
+	@DisplayName("Não deve inserir usuário quando o índice único do autor for violado, mesmo passando pela verificação.")
+	public void naoDeveInserirUsuarioQuandoViolarIndiceUnicoAutor() {
+		// Cenário, outra requisição cadastrou o mesmo autor entre a verificação e o insert
+		CriarUsuarioDTO criarUsuarioDTO = CriarUsuarioDTO.builder().id(null).autor("Gabriel Ferreira").dataNascimento(new Date()).build();
+		when(usuarioRepositorio.existsByAutor(anyString())).thenReturn(false);
+		
+		ConstraintViolationException violacao = new ConstraintViolationException("Unique index or primary key violation", new SQLException(),
+				"PUBLIC.UK_USUARIO_AUTOR_INDEX_4 ON PUBLIC.TB_USUARIO(AUTOR NULLS FIRST)");
+		when(usuarioRepositorio.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement", violacao));
+		
+		// Execução
+		Throwable exception = Assertions.assertThrows(RegraDeNegocioException.class, () -> usuarioService.inserir(criarUsuarioDTO));
+		
+		// Verificação
+		assertThat(exception).isInstanceOf(RegraDeNegocioException.class).hasMessage("Este autor já foi cadastrado.");
+	}
+	
+	private CaffeineCacheManager criarCacheManagerUsuario() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.setCacheNames(new ArrayList<String>());
+		cacheManager.registerCustomCache("usuario", Caffeine.newBuilder().maximumSize(10).build());
+		return cacheManager;
+	}
+	
 }
@@ -0,0 +1,135 @@
+package com.gabrielferreira.br.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.gabrielferreira.br.modelo.dto.mostrar.SugestaoDTO;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+import net.jqwik.api.Tuple.Tuple2;
+
+public class ArvorePrefixosTest {
+	
+	// Poucos caracteres para as chaves dividirem e juntarem as arestas com frequência, o texto vazio remove o id
+	private static final String CARACTERES_TEXTO = "abAÁá ";
+	
+	@Property(tries = 2000)
+	@Label("Deve sugerir as mesmas chaves que a busca por prefixo em um mapa.")
+	public void deveSugerirIgualMapa(@ForAll("operacoes") List<Tuple2<Long, String>> operacoes, @ForAll("prefixos") String prefixo) {
+		
+		// Cenário
+		ArvorePrefixos arvore = new ArvorePrefixos();
+		Map<Long, String> modelo = new HashMap<Long, String>();
+		for(Tuple2<Long, String> operacao : operacoes) {
+			if(operacao.get2().isEmpty()) {
+				arvore.remover(operacao.get1());
+				modelo.remove(operacao.get1());
+			} else {
+				arvore.adicionar(operacao.get1(), operacao.get2());
+				modelo.put(operacao.get1(), operacao.get2());
+			}
+		}
+		
+		// Executando
+		List<SugestaoDTO> sugestoes = arvore.buscar(prefixo, Integer.MAX_VALUE);
+		
+		// Verificando, as sugestões saem em ordem alfabética das chaves normalizadas
+		String chavePrefixo = ValidacaoFormatacao.getTextoNormalizado(prefixo);
+		List<Long> esperados = new ArrayList<Long>();
+		modelo.forEach((id, texto) -> {
+			String chave = ValidacaoFormatacao.getTextoNormalizado(texto);
+			if(!chave.isEmpty() && !chavePrefixo.isEmpty() && chave.startsWith(chavePrefixo)) {
+				esperados.add(id);
+			}
+		});
+		assertThat(sugestoes).extracting(SugestaoDTO::getId).containsExactlyInAnyOrderElementsOf(esperados);
+		assertThat(sugestoes).extracting(s -> ValidacaoFormatacao.getTextoNormalizado(s.getTexto())).isSortedAccordingTo(Comparator.naturalOrder());
+		assertThat(sugestoes).allMatch(s -> s.getTexto().equals(modelo.get(s.getId())));
+		assertThat(arvore.getTotal()).isEqualTo((int) modelo.values().stream().filter(t -> !ValidacaoFormatacao.getTextoNormalizado(t).isEmpty()).count());
+	}
+	
+	@Provide
+	public Arbitrary<List<Tuple2<Long, String>>> operacoes() {
+		Arbitrary<Long> ids = Arbitraries.longs().between(1, 15);
+		Arbitrary<String> textos = Arbitraries.strings().withChars(CARACTERES_TEXTO.toCharArray()).ofMaxLength(6);
+		return ids.flatMap(id -> textos.map(texto -> Tuple.of(id, texto))).list().ofMaxSize(40);
+	}
+	
+	@Provide
+	public Arbitrary<String> prefixos() {
+		return Arbitraries.strings().withChars(CARACTERES_TEXTO.toCharArray()).ofMaxLength(3);
+	}
+	
+	@Test
+	@DisplayName("Deve sugerir sem diferenciar acento e letra maiúscula, devolvendo o texto original.")
+	public void deveSugerirSemAcento() {
+		
+		// Cenário
+		ArvorePrefixos arvore = new ArvorePrefixos();
+		arvore.adicionar(1L, "Órfãos do Eldorado");
+		arvore.adicionar(2L, "Orgulho e Preconceito");
+		arvore.adicionar(3L, "O Cortiço");
+		
+		// Executando
+		List<SugestaoDTO> sugestoes = arvore.buscar("  orF", 10);
+		
+		// Verificando
+		assertThat(sugestoes).extracting(SugestaoDTO::getId).containsExactly(1L);
+		assertThat(sugestoes.get(0).getTexto()).isEqualTo("Órfãos do Eldorado");
+		assertThat(arvore.buscar("or", 10)).extracting(SugestaoDTO::getId).containsExactly(1L, 2L);
+	}
+	
+	@Test
+	@DisplayName("Deve sugerir em ordem alfabética e parar no total informado.")
+	public void deveSugerirAteTotal() {
+		
+		// Cenário
+		ArvorePrefixos arvore = new ArvorePrefixos();
+		arvore.adicionar(1L, "Teste Livro C");
+		arvore.adicionar(2L, "Teste");
+		arvore.adicionar(3L, "Teste Livro A");
+		arvore.adicionar(4L, "Teste Livro B");
+		
+		// Executando
+		List<SugestaoDTO> sugestoes = arvore.buscar("teste", 3);
+		
+		// Verificando
+		assertThat(sugestoes).extracting(SugestaoDTO::getId).containsExactly(2L, 3L, 4L);
+		assertThat(arvore.buscar("teste", 0)).isEmpty();
+		assertThat(arvore.buscar(" ", 10)).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve trocar o texto do id já existente e remover pelo id.")
+	public void deveAtualizarRemoverPorId() {
+		
+		// Cenário
+		ArvorePrefixos arvore = new ArvorePrefixos();
+		arvore.adicionar(1L, "Dom Casmurro");
+		arvore.adicionar(2L, "Dom Quixote");
+		
+		// Executando
+		arvore.adicionar(1L, "Memórias Póstumas");
+		arvore.remover(2L);
+		
+		// Verificando
+		assertThat(arvore.buscar("dom", 10)).isEmpty();
+		assertThat(arvore.buscar("memorias", 10)).extracting(SugestaoDTO::getTexto).containsExactly("Memórias Póstumas");
+		assertThat(arvore.getTotal()).isEqualTo(1);
+	}
+	
+}
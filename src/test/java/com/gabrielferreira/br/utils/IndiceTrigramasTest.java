@@ -0,0 +1,145 @@
+package com.gabrielferreira.br.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+import net.jqwik.api.Tuple.Tuple2;
+
+public class IndiceTrigramasTest {
+	
+	// Poucos caracteres para os trigramas se repetirem entre os textos, com letra maiúscula e acento
+	private static final String CARACTERES_TEXTO = "abcAÁá ";
+	
+	@Property(tries = 2000)
+	@Label("Deve devolver como candidato todo texto que o LIKE encontraria.")
+	public void deveConterTodosQueLikeEncontraria(@ForAll("operacoes") List<Tuple2<Long, String>> operacoes, @ForAll("filtros") String filtro) {
+		
+		// Cenário, o texto nulo remove o id
+		IndiceTrigramas indice = new IndiceTrigramas();
+		Map<Long, String> modelo = new HashMap<Long, String>();
+		for(Tuple2<Long, String> operacao : operacoes) {
+			if(operacao.get2() == null) {
+				indice.remover(operacao.get1());
+				modelo.remove(operacao.get1());
+			} else {
+				indice.adicionar(operacao.get1(), operacao.get2());
+				modelo.put(operacao.get1(), operacao.get2());
+			}
+		}
+		
+		// Executando
+		List<Long> candidatos = indice.buscarCandidatos(filtro, Integer.MAX_VALUE);
+		
+		// Verificando, sem candidatos (nulo) a consulta fica somente com o LIKE e não há o que comparar
+		if(candidatos != null) {
+			Pattern like = getPadraoLike(filtro);
+			modelo.forEach((id, texto) -> {
+				if(like.matcher(texto).matches()) {
+					assertThat(candidatos).contains(id);
+				}
+			});
+			assertThat(candidatos).isSorted().doesNotHaveDuplicates();
+			assertThat(modelo.keySet()).containsAll(candidatos);
+		}
+		assertThat(indice.getTotal()).isEqualTo(modelo.size());
+	}
+	
+	@Provide
+	public Arbitrary<List<Tuple2<Long, String>>> operacoes() {
+		Arbitrary<Long> ids = Arbitraries.longs().between(1, 15);
+		Arbitrary<String> textos = Arbitraries.strings().withChars(CARACTERES_TEXTO.toCharArray()).ofMaxLength(8).injectNull(0.1);
+		return ids.flatMap(id -> textos.map(texto -> Tuple.of(id, texto))).list().ofMaxSize(40);
+	}
+	
+	@Provide
+	public Arbitrary<String> filtros() {
+		return Arbitraries.strings().withChars((CARACTERES_TEXTO + "%_").toCharArray()).ofMaxLength(5);
+	}
+	
+	@Test
+	@DisplayName("Deve devolver somente os ids que contêm o pedaço do texto, sem diferenciar letra maiúscula.")
+	public void deveBuscarCandidatos() {
+		
+		// Cenário
+		IndiceTrigramas indice = new IndiceTrigramas();
+		indice.adicionar(3L, "Gabriel Ferreira");
+		indice.adicionar(1L, "Maria Ferreira");
+		indice.adicionar(2L, "José da Silva");
+		
+		// Executando
+		List<Long> candidatos = indice.buscarCandidatos("ferr", 10);
+		
+		// Verificando
+		assertThat(candidatos).containsExactly(1L, 3L);
+		assertThat(indice.buscarCandidatos("RIA FER", 10)).containsExactly(1L);
+		assertThat(indice.buscarCandidatos("ferr%silva", 10)).isEmpty();
+		assertThat(indice.buscarCandidatos("jos_ da", 10)).containsExactly(2L);
+		assertThat(indice.buscarCandidatos("souza", 10)).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Não deve restringir os candidatos quando o filtro não tem trigramas, tem escape ou passa do máximo.")
+	public void naoDeveRestringirCandidatos() {
+		
+		// Cenário
+		IndiceTrigramas indice = new IndiceTrigramas();
+		indice.adicionar(1L, "Gabriel Ferreira");
+		indice.adicionar(2L, "Maria Ferreira");
+		
+		// Verificando
+		assertThat(indice.buscarCandidatos("fe", 10)).isNull();
+		assertThat(indice.buscarCandidatos("fe%ir", 10)).isNull();
+		assertThat(indice.buscarCandidatos("fer\\%", 10)).isNull();
+		assertThat(indice.buscarCandidatos("ferreira", 1)).isNull();
+		assertThat(indice.buscarCandidatos(null, 10)).isNull();
+	}
+	
+	@Test
+	@DisplayName("Deve trocar o texto do id já existente e remover pelo id.")
+	public void deveAtualizarRemoverPorId() {
+		
+		// Cenário
+		IndiceTrigramas indice = new IndiceTrigramas();
+		indice.adicionar(1L, "9780000000001");
+		indice.adicionar(2L, "9780000000002");
+		
+		// Executando
+		indice.adicionar(1L, "8550000000001");
+		indice.remover(2L);
+		
+		// Verificando
+		assertThat(indice.buscarCandidatos("978", 10)).isEmpty();
+		assertThat(indice.buscarCandidatos("855", 10)).containsExactly(1L);
+		assertThat(indice.getTotal()).isEqualTo(1);
+	}
+	
+	// LIKE do banco, diferenciando letra maiúscula, % é qualquer sequência e _ é um caractere, com o % no início e no fim como nos filtros
+	private Pattern getPadraoLike(String filtro) {
+		StringBuilder padrao = new StringBuilder(".*");
+		for(char caractere : filtro.toCharArray()) {
+			if(caractere == '%') {
+				padrao.append(".*");
+			} else if(caractere == '_') {
+				padrao.append('.');
+			} else {
+				padrao.append(Pattern.quote(String.valueOf(caractere)));
+			}
+		}
+		return Pattern.compile(padrao.append(".*").toString(), Pattern.DOTALL);
+	}
+	
+}
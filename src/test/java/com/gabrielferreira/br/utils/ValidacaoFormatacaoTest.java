@@ -0,0 +1,89 @@
+package com.gabrielferreira.br.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+public class ValidacaoFormatacaoTest {
+	
+	// Letras, números e pontuação de nomes, sem vírgula e colchetes que a formatação anterior removia
+	// ß, İ, ı e o sigma entram porque a maiúscula ou minúscula do String deles muda o tamanho ou depende do fim da palavra
+	private static final String CARACTERES_NOME = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"
+			+ "áàâãéêíóôõúüçÁÀÂÃÉÊÍÓÔÕÚÜÇßİıΣσςΑα0123456789.-'!?:   \t";
+	
+	@Property(tries = 5000)
+	@Label("Deve formatar o nome igual a formatação anterior.")
+	public void deveFormatarNomeIgualFormatacaoAnterior(@ForAll("nomes") String nome) {
+		assertThat(ValidacaoFormatacao.getFormatacaoNome(nome)).isEqualTo(getFormatacaoNomeAnterior(nome));
+	}
+	
+	@Provide
+	public Arbitrary<String> nomes() {
+		return Arbitraries.strings().withChars(CARACTERES_NOME.toCharArray()).ofMaxLength(40);
+	}
+	
+	@Test
+	@DisplayName("Deve formatar o nome com a primeira letra maiúscula e um espaço entre os nomes.")
+	public void deveFormatarNome() {
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("  gABRIEL   ferreira  ")).isEqualTo("Gabriel Ferreira");
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("joão da silva")).isEqualTo("João Da Silva");
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("   ")).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("Deve formatar os caracteres com regra especial de maiúscula e minúscula igual ao String.")
+	public void deveFormatarNomeCaracteresEspeciais() {
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("ßauer strauß")).isEqualTo("SSauer Strauß");
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("kİLİM")).isEqualTo("Ki\u0307li\u0307m");
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("ıSIK")).isEqualTo("Isik");
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("ΟΔΥΣΣΕΥΣ")).isEqualTo("Οδυσσευς");
+	}
+	
+	@Test
+	@DisplayName("Deve devolver o mesmo nome quando já está formatado.")
+	public void deveDevolverMesmoNomeFormatado() {
+		
+		// Cenário
+		String nome = "Gabriel Ferreira";
+		
+		// Executando
+		String nomeFormatado = ValidacaoFormatacao.getFormatacaoNome(nome);
+		
+		// Verificando
+		assertThat(nomeFormatado).isSameAs(nome);
+	}
+	
+	@Test
+	@DisplayName("Deve manter a vírgula e os colchetes do nome.")
+	public void deveManterVirgulaNome() {
+		assertThat(ValidacaoFormatacao.getFormatacaoNome("ferreira, josé [filho]")).isEqualTo("Ferreira, José [filho]");
+	}
+	
+	// Formatação anterior, usada como referência
+	private static String getFormatacaoNomeAnterior(String valor) {
+		String valorSemEspaco = valor.trim();
+		List<String> nomes = new ArrayList<>(Arrays.asList(valorSemEspaco.split(" ")));
+		List<String> nomesComFormato = new ArrayList<String>();
+		for(String nomeFormato : nomes) {
+			if(!nomeFormato.isEmpty()) {
+				String primeiraLetra = nomeFormato.substring(0, 1).toUpperCase();
+				String restante = nomeFormato.substring(1).toLowerCase();
+				nomesComFormato.add(primeiraLetra + restante);
+			}
+		}
+		return nomesComFormato.toString().replace(",", "").replace("[", "").replace("]", "");
+	}
+
+}